@@ -1,8 +1,10 @@
 package com.ihortymkiv.chemistry;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Representation of an atom.<p>
@@ -10,7 +12,7 @@ import java.util.Objects;
  * Can be thought of as a vertex in our graph representation of a chemical compound.
  */
 public class Atom {
-    private static int counter = 0;
+    private static final AtomicInteger counter = new AtomicInteger();
 
     private final int id;
     private final ChemicalElement chemicalElement;
@@ -21,6 +23,17 @@ public class Atom {
      * Can be thought of as an adjacency list in our graph representation of a chemical compound.
      */
     private final List<Bond> bonds = new ArrayList<>();
+    private final List<Bond> bondsView = Collections.unmodifiableList(bonds);
+
+    /**
+     * Set once the compound the atom belongs to is frozen, after which no bonds can be formed.
+     */
+    private boolean frozen;
+
+    /**
+     * Index of the atom in the {@link Compound} it was last added to, {@code -1} before that.
+     */
+    int index = -1;
 
     /**
      * Current valence of the atom.<p>
@@ -31,7 +44,7 @@ public class Atom {
     private int valence;
 
     public Atom(ChemicalElement chemicalElement) {
-        this.id = ++Atom.counter;
+        this.id = Atom.counter.incrementAndGet();
         this.chemicalElement = Objects.requireNonNull(chemicalElement, "ChemicalElement cannot be null.");
         this.valence = chemicalElement.normalValence();
     }
@@ -48,9 +61,13 @@ public class Atom {
      * @param bondOrder order of the bond (e.g. {@code 2} for double bond)
      * @throws BondOrderExceedsValenceException if {@code bondOrder} is greater than {@code valence} of any atom
      * @throws BondAlreadyExistsException if bond between atoms exists
+     * @throws IllegalStateException if either atom belongs to a frozen compound
      */
     public void addBond(Atom to, int bondOrder) {
         Objects.requireNonNull(to, "To cannot be null.");
+        if (this.frozen || to.frozen) {
+            throw new IllegalStateException("Atom belongs to a frozen compound.");
+        }
         if (this.equals(to)) {
             throw new IllegalArgumentException("Atom cannot bond to an instance of itself.");
         }
@@ -63,7 +80,7 @@ public class Atom {
         if (bondOrder > to.valence) {
             throw new BondOrderExceedsValenceException(bondOrder, to.valence, to);
         }
-        if (this.getBondedAtoms().contains(to)) {
+        if (this.isBondedTo(to)) {
             throw new BondAlreadyExistsException(this, to);
         }
 
@@ -88,8 +105,29 @@ public class Atom {
         return this.bonds.stream().map(Bond::to).toList();
     }
 
+    private boolean isBondedTo(Atom atom) {
+        for (int i = 0; i < this.bonds.size(); i++) {
+            if (this.bonds.get(i).to().equals(atom)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a read-only view of the formed bonds.
+     * @return bonds of this atom
+     */
     public List<Bond> getBonds() {
-        return this.bonds;
+        return this.bondsView;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    void freeze() {
+        this.frozen = true;
     }
 
     public int getValence() {
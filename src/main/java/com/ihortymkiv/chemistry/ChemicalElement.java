@@ -2,6 +2,8 @@ package com.ihortymkiv.chemistry;
 
 /**
  * Enumeration of chemical elements with their symbol and normal valence.
+ * <p>
+ * The ordinal is used as the element code by {@link CompoundBinaryWriter}, new elements must be appended.
  */
 public enum ChemicalElement {
     Hydrogen("H", 1),
@@ -2,45 +2,360 @@ package com.ihortymkiv.chemistry;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Graph representation of a chemical compound.
+ * Graph representation of a chemical compound.<p>
+ *
+ * Every atom has a dense index, its position in {@link #atoms()}, which the traversal methods use
+ * in place of {@link Atom} objects. An atom belongs to the compound it was added to last.<p>
+ *
+ * A new compound is mutable and serves as the builder, {@link #freeze()} publishes an immutable snapshot of it.
+ * Snapshots can be shared between threads and cached without defensive copies.
  */
 public class Compound {
-    private final List<Atom> atoms = new ArrayList<>();
+    private final List<Atom> atoms;
+    private final List<Atom> atomsView;
+    private final boolean frozen;
+
+    public Compound() {
+        this.atoms = new ArrayList<>();
+        this.atomsView = Collections.unmodifiableList(this.atoms);
+        this.frozen = false;
+    }
+
+    /**
+     * Snapshot constructor. Every atom and bond is reachable through the final {@code atoms} field
+     * and was written before this constructor ends, so the snapshot is safely published even through a data race.
+     */
+    private Compound(List<Atom> atoms) {
+        this.atoms = atoms;
+        this.atomsView = atoms;
+        this.frozen = true;
+    }
+
+    /**
+     * Callback of the traversal methods, called once for every reached atom.
+     */
+    @FunctionalInterface
+    public interface AtomVisitor {
+        /**
+         * @param atom index of the visited atom
+         * @param parent index of the atom it was reached from, {@code -1} for the start atom
+         * @param depth number of bonds between the start atom and the visited atom along the traversal
+         */
+        void visit(int atom, int parent, int depth);
+    }
 
     /**
      * Return a copy of the set containing atoms.
+     * Prefer {@link #atoms()} or {@link #atom(int)}, which don't copy.
      * @return copy of the set of atoms
      */
     public List<Atom> getAtoms() {
         return new ArrayList<>(this.atoms);
     }
 
+    /**
+     * Returns a read-only view of the atoms without copying them.
+     * The view of a compound that is not frozen reflects atoms added later.<p>
+     *
+     * Its {@link List#parallelStream()} splits evenly, like that of an {@link ArrayList}.
+     *
+     * @return unmodifiable list of atoms in index order
+     */
+    public List<Atom> atoms() {
+        return this.atomsView;
+    }
+
+    public int atomCount() {
+        return this.atoms.size();
+    }
+
+    /**
+     * @param index index of the atom
+     * @return atom at {@code index}
+     */
+    public Atom atom(int index) {
+        return this.atoms.get(index);
+    }
+
+    /**
+     * Returns a stream of the bonds, each one once, from the atom with the lower index to the one with the higher.
+     * Call {@link Stream#parallel()} on it to process the bonds in parallel.
+     *
+     * @return sequential stream of bonds ordered by their first atom
+     */
+    public Stream<Atom.Bond> bonds() {
+        return StreamSupport.stream(bondSpliterator(), false);
+    }
+
+    /**
+     * Returns a spliterator over the bonds, as streamed by {@link #bonds()}.
+     * It splits by halving the range of atoms whose bonds are left.
+     *
+     * @return spliterator of bonds
+     */
+    public Spliterator<Atom.Bond> bondSpliterator() {
+        return new BondSpliterator(0, this.atoms.size(), 0);
+    }
+
+    /**
+     * Adds an atom to a compound that is not frozen.
+     * @param atom atom that is not frozen
+     * @throws IllegalStateException if the compound or the atom is frozen
+     */
     public void addAtom(Atom atom) {
         Objects.requireNonNull(atom, "Atom cannot be null.");
+        if (this.frozen) {
+            throw new IllegalStateException("Compound is frozen.");
+        }
+        if (atom.isFrozen()) {
+            throw new IllegalStateException("Atom belongs to a frozen compound.");
+        }
+        atom.index = this.atoms.size();
         this.atoms.add(atom);
     }
 
     /**
-     * Traverse the graph using BFS and execute atomConsumer with each node.
+     * Returns an immutable snapshot of this compound.<p>
+     *
+     * The snapshot shares the atoms, which are frozen as well, so neither compound can form new bonds afterwards.
+     * Freezing a snapshot returns it unchanged.
+     *
+     * @return frozen compound
+     */
+    public Compound freeze() {
+        if (this.frozen) {
+            return this;
+        }
+        for (Atom atom : this.atoms) {
+            atom.freeze();
+        }
+        return new Compound(List.copyOf(this.atoms));
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Returns the index of an atom in constant time.
+     * @param atom atom to look up
+     * @return index of the atom, {@code -1} if it does not belong to this compound
+     */
+    public int indexOf(Atom atom) {
+        int index = atom.index;
+        return index >= 0 && index < this.atoms.size() && this.atoms.get(index) == atom ? index : -1;
+    }
+
+    /**
+     * Traverses the atoms reachable from {@code start} in breadth-first order.
+     * @param start index of the start atom
+     * @param visitor callback for every reached atom
+     */
+    public void bfs(int start, AtomVisitor visitor) {
+        Objects.checkIndex(start, this.atoms.size());
+        int[] queue = new int[this.atoms.size()];
+        int[] parents = new int[this.atoms.size()];
+        int[] depths = new int[this.atoms.size()];
+        BitSet seen = new BitSet(this.atoms.size());
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        parents[start] = -1;
+        seen.set(start);
+        while (head < tail) {
+            int atom = queue[head++];
+            visitor.visit(atom, parents[atom], depths[atom]);
+            List<Atom.Bond> bonds = this.atoms.get(atom).getBonds();
+            for (int i = 0; i < bonds.size(); i++) {
+                int neighbour = bonds.get(i).to().index;
+                if (!seen.get(neighbour)) {
+                    seen.set(neighbour);
+                    parents[neighbour] = atom;
+                    depths[neighbour] = depths[atom] + 1;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Traverses the atoms reachable from {@code start} in depth-first pre-order, following bonds in the order
+     * they were formed.
+     * @param start index of the start atom
+     * @param visitor callback for every reached atom
+     */
+    public void dfs(int start, AtomVisitor visitor) {
+        Objects.checkIndex(start, this.atoms.size());
+        int[] stack = new int[this.atoms.size()];
+        int[] nextBond = new int[this.atoms.size()];
+        BitSet seen = new BitSet(this.atoms.size());
+        int size = 0;
+        stack[size++] = start;
+        seen.set(start);
+        visitor.visit(start, -1, 0);
+        while (size > 0) {
+            int atom = stack[size - 1];
+            List<Atom.Bond> bonds = this.atoms.get(atom).getBonds();
+            if (nextBond[atom] == bonds.size()) {
+                size--;
+                continue;
+            }
+            int neighbour = bonds.get(nextBond[atom]++).to().index;
+            if (!seen.get(neighbour)) {
+                seen.set(neighbour);
+                visitor.visit(neighbour, atom, size);
+                stack[size++] = neighbour;
+            }
+        }
+    }
+
+    /**
+     * Labels every atom with the connected component it belongs to, numbered from {@code 0}
+     * in the order of their lowest atom index.
+     * @param labels array of at least {@link #atomCount()} elements receiving the labels
+     * @return number of components
+     */
+    public int components(int[] labels) {
+        if (labels.length < this.atoms.size()) {
+            throw new IllegalArgumentException("Labels must have an element for every atom.");
+        }
+        Arrays.fill(labels, 0, this.atoms.size(), -1);
+        // Every atom is enqueued once over all components, so one queue serves them all
+        int[] queue = new int[this.atoms.size()];
+        int components = 0;
+        for (int start = 0; start < this.atoms.size(); start++) {
+            if (labels[start] >= 0) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            labels[start] = components;
+            while (head < tail) {
+                List<Atom.Bond> bonds = this.atoms.get(queue[head++]).getBonds();
+                for (int i = 0; i < bonds.size(); i++) {
+                    int neighbour = bonds.get(i).to().index;
+                    if (labels[neighbour] < 0) {
+                        labels[neighbour] = components;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+            components++;
+        }
+        return components;
+    }
+
+    /**
+     * Finds a path with the fewest bonds between two atoms.
+     * @param from index of the first atom
+     * @param to index of the last atom
+     * @return indices of the atoms along the path, including both ends, or an empty array if there is none
+     */
+    public int[] shortestPath(int from, int to) {
+        Objects.checkIndex(to, this.atoms.size());
+        int[] parents = new int[this.atoms.size()];
+        int[] length = {-1};
+        bfs(from, (atom, parent, depth) -> {
+            parents[atom] = parent;
+            if (atom == to) {
+                length[0] = depth + 1;
+            }
+        });
+        if (length[0] < 0) {
+            return new int[0];
+        }
+        int[] path = new int[length[0]];
+        for (int i = path.length - 1, atom = to; i >= 0; i--, atom = parents[atom]) {
+            path[i] = atom;
+        }
+        return path;
+    }
+
+    /**
+     * Traverse the graph using BFS and execute atomConsumer with each node.<p>
+     *
+     * Unlike {@link #bfs(int, AtomVisitor)} it works on atoms that don't belong to a compound,
+     * and atoms bonded to the visited atom by {@code atomConsumer} are traversed as well.
+     *
      * @param start start node
      * @param atomConsumer function that takes a node
      */
     public static void BFS(Atom start, Consumer<Atom> atomConsumer) {
-        Queue<Atom> queue = new LinkedList<>();
+        Queue<Atom> queue = new ArrayDeque<>();
         HashSet<Atom> seen = new HashSet<>();
         seen.add(start);
         queue.add(start);
         while (!queue.isEmpty()) {
             Atom atom = queue.remove();
             atomConsumer.accept(atom);
-            for (Atom neighbour : atom.getBondedAtoms()) {
-                if (!seen.contains(neighbour)) {
-                    seen.add(neighbour);
-                    queue.add(neighbour);
+            for (Atom.Bond bond : atom.getBonds()) {
+                if (seen.add(bond.to())) {
+                    queue.add(bond.to());
+                }
+            }
+        }
+    }
+
+    /**
+     * Spliterator over the bonds of the atoms in {@code [atom, end)}, starting at bond {@code bond} of {@code atom}.
+     * A bond is reported by the atom with the lower index only.
+     */
+    private final class BondSpliterator implements Spliterator<Atom.Bond> {
+        private int atom;
+        private final int end;
+        private int bond;
+
+        BondSpliterator(int atom, int end, int bond) {
+            this.atom = atom;
+            this.end = end;
+            this.bond = bond;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Atom.Bond> action) {
+            while (this.atom < this.end) {
+                List<Atom.Bond> bonds = Compound.this.atoms.get(this.atom).getBonds();
+                while (this.bond < bonds.size()) {
+                    Atom.Bond next = bonds.get(this.bond++);
+                    if (next.to().index > this.atom) {
+                        action.accept(next);
+                        return true;
+                    }
                 }
+                this.atom++;
+                this.bond = 0;
             }
+            return false;
+        }
+
+        @Override
+        public Spliterator<Atom.Bond> trySplit() {
+            int from = this.bond == 0 ? this.atom : this.atom + 1;
+            if (this.end - from < 2) {
+                return null;
+            }
+            int middle = (from + this.end) >>> 1;
+            // The prefix is split off, as ORDERED requires
+            BondSpliterator prefix = new BondSpliterator(this.atom, middle, this.bond);
+            this.atom = middle;
+            this.bond = 0;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            // A hydrocarbon has about as many bonds as atoms
+            return this.end - this.atom;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | (Compound.this.frozen ? IMMUTABLE : 0);
         }
     }
 }
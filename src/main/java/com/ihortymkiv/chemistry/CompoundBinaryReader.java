@@ -0,0 +1,161 @@
+package com.ihortymkiv.chemistry;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Reads a compound written by {@link CompoundBinaryWriter} straight from a {@link ByteBuffer}.<p>
+ *
+ * Atom and bond queries are answered from the buffer without creating {@link Atom} objects,
+ * only {@link #toCompound()} materializes the graph. The reader works on a view of the buffer
+ * starting at its current position, so the buffer's position and limit are left untouched.
+ */
+public final class CompoundBinaryReader {
+    private static final ChemicalElement[] ELEMENTS = ChemicalElement.values();
+
+    private final ByteBuffer buffer;
+    private final int atomCount;
+    private final int bondCount;
+    private final int width;
+    private final int elementsOffset;
+    private final int bondsOffset;
+
+    /**
+     * @param buffer buffer positioned at the start of an encoded compound
+     * @throws IllegalArgumentException if the version is not supported or the buffer is truncated
+     */
+    public CompoundBinaryReader(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "Buffer cannot be null.");
+        this.buffer = buffer.slice();
+        if (this.buffer.remaining() < 1 || this.buffer.get(0) != CompoundBinaryWriter.VERSION) {
+            throw new IllegalArgumentException("Unsupported compound format version.");
+        }
+        int[] offset = {1};
+        this.atomCount = readVarint(offset);
+        this.bondCount = readVarint(offset);
+        if (atomCount < 0 || bondCount < 0) {
+            throw new IllegalArgumentException("Malformed compound header.");
+        }
+        this.width = CompoundBinaryWriter.bondFieldWidth(atomCount);
+        this.elementsOffset = offset[0];
+        this.bondsOffset = elementsOffset + atomCount;
+        if ((long) bondsOffset + (long) bondCount * 2 * width > this.buffer.limit()) {
+            throw new IllegalArgumentException("Encoded compound is truncated.");
+        }
+    }
+
+    public int atomCount() {
+        return this.atomCount;
+    }
+
+    public int bondCount() {
+        return this.bondCount;
+    }
+
+    /**
+     * Returns the number of bytes the encoded compound occupies.
+     * @return encoded length
+     */
+    public int encodedLength() {
+        return bondsOffset + bondCount * 2 * width;
+    }
+
+    public ChemicalElement element(int atom) {
+        Objects.checkIndex(atom, atomCount);
+        return ELEMENTS[buffer.get(elementsOffset + atom)];
+    }
+
+    /**
+     * Returns the index of the atom with the lower index of the bond.
+     */
+    public int bondSource(int bond) {
+        return (int) (readFixed(bondOffset(bond)) >>> 2);
+    }
+
+    /**
+     * Returns the index of the atom with the higher index of the bond.
+     */
+    public int bondTarget(int bond) {
+        return (int) readFixed(bondOffset(bond) + width);
+    }
+
+    public int bondOrder(int bond) {
+        return (int) (readFixed(bondOffset(bond)) & 0b11);
+    }
+
+    /**
+     * Counts atoms of a chemical element.
+     * @param chemicalElement element to count
+     * @return number of atoms
+     */
+    public int count(ChemicalElement chemicalElement) {
+        int count = 0;
+        for (int i = 0; i < atomCount; i++) {
+            if (buffer.get(elementsOffset + i) == chemicalElement.ordinal()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sums the orders of all bonds of an atom, scanning the bond list.
+     * @param atom index of the atom
+     * @return number of valence electrons used in bonds
+     */
+    public int bondOrderSum(int atom) {
+        Objects.checkIndex(atom, atomCount);
+        int sum = 0;
+        for (int bond = 0; bond < bondCount; bond++) {
+            if (bondSource(bond) == atom || bondTarget(bond) == atom) {
+                sum += bondOrder(bond);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Materializes the encoded compound as {@link Atom} objects.
+     * @return a new frozen compound
+     */
+    public Compound toCompound() {
+        Compound compound = new Compound();
+        Atom[] atoms = new Atom[atomCount];
+        for (int i = 0; i < atomCount; i++) {
+            atoms[i] = new Atom(element(i));
+            compound.addAtom(atoms[i]);
+        }
+        for (int bond = 0; bond < bondCount; bond++) {
+            atoms[bondSource(bond)].addBond(atoms[bondTarget(bond)], bondOrder(bond));
+        }
+        return compound.freeze();
+    }
+
+    private int bondOffset(int bond) {
+        Objects.checkIndex(bond, bondCount);
+        return bondsOffset + bond * 2 * width;
+    }
+
+    private long readFixed(int offset) {
+        long value = 0;
+        for (int i = 0; i < width; i++) {
+            value = value << 8 | (buffer.get(offset + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private int readVarint(int[] offset) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (offset[0] >= buffer.limit()) {
+                throw new IllegalArgumentException("Encoded compound is truncated.");
+            }
+            byte b = buffer.get(offset[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+}
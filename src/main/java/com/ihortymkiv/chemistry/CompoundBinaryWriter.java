@@ -0,0 +1,92 @@
+package com.ihortymkiv.chemistry;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes a {@link Compound} in a compact, versioned binary format.<p>
+ *
+ * Layout of version {@value #VERSION}:
+ * <pre>
+ * byte      version
+ * varint    atom count (n)
+ * varint    bond count (m)
+ * byte[n]   element code of every atom ({@link ChemicalElement#ordinal()})
+ * bond[m]   bonds sorted by source atom, each one stored once with source &lt; target:
+ *             width bytes  source &lt;&lt; 2 | bond order
+ *             width bytes  target
+ * </pre>
+ * Atoms are referred to by their index in {@link Compound#atoms()}. Bond fields are big-endian and
+ * {@code width} is the smallest number of bytes that fits {@code (n - 1) << 2 | 3}, so every bond has
+ * the same size and {@link CompoundBinaryReader} can access it by index.
+ * Varints are unsigned LEB128.
+ */
+public final class CompoundBinaryWriter {
+    public static final int VERSION = 1;
+
+    /**
+     * Encodes a compound.
+     * @param compound Compound
+     * @return encoded compound
+     */
+    public static byte[] write(Compound compound) {
+        Objects.requireNonNull(compound, "Compound must be non-null");
+        List<Atom> atoms = compound.atoms();
+
+        int bondCount = 0;
+        for (Atom atom : atoms) {
+            bondCount += atom.getBonds().size();
+        }
+        bondCount /= 2;
+
+        int width = bondFieldWidth(atoms.size());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + atoms.size() + bondCount * 2 * width);
+        out.write(VERSION);
+        writeVarint(out, atoms.size());
+        writeVarint(out, bondCount);
+        for (Atom atom : atoms) {
+            out.write(atom.getChemicalElement().ordinal());
+        }
+        for (int source = 0; source < atoms.size(); source++) {
+            for (Atom.Bond bond : atoms.get(source).getBonds()) {
+                int target = compound.indexOf(bond.to());
+                if (source < target) {
+                    writeFixed(out, (long) source << 2 | bond.bondOrder(), width);
+                    writeFixed(out, target, width);
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the number of bytes used by each of the two fields of a bond.
+     * @param atomCount number of atoms in the compound
+     * @return width in bytes, between 1 and 5
+     */
+    static int bondFieldWidth(int atomCount) {
+        long max = (long) Math.max(atomCount - 1, 0) << 2 | 3;
+        int width = 1;
+        while (max >= 1L << (8 * width)) {
+            width++;
+        }
+        return width;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeFixed(ByteArrayOutputStream out, long value, int width) {
+        for (int shift = 8 * (width - 1); shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private CompoundBinaryWriter() {}
+}
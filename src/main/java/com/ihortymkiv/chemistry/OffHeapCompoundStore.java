@@ -0,0 +1,202 @@
+package com.ihortymkiv.chemistry;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only list of compounds kept outside the Java heap, for batch results too large to keep as {@link Atom}s.
+ * <p>
+ * Compounds are encoded by {@link CompoundBinaryWriter} into chunks of direct memory, and the offset and length
+ * of every compound go into direct memory as well:
+ * <pre>
+ * data chunk:  encoded compound, encoded compound, ... (a compound never spans two chunks)
+ * index chunk: long (data chunk &lt;&lt; 32 | offset in the chunk), int length, per compound
+ * </pre>
+ * The heap only holds the lists of chunks, so its size doesn't grow with the number of compounds and the garbage
+ * collector has nothing to trace in them. Compounds are read back by index as a {@link CompoundBinaryReader},
+ * which answers queries straight from direct memory, or as a new {@link Compound}.
+ * <p>
+ * Direct memory is bounded by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ * {@link #close()} does not free it: it only drops the store's references, and the memory is returned once
+ * a garbage collection finds the chunks unreachable, including from the readers handed out. Until then it still
+ * counts against the limit, so a job that closes one large store and fills another may run out of direct memory
+ * before the collector has caught up.
+ */
+public final class OffHeapCompoundStore implements Closeable, Iterable<CompoundBinaryReader> {
+    private static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    private static final int ENTRIES_PER_CHUNK = 1 << 20;
+    private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final int chunkSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<ByteBuffer> chunks = new ArrayList<>();
+    private List<ByteBuffer> entries = new ArrayList<>();
+    private int size;
+    private long usedBytes;
+
+    public OffHeapCompoundStore() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize bytes of direct memory allocated at a time, a compound larger than that gets a chunk of its own
+     */
+    public OffHeapCompoundStore(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Appends a compound.
+     *
+     * @param compound compound to store
+     * @return index of the compound
+     * @throws IllegalStateException if the store is closed or holds {@link Integer#MAX_VALUE} compounds
+     */
+    public int append(Compound compound) {
+        byte[] bytes = CompoundBinaryWriter.write(compound);
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Store is full.");
+            }
+            ByteBuffer chunk = chunks.isEmpty() ? null : chunks.getLast();
+            if (Objects.isNull(chunk) || chunk.remaining() < bytes.length) {
+                chunk = ByteBuffer.allocateDirect(Math.max(chunkSize, bytes.length));
+                chunks.add(chunk);
+            }
+            if (size % ENTRIES_PER_CHUNK == 0) {
+                entries.add(ByteBuffer.allocateDirect(ENTRIES_PER_CHUNK * ENTRY_BYTES));
+            }
+            entries.getLast().putLong((long) (chunks.size() - 1) << 32 | chunk.position()).putInt(bytes.length);
+            chunk.put(bytes);
+            usedBytes += bytes.length;
+            return size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes the encoded compounds occupy, not counting the unused ends of chunks or the index.
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a reader of a stored compound, which reads it from direct memory without materializing it.
+     *
+     * @param index index returned by {@link #append}
+     * @return reader of the compound
+     * @throws IndexOutOfBoundsException if no compound has the index
+     */
+    public CompoundBinaryReader reader(int index) {
+        return new CompoundBinaryReader(encoded(index));
+    }
+
+    /**
+     * Returns the encoded bytes of a stored compound, e.g. to write them out without decoding them.
+     *
+     * @param index index returned by {@link #append}
+     * @return read-only view of exactly the bytes {@link CompoundBinaryWriter#write} returned for the compound
+     * @throws IndexOutOfBoundsException if no compound has the index
+     */
+    public ByteBuffer encoded(int index) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            Objects.checkIndex(index, size);
+            ByteBuffer entryChunk = entries.get(index / ENTRIES_PER_CHUNK);
+            int entry = index % ENTRIES_PER_CHUNK * ENTRY_BYTES;
+            long offset = entryChunk.getLong(entry);
+            int length = entryChunk.getInt(entry + Long.BYTES);
+            return chunks.get((int) (offset >>> 32)).slice((int) offset, length).asReadOnlyBuffer();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Materializes a stored compound.
+     *
+     * @param index index returned by {@link #append}
+     * @return a new frozen compound
+     * @throws IndexOutOfBoundsException if no compound has the index
+     */
+    public Compound get(int index) {
+        return reader(index).toCompound();
+    }
+
+    /**
+     * Iterates over readers of the compounds in the order they were appended,
+     * up to the number of compounds when the iteration started.
+     */
+    @Override
+    public Iterator<CompoundBinaryReader> iterator() {
+        int end = size();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public CompoundBinaryReader next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return reader(next++);
+            }
+        };
+    }
+
+    /**
+     * Drops the store's references to its direct memory without freeing it, the memory is freed by a later garbage
+     * collection once the readers and buffers handed out are unreachable as well.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            chunks = null;
+            entries = null;
+            size = 0;
+            usedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (Objects.isNull(chunks)) {
+            throw new IllegalStateException("Store is closed.");
+        }
+    }
+}
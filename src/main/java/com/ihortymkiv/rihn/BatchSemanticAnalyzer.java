@@ -0,0 +1,276 @@
+package com.ihortymkiv.rihn;
+
+import com.ihortymkiv.chemistry.ChemicalElement;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.ihortymkiv.rihn.HydrocarbonBatch.NO_AFFIX;
+import static com.ihortymkiv.rihn.HydrocarbonBatch.NO_GROUP;
+
+/**
+ * Semantic analysis of a whole {@link HydrocarbonBatch} at once, with the rules of the {@link SemanticAnalyzer}.
+ * <p>
+ * Instead of throwing, it returns a code for every row: {@link #VALID}, or the rule the {@link SemanticAnalyzer}
+ * would throw for first. The rows are checked in loops over the primitive columns of the batch, without visiting
+ * the AST or allocating per row.
+ * <p>
+ * Most groups are valid, so each group first goes through branch-free reductions over its locants that the JIT
+ * can vectorize. Only a group they reject is scanned again in the order of the {@link SemanticAnalyzer}
+ * to find the rule it breaks first.
+ * <p>
+ * A carbon of a chain has two neighbours, so valency is exceeded exactly when two bonds on one carbon add up to more
+ * than its valence. The locants of a group are sorted, which leaves the neighbouring locants of the group and,
+ * in an enyne, the double bonds next to each triple bond to check, without an array indexed by carbon.
+ * <p>
+ * An instance reuses its buffers from batch to batch and is not thread-safe.
+ */
+public final class BatchSemanticAnalyzer {
+    public static final byte VALID = 0;
+    public static final byte RING_TOO_SMALL = 1;
+    public static final byte CHAIN_TOO_SHORT_FOR_LOCANTS = 2;
+    public static final byte LOCANTS_OUT_OF_ORDER = 3;
+    public static final byte LOCANT_OUT_OF_RANGE = 4;
+    public static final byte DUPLICATE_LOCANT = 5;
+    public static final byte VALENCY_EXCEEDED = 6;
+    public static final byte INVALID_MULTIPLIER = 7;
+    public static final byte ALKENE_LOCANT_NOT_LOWEST = 8;
+    public static final byte LOWEST_SET_RULE_VIOLATED = 9;
+    /** The name is not syntactically valid, the front end would throw before the semantic analysis. */
+    public static final byte MALFORMED = 10;
+
+    private static final int ALKENE_BOND_ORDER = 2;
+    private static final int ALKYNE_BOND_ORDER = 3;
+    private static final int VALENCE = ChemicalElement.Carbon.normalValence();
+    /** Smallest difference between two locants of a group, 2 if two of its bonds can't share a carbon. */
+    private static final int ALKENE_GAP = 2 * ALKENE_BOND_ORDER > VALENCE ? 2 : 1;
+    private static final int ALKYNE_GAP = 2 * ALKYNE_BOND_ORDER > VALENCE ? 2 : 1;
+    private static final boolean MIXED_BONDS_SHARE_CARBON = ALKENE_BOND_ORDER + ALKYNE_BOND_ORDER <= VALENCE;
+
+    /** Locants of both groups of an enyne, reused from row to row. */
+    private int[] merged = new int[16];
+
+    /** Parsed names of the last call with names, reused from call to call. */
+    private final HydrocarbonBatch batch = new HydrocarbonBatch(64);
+
+    /**
+     * Analyzes a list of names, e.g. a file of names to validate, without throwing for any of them.
+     * Letters are folded to lower case, as {@link Rihn#normalize(String)} would.
+     * <p>
+     * Names that fit a {@link PackedHydrocarbon} are packed and checked without an AST, only the others are
+     * parsed into the batch.
+     *
+     * @param names hydrocarbon names
+     * @return code of the first rule each name violates, in the order of the names: {@link #VALID} for a valid name,
+     * {@link #MALFORMED} for one the lexer or parser would reject
+     */
+    public byte[] analyze(List<? extends CharSequence> names) {
+        Objects.requireNonNull(names, "Names cannot be null.");
+        byte[] codes = new byte[names.size()];
+        int[] rows = new int[names.size()];
+        batch.clear();
+        for (int i = 0; i < codes.length; i++) {
+            CharSequence name = names.get(i);
+            long packed = PackedHydrocarbon.parse(name);
+            if (packed != PackedHydrocarbon.NOT_PACKED) {
+                codes[i] = PackedHydrocarbon.analyze(packed);
+                continue;
+            }
+            if (!SyntaxAutomaton.accepts(name)) {
+                codes[i] = MALFORMED;
+                continue;
+            }
+            rows[batch.size] = i;
+            batch.add(new Parser(new Lexer(name).scanTokens()).parse());
+        }
+
+        byte[] batchCodes = analyze(batch);
+        for (int row = 0; row < batchCodes.length; row++) {
+            codes[rows[row]] = batchCodes[row];
+        }
+        return codes;
+    }
+
+    /**
+     * Analyzes every row of a batch.
+     *
+     * @return code of the first rule each row violates, {@link #VALID} for a valid row
+     */
+    byte[] analyze(HydrocarbonBatch batch) {
+        int size = batch.size;
+        boolean[] cyclic = batch.cyclic;
+        int[] stems = batch.stems;
+        int[] alkeneMultipliers = batch.alkeneMultipliers;
+        int[] alkyneMultipliers = batch.alkyneMultipliers;
+        int[] groupStarts = batch.groupStarts;
+        int[] locants = batch.locants;
+
+        byte[] codes = new byte[size];
+        for (int row = 0; row < size; row++) {
+            codes[row] = cyclic[row] & stems[row] < 3 ? RING_TOO_SMALL : VALID;
+        }
+        for (int row = 0; row < size; row++) {
+            if (codes[row] == VALID) {
+                codes[row] = analyzeRow(
+                        locants, stems[row], alkeneMultipliers[row], alkyneMultipliers[row],
+                        groupStarts[2 * row], groupStarts[2 * row + 1], groupStarts[2 * row + 2]
+                );
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Checks the groups of a row, the double bonds from {@code alkeneFrom} to {@code alkyneFrom}
+     * and the triple bonds from there to {@code alkyneTo}.
+     */
+    private byte analyzeRow(int[] locants, int carbons, int alkeneMultiplier, int alkyneMultiplier,
+                            int alkeneFrom, int alkyneFrom, int alkyneTo) {
+        boolean hasAlkene = alkeneMultiplier != NO_GROUP;
+        boolean hasAlkyne = alkyneMultiplier != NO_GROUP;
+        if (hasAlkene) {
+            byte code = analyzeGroup(
+                    locants, alkeneFrom, alkyneFrom, alkeneMultiplier, carbons, ALKENE_GAP, alkeneFrom, alkeneFrom
+            );
+            if (code != VALID) {
+                return code;
+            }
+        }
+        if (hasAlkyne) {
+            // Triple bonds are checked after the double bonds, like the enyne's groups in the SemanticAnalyzer
+            int neighboursTo = hasAlkene && !MIXED_BONDS_SHARE_CARBON ? alkyneFrom : alkeneFrom;
+            byte code = analyzeGroup(
+                    locants, alkyneFrom, alkyneTo, alkyneMultiplier, carbons, ALKYNE_GAP, alkeneFrom, neighboursTo
+            );
+            if (code != VALID) {
+                return code;
+            }
+        }
+
+        if (hasAlkene && hasAlkyne) {
+            return analyzeEnyne(locants, carbons, alkeneFrom, alkyneFrom, alkyneTo);
+        }
+        int from = hasAlkene ? alkeneFrom : alkyneFrom;
+        int to = hasAlkyne ? alkyneTo : alkyneFrom;
+        return lowestDifference(locants, from, to, carbons) < 0 ? LOWEST_SET_RULE_VIOLATED : VALID;
+    }
+
+    /**
+     * Checks the locants and the multiplier of a group.
+     *
+     * @param gap smallest difference between two of its locants
+     * @param neighboursFrom start of the sorted locants of bonds that can't share a carbon with the group's
+     * @param neighboursTo end of those locants
+     */
+    private static byte analyzeGroup(int[] locants, int from, int to, int multiplier, int carbons, int gap,
+                                     int neighboursFrom, int neighboursTo) {
+        if (carbons < 2) {
+            return CHAIN_TOO_SHORT_FOR_LOCANTS;
+        }
+        if (violations(locants, from, to, carbons, gap) < 0 || neighboursFrom < neighboursTo) {
+            byte code = firstViolation(locants, from, to, carbons, gap, neighboursFrom, neighboursTo);
+            if (code != VALID) {
+                return code;
+            }
+        }
+        return multiplier != NO_AFFIX && multiplier != to - from ? INVALID_MULTIPLIER : VALID;
+    }
+
+    /**
+     * @return a negative number if a locant is out of range, out of order, repeated or closer than {@code gap}
+     * to the previous one
+     */
+    private static int violations(int[] locants, int from, int to, int carbons, int gap) {
+        int violations = 0;
+        for (int i = from; i < to; i++) {
+            violations |= (locants[i] - 1) | (carbons - 1 - locants[i]);
+        }
+        for (int i = from + 1; i < to; i++) {
+            violations |= locants[i] - locants[i - 1] - gap;
+        }
+        return violations;
+    }
+
+    /**
+     * Finds the rule the locants of a group break first, in the order of the {@link SemanticAnalyzer}.
+     */
+    private static byte firstViolation(int[] locants, int from, int to, int carbons, int gap,
+                                       int neighboursFrom, int neighboursTo) {
+        for (int i = from + 1; i < to; i++) {
+            if (locants[i] < locants[i - 1]) {
+                return LOCANTS_OUT_OF_ORDER;
+            }
+        }
+        int neighbour = neighboursFrom;
+        for (int i = from; i < to; i++) {
+            int locant = locants[i];
+            if (locant < 1 || locant > carbons - 1) {
+                return LOCANT_OUT_OF_RANGE;
+            }
+            if (i > from && locant == locants[i - 1]) {
+                return DUPLICATE_LOCANT;
+            }
+            if (i > from && locant - locants[i - 1] < gap) {
+                return VALENCY_EXCEEDED;
+            }
+            // The bond shares a carbon with a bond at locant - 1, locant or locant + 1
+            while (neighbour < neighboursTo && locants[neighbour] < locant - 1) {
+                neighbour++;
+            }
+            if (neighbour < neighboursTo && locants[neighbour] <= locant + 1) {
+                return VALENCY_EXCEEDED;
+            }
+        }
+        return VALID;
+    }
+
+    /**
+     * Applies the lowest set of locants rule to the locants of both groups of an enyne.
+     */
+    private byte analyzeEnyne(int[] locants, int carbons, int alkeneFrom, int alkyneFrom, int alkyneTo) {
+        int count = alkyneTo - alkeneFrom;
+        if (merged.length < count) {
+            merged = new int[Math.max(2 * merged.length, count)];
+        }
+        int i = alkeneFrom, j = alkyneFrom, k = 0;
+        while (i < alkyneFrom && j < alkyneTo) {
+            merged[k++] = locants[i] <= locants[j] ? locants[i++] : locants[j++];
+        }
+        while (i < alkyneFrom) merged[k++] = locants[i++];
+        while (j < alkyneTo) merged[k++] = locants[j++];
+
+        if (count > 0 && isSymmetric(merged, count, carbons)) {
+            // A tie, the double bonds must get the lowest locant. The lowest locant from the other end is
+            // the highest one.
+            boolean lowestIsAlkyne = alkyneFrom < alkyneTo && locants[alkyneFrom] == merged[0];
+            boolean highestIsAlkene = alkeneFrom < alkyneFrom && locants[alkyneFrom - 1] == merged[count - 1];
+            return lowestIsAlkyne && highestIsAlkene ? ALKENE_LOCANT_NOT_LOWEST : VALID;
+        }
+        return lowestDifference(merged, 0, count, carbons) < 0 ? LOWEST_SET_RULE_VIOLATED : VALID;
+    }
+
+    /**
+     * Compares sorted locants with the same locants numbered from the other end of the chain.
+     *
+     * @return the smallest difference between a locant from the other end and the locant at its position,
+     * negative if the other end gives a lower locant at any position
+     */
+    private static int lowestDifference(int[] locants, int from, int to, int carbons) {
+        int lowest = Integer.MAX_VALUE;
+        for (int i = 0; i < to - from; i++) {
+            lowest = Math.min(lowest, carbons - locants[to - 1 - i] - locants[from + i]);
+        }
+        return lowest;
+    }
+
+    /**
+     * @return whether the first {@code count} sorted locants stay the same when numbered from the other end
+     */
+    private static boolean isSymmetric(int[] locants, int count, int carbons) {
+        int differences = 0;
+        for (int i = 0; i < count; i++) {
+            differences |= carbons - locants[count - 1 - i] - locants[i];
+        }
+        return differences == 0;
+    }
+}
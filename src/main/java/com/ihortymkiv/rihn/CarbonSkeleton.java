@@ -0,0 +1,109 @@
+package com.ihortymkiv.rihn;
+
+import com.ihortymkiv.chemistry.Compound;
+
+import java.util.Objects;
+
+/**
+ * The carbon chain or ring of a validated name, with the order of every bond between two carbons.
+ * <p>
+ * Describes the same molecule as the {@link Compound} of {@link Rihn#getCompound(String)}, and numbers its atoms
+ * the same way: the carbons first, in the order of the name, then the hydrogens carbon by carbon in
+ * {@linkplain #fillOrder(int) breadth-first order} from the first carbon. Every atom, bond and index of the
+ * compound follows from these numbers by arithmetic, so the compound can be serialized without building its graph.
+ */
+public final class CarbonSkeleton {
+    private final boolean cyclic;
+    private final int[] bondOrders;
+    private final int[] fillOrder;
+    private final int[] firstHydrogen;
+    private final int atomCount;
+
+    /**
+     * @param cyclic whether the last carbon is bonded to the first
+     * @param bondOrders order of the bond between carbon {@code i} and the next one at index {@code i},
+     *                   {@code 0} after the last carbon of a chain
+     */
+    CarbonSkeleton(boolean cyclic, int[] bondOrders) {
+        this.cyclic = cyclic;
+        this.bondOrders = Objects.requireNonNull(bondOrders, "Bond orders cannot be null.");
+
+        int carbons = bondOrders.length;
+        fillOrder = new int[carbons];
+        for (int i = 1; i < carbons; i++) {
+            // A ring is searched from both neighbours of the first carbon at once
+            fillOrder[i] = !cyclic ? i : i % 2 == 1 ? (i + 1) / 2 : carbons - i / 2;
+        }
+        firstHydrogen = new int[carbons];
+        int next = carbons;
+        for (int carbon : fillOrder) {
+            firstHydrogen[carbon] = next;
+            next += hydrogens(carbon);
+        }
+        atomCount = next;
+    }
+
+    public int carbons() {
+        return bondOrders.length;
+    }
+
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    /**
+     * @return number of carbons and hydrogens
+     */
+    public int atomCount() {
+        return atomCount;
+    }
+
+    /**
+     * Returns the order of the bond from a carbon to the next one, which is the first carbon for the last carbon
+     * of a ring.
+     *
+     * @param carbon index of the carbon
+     * @return bond order, {@code 0} for the last carbon of a chain
+     */
+    public int bondOrder(int carbon) {
+        return bondOrders[carbon];
+    }
+
+    /**
+     * Returns the order of the bond from a carbon to the previous one, which is the last carbon for the first carbon
+     * of a ring.
+     *
+     * @param carbon index of the carbon
+     * @return bond order, {@code 0} for the first carbon of a chain
+     */
+    public int previousBondOrder(int carbon) {
+        return carbon > 0 ? bondOrders[carbon - 1] : cyclic ? bondOrders[bondOrders.length - 1] : 0;
+    }
+
+    /**
+     * @param carbon index of the carbon
+     * @return number of hydrogens bonded to the carbon
+     */
+    public int hydrogens(int carbon) {
+        return 4 - previousBondOrder(carbon) - bondOrder(carbon);
+    }
+
+    /**
+     * @param carbon index of the carbon
+     * @return index of the first hydrogen of the carbon, the others follow it
+     */
+    public int firstHydrogen(int carbon) {
+        return firstHydrogen[carbon];
+    }
+
+    /**
+     * Returns the carbons in the order their hydrogens are numbered, the order in which a breadth-first search
+     * from the first carbon reaches them.
+     *
+     * @param i position in the order, in range [0, {@link #carbons()})
+     * @return index of the carbon at that position
+     */
+    public int fillOrder(int i) {
+        return fillOrder[i];
+    }
+}
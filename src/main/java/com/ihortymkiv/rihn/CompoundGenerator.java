@@ -5,6 +5,7 @@ import com.ihortymkiv.chemistry.ChemicalElement;
 import com.ihortymkiv.chemistry.Compound;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -18,9 +19,10 @@ import java.util.Objects;
  * It uses the Visitor pattern to collect locants from the {@link Type} nodes,
  * then builds the carbon chain with appropriate bonds. Finally, it "fills"
  * the remaining valency of each carbon atom with hydrogen atoms.
+ * <p>
+ * Generation is linear in the chain length.
  */
 class CompoundGenerator implements Type.Visitor<Void> {
-    private Hydrocarbon hydrocarbon;
     private Compound compound;
     private List<Integer> alkeneLocants = new ArrayList<>();
     private List<Integer> alkyneLocants = new ArrayList<>();
@@ -29,48 +31,128 @@ class CompoundGenerator implements Type.Visitor<Void> {
      * Generates a {@link Compound} graph from a {@link Hydrocarbon} AST.
      *
      * @param hydrocarbon The validated AST.
-     * @return A {@link Compound} object representing the complete molecule,
+     * @return A frozen {@link Compound} object representing the complete molecule,
      * including hydrogen atoms.
      */
     Compound generateGraph(Hydrocarbon hydrocarbon) {
-        this.hydrocarbon = hydrocarbon;
+        hydrocarbon.type.accept(this);
+        return generateGraph(hydrocarbon.isCyclic, bondOrders(hydrocarbon.stem.value));
+    }
 
-        compound = new Compound();
+    /**
+     * Generates a {@link Compound} graph from a hydrocarbon packed by {@link PackedHydrocarbon}, without decoding it.
+     *
+     * @param packed The validated hydrocarbon.
+     * @return A frozen {@link Compound} object, the same as for the decoded AST.
+     */
+    Compound generateGraph(long packed) {
+        return generateGraph(PackedHydrocarbon.isCyclic(packed), bondOrders(packed));
+    }
+
+    /**
+     * Describes the {@link Compound} {@link #generateGraph} would build, without building it.
+     *
+     * @param hydrocarbon The validated AST.
+     * @return The carbon skeleton, numbered like the compound.
+     */
+    CarbonSkeleton generateSkeleton(Hydrocarbon hydrocarbon) {
         hydrocarbon.type.accept(this);
-        buildCarbonChain();
+        return generateSkeleton(hydrocarbon.isCyclic, bondOrders(hydrocarbon.stem.value));
+    }
+
+    /**
+     * Describes the {@link Compound} of a hydrocarbon packed by {@link PackedHydrocarbon}, without decoding it.
+     *
+     * @param packed The validated hydrocarbon.
+     * @return The carbon skeleton, numbered like the compound.
+     */
+    CarbonSkeleton generateSkeleton(long packed) {
+        return generateSkeleton(PackedHydrocarbon.isCyclic(packed), bondOrders(packed));
+    }
+
+    private Compound generateGraph(boolean cyclic, int[] bondOrders) {
+        compound = new Compound();
+        buildCarbonChain(cyclic, bondOrders);
         fillWithHydrogen();
 
-        return compound;
+        return compound.freeze();
     }
 
+    private static CarbonSkeleton generateSkeleton(boolean cyclic, int[] bondOrders) {
+        int[] skeletonBondOrders = new int[bondOrders.length];
+        System.arraycopy(bondOrders, 1, skeletonBondOrders, 0, bondOrders.length - 1);
+        skeletonBondOrders[bondOrders.length - 1] = cyclic ? 1 : 0;
+
+        return new CarbonSkeleton(cyclic, skeletonBondOrders);
+    }
+
+    /**
+     * Adds hydrogens to the carbons in breadth-first order from the first carbon.
+     */
     private void fillWithHydrogen() {
-        Compound.BFS(compound.getAtoms().getFirst(), (atom) -> {
-            for (int i = atom.getValence(); i > 0; i--) {
+        int[] order = new int[compound.atomCount()];
+        int[] visited = {0};
+        compound.bfs(0, (atom, parent, depth) -> order[visited[0]++] = atom);
+        for (int i = 0; i < visited[0]; i++) {
+            Atom atom = compound.atom(order[i]);
+            for (int j = atom.getValence(); j > 0; j--) {
                 Atom h = new Atom(ChemicalElement.Hydrogen);
                 atom.addBond(h, 1);
                 compound.addAtom(h);
             }
-        });
+        }
     }
 
-    private void buildCarbonChain() {
+    private void buildCarbonChain(boolean cyclic, int[] bondOrders) {
+        Atom firstCarbon = null;
         Atom lastCarbon = null;
-        for (int i = 0; i < hydrocarbon.stem.value; i++) {
+        for (int i = 0; i < bondOrders.length; i++) {
             Atom c = new Atom(ChemicalElement.Carbon);
             compound.addAtom(c);
             if (Objects.nonNull(lastCarbon)) {
-                int bondOrder = 1;
-                if (alkeneLocants.contains(i)) {
-                    bondOrder = 2;
-                } else if (alkyneLocants.contains(i)) {
-                    bondOrder = 3;
-                }
-                c.addBond(lastCarbon, bondOrder);
+                c.addBond(lastCarbon, bondOrders[i]);
+            } else {
+                firstCarbon = c;
             }
             lastCarbon = c;
         }
-        if (hydrocarbon.isCyclic) {
-            lastCarbon.addBond(compound.getAtoms().getFirst(), 1);
+        if (cyclic) {
+            lastCarbon.addBond(firstCarbon, 1);
+        }
+    }
+
+    /**
+     * Returns the order of the bond between carbon #i and #i+1 at index {@code i},
+     * so that building the chain doesn't have to search the locant lists for every carbon.
+     */
+    private int[] bondOrders(int carbons) {
+        int[] bondOrders = new int[carbons];
+        Arrays.fill(bondOrders, 1);
+        // Alkene locants take precedence, as they are written last
+        for (int locant : alkyneLocants) {
+            if (locant > 0 && locant < bondOrders.length) bondOrders[locant] = 3;
+        }
+        for (int locant : alkeneLocants) {
+            if (locant > 0 && locant < bondOrders.length) bondOrders[locant] = 2;
+        }
+        return bondOrders;
+    }
+
+    private static int[] bondOrders(long packed) {
+        int[] bondOrders = new int[PackedHydrocarbon.carbons(packed)];
+        Arrays.fill(bondOrders, 1);
+        setBondOrders(bondOrders, PackedHydrocarbon.alkyneLocants(packed), 3);
+        setBondOrders(bondOrders, PackedHydrocarbon.alkeneLocants(packed), 2);
+        return bondOrders;
+    }
+
+    /**
+     * Sets the order of the bonds at the locants of a {@link PackedHydrocarbon} locant mask.
+     */
+    private static void setBondOrders(int[] bondOrders, long locants, int order) {
+        for (long rest = locants; rest != 0; rest &= rest - 1) {
+            int locant = Long.numberOfTrailingZeros(rest) + 1;
+            if (locant < bondOrders.length) bondOrders[locant] = order;
         }
     }
 
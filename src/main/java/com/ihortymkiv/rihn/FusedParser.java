@@ -0,0 +1,426 @@
+package com.ihortymkiv.rihn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ihortymkiv.rihn.TokenType.WORD;
+
+/**
+ * Scannerless front end for the RIHNParser.
+ * <p>
+ * Recognizes the stem, connector, locants, multiplying affixes and suffixes of a hydrocarbon name
+ * in one left-to-right pass over its characters and builds the {@link Hydrocarbon} AST directly,
+ * without a list of {@link Token}s. Letters are folded to lower case like the {@link Lexer} does,
+ * and keywords are looked up in a {@link KeywordTable} by the characters of a word in place, so no substrings
+ * are cut while searching for the longest keyword.
+ * <p>
+ * It accepts exactly the names the {@link Lexer} and {@link Parser} accept together, and builds an equal AST
+ * with the same tokens in its {@link Stem} and {@link MultiplyingAffix} nodes. A name that doesn't fit the single
+ * pass is handed over to the two-stage path, which throws its usual {@link LexerException} or
+ * {@link ParserException}, so rejected names get the same message and token as before.
+ * <p>
+ * {@link #tryPack()} walks the same grammar without building any node, straight into a {@link PackedHydrocarbon}.
+ */
+class FusedParser {
+    private static final KeywordTable STEMS = new KeywordTable(Keywords.STEMS);
+    private static final KeywordTable MULTIPLYING_AFFIXES = new KeywordTable(Keywords.MULTIPLYING_AFFIXES);
+
+    private final CharSequence source;
+    private final int length;
+    private int current = 0;
+    /** End of the word being read, exclusive. Letters in [current, wordEnd) are the rest of that word. */
+    private int wordEnd = -1;
+    /** Whether the word being read is the last one and the "e" after it is the ending. */
+    private boolean ending = false;
+
+    FusedParser(CharSequence source) {
+        this.source = source;
+        this.length = source.length();
+    }
+
+    /**
+     * Parses the name into a {@link Hydrocarbon} AST.
+     *
+     * @return The root node of the AST, a {@link Hydrocarbon} object.
+     * @throws LexerException if the name contains an unexpected character.
+     * @throws ParserException if the name violates the grammar's syntax.
+     */
+    Hydrocarbon parse() {
+        Hydrocarbon hydrocarbon = tryParse();
+        return hydrocarbon != null ? hydrocarbon : new Parser(new Lexer(source).scanTokens()).parse();
+    }
+
+    /**
+     * Parses the name in a single pass.
+     *
+     * @return The root node of the AST, or null if the name has to go through the two-stage path.
+     */
+    Hydrocarbon tryParse() {
+        try {
+            return hydrocarbon();
+        } catch (Mismatch e) {
+            return null;
+        }
+    }
+
+    /**
+     * Packs the name in a single pass, without building the AST, into the value {@link PackedHydrocarbon#encode}
+     * returns for the AST of {@link #parse()}.
+     *
+     * @return The packed name, or {@link PackedHydrocarbon#NOT_PACKED} if it doesn't pack or has to go through
+     * the two-stage path.
+     */
+    long tryPack() {
+        try {
+            return packedHydrocarbon();
+        } catch (Mismatch e) {
+            return PackedHydrocarbon.NOT_PACKED;
+        }
+    }
+
+    private Hydrocarbon hydrocarbon() {
+        boolean isCyclic = matchCyclo();
+        Stem stem = stem();
+        Type type = type();
+
+        if (!ending || current != wordEnd) {
+            throw Mismatch.INSTANCE;
+        }
+
+        return new Hydrocarbon(isCyclic, stem, type);
+    }
+
+    private long packedHydrocarbon() {
+        boolean isCyclic = matchCyclo();
+        startWord();
+        int keyword = STEMS.longestPrefix(source, current, wordEnd);
+        if (keyword < 0) {
+            throw Mismatch.INSTANCE;
+        }
+        current += STEMS.keyword(keyword).length();
+        int carbons = STEMS.value(keyword);
+
+        if (wordStartsWith('a', 'n')) {
+            current += 2;
+            return packedEnd(carbons, isCyclic, 0, 0);
+        }
+        long locants = connector() ? packedComplexGroup() : packedSimpleGroup();
+        nextWord();
+        if (wordStartsWith('e', 'n')) {
+            current += 2;
+            if (!check('-')) {
+                return packedEnd(carbons, isCyclic, locants, 0);
+            }
+
+            long alkyneLocants = packedEnyneGroup();
+            nextWord();
+            if (!wordStartsWith('y', 'n')) {
+                throw Mismatch.INSTANCE;
+            }
+            current += 2;
+            return packedEnd(carbons, isCyclic, locants, alkyneLocants);
+        }
+        if (!wordStartsWith('y', 'n')) {
+            throw Mismatch.INSTANCE;
+        }
+        current += 2;
+        return packedEnd(carbons, isCyclic, 0, locants);
+    }
+
+    private long packedEnd(int carbons, boolean isCyclic, long alkeneLocants, long alkyneLocants) {
+        if (!ending || current != wordEnd) {
+            throw Mismatch.INSTANCE;
+        }
+        return PackedHydrocarbon.pack(carbons, isCyclic, alkeneLocants, alkyneLocants);
+    }
+
+    /**
+     * The group of an alkyne or alkene without a connector, a single locant.
+     */
+    private long packedSimpleGroup() {
+        long locants = packedLocants();
+        if (Long.bitCount(locants) != 1) {
+            throw Mismatch.INSTANCE;
+        }
+        return locants;
+    }
+
+    private long packedComplexGroup() {
+        long locants = packedLocants();
+        int multiplier = packedMultiplyingAffix();
+        if (multiplier == 0) {
+            throw Mismatch.INSTANCE;
+        }
+        return packedAffixed(locants, multiplier);
+    }
+
+    private long packedEnyneGroup() {
+        long locants = packedLocants();
+        int multiplier = packedMultiplyingAffix();
+        return multiplier == 0 && Long.bitCount(locants) == 1 ? locants : packedAffixed(locants, multiplier);
+    }
+
+    /**
+     * Several locants take the affix of their number, as {@link PackedHydrocarbon#encode} requires.
+     */
+    private long packedAffixed(long locants, int multiplier) {
+        if (multiplier < 2 || multiplier != Long.bitCount(locants)) {
+            throw Mismatch.INSTANCE;
+        }
+        return locants;
+    }
+
+    /**
+     * @return value of the affix at the start of the word after the locants, 0 if there is none
+     */
+    private int packedMultiplyingAffix() {
+        if (!isWordStart()) {
+            return 0;
+        }
+        startWord();
+        int keyword = MULTIPLYING_AFFIXES.longestPrefix(source, current, wordEnd);
+        if (keyword < 0) {
+            return 0;
+        }
+        current += MULTIPLYING_AFFIXES.keyword(keyword).length();
+        return MULTIPLYING_AFFIXES.value(keyword);
+    }
+
+    /**
+     * Reads locants into a mask, bit {@code l - 1} for locant {@code l}. Locants out of increasing order or
+     * beyond {@link PackedHydrocarbon#MAX_LOCANT} don't pack.
+     */
+    private long packedLocants() {
+        expect('-');
+        long locants = 0;
+        int previous = 0;
+        do {
+            if (locants != 0) {
+                expect(',');
+            }
+            int locant = locant();
+            if (locant <= previous || locant > PackedHydrocarbon.MAX_LOCANT) {
+                throw Mismatch.INSTANCE;
+            }
+            locants |= 1L << (locant - 1);
+            previous = locant;
+        } while (current < length && !check('-'));
+
+        expect('-');
+        return locants;
+    }
+
+    private boolean matchCyclo() {
+        if (startsWithCyclo(current)) {
+            current += 5;
+            return true;
+        }
+        return false;
+    }
+
+    private Stem stem() {
+        startWord();
+        int keyword = STEMS.longestPrefix(source, current, wordEnd);
+        if (keyword < 0) {
+            throw Mismatch.INSTANCE;
+        }
+        return new Stem(keywordToken(STEMS, keyword), STEMS.value(keyword));
+    }
+
+    private Type type() {
+        if (wordStartsWith('a', 'n')) {
+            current += 2;
+            return new Type.Alkane();
+        }
+
+        Group group = connector() ? complexGroup() : simpleGroup();
+        nextWord();
+        if (wordStartsWith('e', 'n')) {
+            current += 2;
+            if (!check('-')) {
+                return new Type.Alkene(group);
+            }
+
+            Group secondGroup = enyneGroup();
+            nextWord();
+            if (!wordStartsWith('y', 'n')) {
+                throw Mismatch.INSTANCE;
+            }
+            current += 2;
+            return new Type.Enyne(new Type.Alkene(group), new Type.Alkyne(secondGroup));
+        }
+        if (!wordStartsWith('y', 'n')) {
+            throw Mismatch.INSTANCE;
+        }
+        current += 2;
+        return new Type.Alkyne(group);
+    }
+
+    /**
+     * The connector "a" is the rest of the stem's word, "an" was already taken as the alkane suffix.
+     */
+    private boolean connector() {
+        if (current < wordEnd && charAt(current) == 'a') {
+            current++;
+            return true;
+        }
+        return false;
+    }
+
+    private Group enyneGroup() {
+        Locants locants = locants();
+        return new Group(locants, multiplyingAffix());
+    }
+
+    private Group complexGroup() {
+        Locants locants = locants();
+        MultiplyingAffix multiplyingAffix = multiplyingAffix();
+        if (multiplyingAffix == null) {
+            throw Mismatch.INSTANCE;
+        }
+        return new Group(locants, multiplyingAffix);
+    }
+
+    private Group simpleGroup() {
+        Locants locants = locants();
+        if (locants.locants.size() != 1) {
+            throw Mismatch.INSTANCE;
+        }
+        return new Group(locants, null);
+    }
+
+    /**
+     * Reads an affix at the start of the word after the locants, leaving the word untouched if there is none.
+     */
+    private MultiplyingAffix multiplyingAffix() {
+        if (!isWordStart()) {
+            return null;
+        }
+        startWord();
+        int keyword = MULTIPLYING_AFFIXES.longestPrefix(source, current, wordEnd);
+        if (keyword < 0) {
+            return null;
+        }
+        return new MultiplyingAffix(keywordToken(MULTIPLYING_AFFIXES, keyword), MULTIPLYING_AFFIXES.value(keyword));
+    }
+
+    private Locants locants() {
+        expect('-');
+        List<Integer> locants = new ArrayList<>();
+        locants.add(locant());
+
+        while (current < length && !check('-')) {
+            expect(',');
+            locants.add(locant());
+        }
+
+        expect('-');
+        return new Locants(locants);
+    }
+
+    private int locant() {
+        if (current >= length || charAt(current) < '1' || charAt(current) > '9') {
+            throw Mismatch.INSTANCE;
+        }
+        long value = 0;
+        while (current < length && charAt(current) >= '0' && charAt(current) <= '9') {
+            value = value * 10 + (charAt(current++) - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw Mismatch.INSTANCE;
+            }
+        }
+        return (int) value;
+    }
+
+    private Token keywordToken(KeywordTable table, int keyword) {
+        String lexeme = table.keyword(keyword);
+        Token token = new Token(WORD, lexeme, current);
+        current += lexeme.length();
+        return token;
+    }
+
+    /**
+     * Moves on to the word after the current one, unless some of the current word is left.
+     */
+    private void nextWord() {
+        if (current < wordEnd) {
+            return;
+        }
+        startWord();
+    }
+
+    /**
+     * Whether a word the {@link Lexer} would scan begins at the current position.
+     * A word never directly follows another one, and "cyclo" at the start of a token is a token of its own.
+     */
+    private boolean isWordStart() {
+        return current > wordEnd && current < length && isAlpha(charAt(current)) && !startsWithCyclo(current);
+    }
+
+    /**
+     * Finds the end of the word at the current position, splitting off the ending if the word is the last one.
+     */
+    private void startWord() {
+        if (!isWordStart()) {
+            throw Mismatch.INSTANCE;
+        }
+        int end = current + 1;
+        while (end < length && isAlpha(charAt(end))) end++;
+
+        ending = end == length && charAt(end - 1) == 'e';
+        wordEnd = ending ? end - 1 : end;
+        if (wordEnd == current) {
+            throw Mismatch.INSTANCE;
+        }
+    }
+
+    private boolean wordStartsWith(char first, char second) {
+        return current + 2 <= wordEnd && charAt(current) == first && charAt(current + 1) == second;
+    }
+
+    private boolean startsWithCyclo(int index) {
+        return index + 5 <= length
+                && charAt(index) == 'c'
+                && charAt(index + 1) == 'y'
+                && charAt(index + 2) == 'c'
+                && charAt(index + 3) == 'l'
+                && charAt(index + 4) == 'o';
+    }
+
+    /**
+     * Checks for punctuation, which can't be part of a word.
+     */
+    private boolean check(char c) {
+        return current >= wordEnd && current < length && charAt(current) == c;
+    }
+
+    private void expect(char c) {
+        if (!check(c)) {
+            throw Mismatch.INSTANCE;
+        }
+        current++;
+    }
+
+    private boolean isAlpha(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    /**
+     * Returns the character at {@code index}, with ASCII letters folded to lower case.
+     */
+    private char charAt(int index) {
+        char c = source.charAt(index);
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Signals that the name doesn't fit the single pass, thrown without a stack trace.
+     */
+    private static final class Mismatch extends RuntimeException {
+        static final Mismatch INSTANCE = new Mismatch();
+
+        private Mismatch() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ihortymkiv.rihn;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parsed names laid out by column for the {@link BatchSemanticAnalyzer}.
+ * <p>
+ * Row {@code r} holds the stem value and ring flag of a {@link Hydrocarbon} and its two groups, the double bonds
+ * and the triple bonds. The locants of every group are packed into one array in row order: the double bond locants
+ * of row {@code r} run from {@code groupStarts[2 * r]} to {@code groupStarts[2 * r + 1]}, its triple bond locants
+ * from there to {@code groupStarts[2 * r + 2]}.
+ */
+final class HydrocarbonBatch {
+    /** Multiplier of a group without a multiplying affix. */
+    static final int NO_AFFIX = 0;
+    /** Multiplier of a group the name doesn't have. */
+    static final int NO_GROUP = -1;
+
+    int size = 0;
+    boolean[] cyclic;
+    int[] stems;
+    int[] alkeneMultipliers;
+    int[] alkyneMultipliers;
+    int[] groupStarts;
+    int[] locants;
+
+    /**
+     * @param capacity number of rows to allocate columns for, the batch grows past it when needed
+     */
+    HydrocarbonBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        cyclic = new boolean[capacity];
+        stems = new int[capacity];
+        alkeneMultipliers = new int[capacity];
+        alkyneMultipliers = new int[capacity];
+        groupStarts = new int[2 * capacity + 1];
+        locants = new int[2 * capacity];
+    }
+
+    /**
+     * Appends a row with the columns of a {@link Hydrocarbon} AST.
+     */
+    void add(Hydrocarbon hydrocarbon) {
+        Objects.requireNonNull(hydrocarbon, "Hydrocarbon cannot be null.");
+        if (size == stems.length) {
+            grow();
+        }
+        Group alkene = null;
+        Group alkyne = null;
+        if (hydrocarbon.type instanceof Type.Alkene type) {
+            alkene = type.group;
+        } else if (hydrocarbon.type instanceof Type.Alkyne type) {
+            alkyne = type.group;
+        } else if (hydrocarbon.type instanceof Type.Enyne type) {
+            alkene = type.alkene.group;
+            alkyne = type.alkyne.group;
+        }
+
+        cyclic[size] = hydrocarbon.isCyclic;
+        stems[size] = hydrocarbon.stem.value;
+        alkeneMultipliers[size] = multiplier(alkene);
+        alkyneMultipliers[size] = multiplier(alkyne);
+        groupStarts[2 * size + 1] = addLocants(alkene, groupStarts[2 * size]);
+        groupStarts[2 * size + 2] = addLocants(alkyne, groupStarts[2 * size + 1]);
+        size++;
+    }
+
+    /**
+     * Removes every row, keeping the columns for the next batch.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    private static int multiplier(Group group) {
+        if (Objects.isNull(group)) {
+            return NO_GROUP;
+        }
+        return Objects.isNull(group.multiplyingAffix) ? NO_AFFIX : group.multiplyingAffix.value;
+    }
+
+    /**
+     * Packs the locants of a group after the given end of the locants.
+     *
+     * @return the new end of the locants
+     */
+    private int addLocants(Group group, int end) {
+        if (Objects.isNull(group)) {
+            return end;
+        }
+        List<Integer> values = group.locants.locants;
+        if (end + values.size() > locants.length) {
+            locants = Arrays.copyOf(locants, Math.max(2 * locants.length, end + values.size()));
+        }
+        for (int locant : values) {
+            locants[end++] = locant;
+        }
+        return end;
+    }
+
+    private void grow() {
+        int capacity = 2 * stems.length;
+        cyclic = Arrays.copyOf(cyclic, capacity);
+        stems = Arrays.copyOf(stems, capacity);
+        alkeneMultipliers = Arrays.copyOf(alkeneMultipliers, capacity);
+        alkyneMultipliers = Arrays.copyOf(alkyneMultipliers, capacity);
+        groupStarts = Arrays.copyOf(groupStarts, 2 * capacity + 1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ihortymkiv.rihn;
+
+/**
+ * Bounds the work a single name can cause. The input length is checked before anything else runs,
+ * the chain length right after parsing, before the stages whose cost grows with it.
+ * <p>
+ * Limits are passed to each call into {@link Rihn}, so callers with different limits don't affect each other:
+ * concurrent runs are only shared between callers with equal limits, and compounds served from the store are
+ * checked against the caller's chain length.
+ *
+ * @param maxInputLength maximum number of characters of a name
+ * @param maxCarbons maximum number of carbons of the main chain
+ */
+public record InputLimits(int maxInputLength, int maxCarbons) {
+    /**
+     * No limits, used by the calls that don't take any.
+     */
+    public static final InputLimits NONE = new InputLimits(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    public InputLimits {
+        if (maxInputLength < 1 || maxCarbons < 1) {
+            throw new IllegalArgumentException("Limits must be positive.");
+        }
+    }
+}
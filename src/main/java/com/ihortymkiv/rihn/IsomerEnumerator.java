@@ -0,0 +1,350 @@
+package com.ihortymkiv.rihn;
+
+import com.ihortymkiv.chemistry.ChemicalElement;
+import com.ihortymkiv.chemistry.Compound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import static com.ihortymkiv.rihn.TokenType.WORD;
+
+/**
+ * Enumerates every name the grammar supports for a number of carbons, ring and numbers of double and triple bonds,
+ * i.e. every placement of the multiple bonds that the {@link SemanticAnalyzer} accepts.
+ * <p>
+ * Bonds are placed from the lowest locant up, and the rules of the analyzer are applied as soon as the locants
+ * they depend on are placed, so invalid placements are cut off before their remaining locants are tried
+ * and no name or AST is built for them:
+ * <ul>
+ * <li>Valency: every carbon tracks the valence used by multiple bonds, as the analyzer does.</li>
+ * <li>Lowest set of locants: the analyzer compares every locant with the one at the same position counted from the
+ * other end, so the locant at position {@code j} may not exceed {@code carbons - locants[k - 1 - j]}.
+ * That bound is known once the first half of the locants is placed.</li>
+ * <li>The enyne tie rule is checked when all locants are placed, as it needs both ends.</li>
+ * </ul>
+ * <p>
+ * The search runs as fork-join tasks, one per number of carbons, which fork again for the choice of the first
+ * {@link #SPLIT_DEPTH} locants. Results are passed to the consumer from the worker threads as they are found,
+ * in no particular order.
+ */
+public final class IsomerEnumerator {
+    /**
+     * Number of leading locants whose choices are forked as separate tasks, deeper levels are searched sequentially.
+     */
+    private static final int SPLIT_DEPTH = 2;
+    private static final int DOUBLE = 2;
+    private static final int TRIPLE = 3;
+
+    private final ForkJoinPool pool;
+
+    public IsomerEnumerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool running the search
+     */
+    public IsomerEnumerator(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "Pool must be non-null");
+    }
+
+    /**
+     * A name found by the enumerator with its locants, from which the compound can be generated.
+     *
+     * @param name hydrocarbon name, as accepted by {@link Rihn#getCompound(String)}
+     * @param carbons number of carbons of the main chain
+     * @param cyclic whether the chain is a ring
+     * @param doubleBondLocants locants of the double bonds in increasing order
+     * @param tripleBondLocants locants of the triple bonds in increasing order
+     */
+    public record Isomer(
+            String name, int carbons, boolean cyclic, List<Integer> doubleBondLocants, List<Integer> tripleBondLocants
+    ) {
+        /**
+         * Generates the compound directly from the locants, skipping the lexer, parser and analyzer.
+         *
+         * @return frozen compound
+         */
+        public Compound compound() {
+            return new CompoundGenerator().generateGraph(hydrocarbon());
+        }
+
+        Hydrocarbon hydrocarbon() {
+            Stem stem = new Stem(new Token(WORD, Keywords.stem(carbons), 0), carbons);
+            Type type;
+            if (doubleBondLocants.isEmpty() && tripleBondLocants.isEmpty()) {
+                type = new Type.Alkane();
+            } else if (tripleBondLocants.isEmpty()) {
+                type = new Type.Alkene(group(doubleBondLocants));
+            } else if (doubleBondLocants.isEmpty()) {
+                type = new Type.Alkyne(group(tripleBondLocants));
+            } else {
+                type = new Type.Enyne(
+                        new Type.Alkene(group(doubleBondLocants)), new Type.Alkyne(group(tripleBondLocants))
+                );
+            }
+            return new Hydrocarbon(cyclic, stem, type);
+        }
+
+        private static Group group(List<Integer> locants) {
+            MultiplyingAffix multiplyingAffix = locants.size() < 2 ? null : new MultiplyingAffix(
+                    new Token(WORD, Keywords.multiplyingAffix(locants.size()), 0), locants.size()
+            );
+            return new Group(new Locants(locants), multiplyingAffix);
+        }
+    }
+
+    /**
+     * Enumerates the names of one chain length and waits until all of them have been passed to the consumer.
+     *
+     * @param carbons number of carbons, in range [1, {@link Keywords#MAX_NUMERAL}]
+     * @param cyclic whether the chain is a ring
+     * @param doubleBonds number of double bonds
+     * @param tripleBonds number of triple bonds
+     * @param consumer receives every name, concurrently from several threads
+     */
+    public void enumerate(int carbons, boolean cyclic, int doubleBonds, int tripleBonds,
+                          Consumer<? super Isomer> consumer) {
+        enumerate(carbons, carbons, cyclic, doubleBonds, tripleBonds, consumer);
+    }
+
+    /**
+     * Enumerates the names of every chain length in {@code [minCarbons, maxCarbons]}
+     * and waits until all of them have been passed to the consumer.
+     *
+     * @param minCarbons smallest number of carbons, at least 1
+     * @param maxCarbons largest number of carbons, at most {@link Keywords#MAX_NUMERAL}
+     * @param cyclic whether the chain is a ring
+     * @param doubleBonds number of double bonds
+     * @param tripleBonds number of triple bonds
+     * @param consumer receives every name, concurrently from several threads
+     */
+    public void enumerate(int minCarbons, int maxCarbons, boolean cyclic, int doubleBonds, int tripleBonds,
+                          Consumer<? super Isomer> consumer) {
+        Objects.requireNonNull(consumer, "Consumer must be non-null");
+        if (minCarbons < 1 || maxCarbons > Keywords.MAX_NUMERAL || minCarbons > maxCarbons) {
+            throw new IllegalArgumentException(
+                    String.format("Carbons must be in range [1, %d]", Keywords.MAX_NUMERAL)
+            );
+        }
+        if (doubleBonds < 0 || tripleBonds < 0) {
+            throw new IllegalArgumentException("Number of bonds must not be negative.");
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<Search> stems = new ArrayList<>();
+                for (int carbons = minCarbons; carbons <= maxCarbons; carbons++) {
+                    if (isPossible(carbons, cyclic, doubleBonds + tripleBonds)) {
+                        stems.add(new Search(carbons, cyclic, doubleBonds, tripleBonds, consumer));
+                    }
+                }
+                invokeAll(stems);
+            }
+        });
+    }
+
+    /**
+     * Builds the name of a chain or ring with double and triple bonds at the given locants, in increasing order.
+     */
+    static String name(int carbons, boolean cyclic, List<Integer> doubles, List<Integer> triples) {
+        StringBuilder name = new StringBuilder(cyclic ? "cyclo" : "").append(Keywords.stem(carbons));
+        if (doubles.isEmpty() && triples.isEmpty()) {
+            return name.append("ane").toString();
+        }
+        if (!doubles.isEmpty()) {
+            appendGroup(name, doubles, true);
+            name.append("en");
+        }
+        if (!triples.isEmpty()) {
+            appendGroup(name, triples, doubles.isEmpty());
+            name.append("yn");
+        }
+        return name.append('e').toString();
+    }
+
+    /**
+     * Appends {@code -1-} or {@code a-1,3-di}, the connector only follows the stem.
+     */
+    private static void appendGroup(StringBuilder name, List<Integer> locants, boolean afterStem) {
+        if (afterStem && locants.size() > 1) {
+            name.append('a');
+        }
+        StringJoiner joined = new StringJoiner(",", "-", "-");
+        locants.forEach(locant -> joined.add(Integer.toString(locant)));
+        name.append(joined);
+        if (locants.size() > 1) {
+            name.append(Keywords.multiplyingAffix(locants.size()));
+        }
+    }
+
+    /**
+     * Checks the rules that depend on the chain alone: rings need 3 carbons and locants need 2.
+     */
+    private static boolean isPossible(int carbons, boolean cyclic, int bonds) {
+        if (cyclic && carbons < 3) {
+            return false;
+        }
+        // Every multiple bond needs a distinct locant in [1, carbons - 1]
+        return bonds == 0 || (carbons >= 2 && bonds <= carbons - 1);
+    }
+
+    /**
+     * Places the multiple bonds from position {@code depth} on, given the bonds at the lower positions.
+     */
+    private static final class Search extends RecursiveAction {
+        private final int carbons;
+        private final boolean cyclic;
+        private final Consumer<? super Isomer> consumer;
+        private final int[] locants;
+        private final int[] orders;
+        /**
+         * Valence used up by multiple bonds, indexed by carbon number.
+         */
+        private final int[] usedValencies;
+        private int depth;
+        private int doublesLeft;
+        private int triplesLeft;
+
+        Search(int carbons, boolean cyclic, int doubleBonds, int tripleBonds, Consumer<? super Isomer> consumer) {
+            this.carbons = carbons;
+            this.cyclic = cyclic;
+            this.consumer = consumer;
+            this.locants = new int[doubleBonds + tripleBonds];
+            this.orders = new int[doubleBonds + tripleBonds];
+            this.usedValencies = new int[carbons + 1];
+            this.doublesLeft = doubleBonds;
+            this.triplesLeft = tripleBonds;
+        }
+
+        private Search(Search parent) {
+            this.carbons = parent.carbons;
+            this.cyclic = parent.cyclic;
+            this.consumer = parent.consumer;
+            this.locants = parent.locants.clone();
+            this.orders = parent.orders.clone();
+            this.usedValencies = parent.usedValencies.clone();
+            this.depth = parent.depth;
+            this.doublesLeft = parent.doublesLeft;
+            this.triplesLeft = parent.triplesLeft;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= SPLIT_DEPTH || depth == locants.length) {
+                search();
+                return;
+            }
+            List<Search> children = new ArrayList<>();
+            int from = depth == 0 ? 1 : locants[depth - 1] + 1;
+            for (int locant = from; locant <= maxLocant(); locant++) {
+                for (int order = DOUBLE; order <= TRIPLE; order++) {
+                    if (place(locant, order)) {
+                        Search child = new Search(this);
+                        child.depth++;
+                        children.add(child);
+                        remove(locant, order);
+                    }
+                }
+            }
+            invokeAll(children);
+        }
+
+        /**
+         * Sequential depth-first search with backtracking.
+         */
+        private void search() {
+            if (depth == locants.length) {
+                if (!violatesEnyneTie()) {
+                    consumer.accept(isomer());
+                }
+                return;
+            }
+            int from = depth == 0 ? 1 : locants[depth - 1] + 1;
+            int to = maxLocant();
+            for (int locant = from; locant <= to; locant++) {
+                for (int order = DOUBLE; order <= TRIPLE; order++) {
+                    if (place(locant, order)) {
+                        depth++;
+                        search();
+                        depth--;
+                        remove(locant, order);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the largest locant allowed at the current position: the remaining locants must still fit below
+         * the last bond, and the lowest set of locants rule bounds it by the locant at the mirrored position.
+         */
+        private int maxLocant() {
+            int max = carbons - (locants.length - depth);
+            int mirrored = locants.length - 1 - depth;
+            if (mirrored < depth) {
+                max = Math.min(max, carbons - locants[mirrored]);
+            } else if (mirrored == depth) {
+                // The middle locant is compared with itself
+                max = Math.min(max, carbons / 2);
+            }
+            return max;
+        }
+
+        /**
+         * Places a bond at the current position if one of that order is left and neither carbon exceeds its valence.
+         */
+        private boolean place(int locant, int order) {
+            if ((order == DOUBLE ? doublesLeft : triplesLeft) == 0) {
+                return false;
+            }
+            int valence = ChemicalElement.Carbon.normalValence();
+            if (usedValencies[locant] + order > valence || usedValencies[locant + 1] + order > valence) {
+                return false;
+            }
+            usedValencies[locant] += order;
+            usedValencies[locant + 1] += order;
+            locants[depth] = locant;
+            orders[depth] = order;
+            if (order == DOUBLE) doublesLeft--; else triplesLeft--;
+            return true;
+        }
+
+        private void remove(int locant, int order) {
+            usedValencies[locant] -= order;
+            usedValencies[locant + 1] -= order;
+            if (order == DOUBLE) doublesLeft++; else triplesLeft++;
+        }
+
+        /**
+         * If the locants read the same from both ends, double bonds must get the lower locants.
+         */
+        private boolean violatesEnyneTie() {
+            int last = locants.length - 1;
+            if (last < 0 || orders[0] != TRIPLE || orders[last] != DOUBLE) {
+                return false;
+            }
+            for (int i = 0; i <= last; i++) {
+                if (locants[i] + locants[last - i] != carbons) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Isomer isomer() {
+            List<Integer> doubles = new ArrayList<>();
+            List<Integer> triples = new ArrayList<>();
+            for (int i = 0; i < locants.length; i++) {
+                (orders[i] == DOUBLE ? doubles : triples).add(locants[i]);
+            }
+            return new Isomer(
+                    name(carbons, cyclic, doubles, triples), carbons, cyclic, List.copyOf(doubles), List.copyOf(triples)
+            );
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ihortymkiv.rihn;
+
+import java.util.Map;
+
+/**
+ * Open addressing hash table of keywords, looked up by the characters of a word instead of a {@link String}.
+ * <p>
+ * Letters of the source are folded to lower case like the {@link Lexer} does, so a name can be looked up as entered.
+ * Keys are hashed like {@link String#hashCode()}. Like the {@link Parser}, the search for the longest keyword
+ * starts with the longest prefix of the word and shortens it one letter at a time, and since 31 is odd,
+ * the hash of each shorter prefix is worked out from the previous one by multiplying with its inverse.
+ * Most words are a keyword followed by a suffix of two letters, so only a few slots are probed.
+ */
+final class KeywordTable {
+    /** Multiplicative inverse of 31 modulo 2^32. */
+    private static final int INVERSE_31 = 0xBDEF7BDF;
+
+    private final String[] keywords;
+    private final int[] values;
+    private final int[] hashes;
+    private final int mask;
+    private final int shift;
+    private final int maxLength;
+
+    KeywordTable(Map<String, Integer> keywords) {
+        int capacity = Integer.highestOneBit(keywords.size() * 4 - 1);
+        this.keywords = new String[capacity];
+        this.values = new int[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfLeadingZeros(mask);
+
+        int maxLength = 0;
+        for (Map.Entry<String, Integer> entry : keywords.entrySet()) {
+            String keyword = entry.getKey();
+            int slot = slot(keyword.hashCode());
+            while (this.keywords[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            this.keywords[slot] = keyword;
+            this.values[slot] = entry.getValue();
+            this.hashes[slot] = keyword.hashCode();
+            maxLength = Math.max(maxLength, keyword.length());
+        }
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return slot of the longest keyword {@code [from, to)} of the source starts with, or -1 if it starts with none
+     */
+    int longestPrefix(CharSequence source, int from, int to) {
+        int end = Math.min(to, from + maxLength);
+        int hash = 0;
+        for (int i = from; i < end; i++) {
+            hash = 31 * hash + charAt(source, i);
+        }
+        for (; end > from; end--) {
+            int slot = find(source, from, end, hash);
+            if (slot >= 0) {
+                return slot;
+            }
+            hash = (hash - charAt(source, end - 1)) * INVERSE_31;
+        }
+        return -1;
+    }
+
+    String keyword(int slot) {
+        return keywords[slot];
+    }
+
+    int value(int slot) {
+        return values[slot];
+    }
+
+    private int find(CharSequence source, int from, int to, int hash) {
+        for (int slot = slot(hash); keywords[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && matches(keywords[slot], source, from, to)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int slot(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    private static boolean matches(String keyword, CharSequence source, int from, int to) {
+        if (keyword.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (keyword.charAt(i - from) != charAt(source, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the character at {@code index}, with ASCII letters folded to lower case.
+     */
+    private static char charAt(CharSequence source, int index) {
+        char c = source.charAt(index);
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -1,42 +1,110 @@
 package com.ihortymkiv.rihn;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 /**
  * A utility class holding static maps for IUPAC keywords.
  * This provides a single source of truth for stems (e.g., "meth" -> 1)
  * and multiplying affixes (e.g., "di" -> 2).
+ * <p>
+ * Stems and affixes above 9 are composed from IUPAC numerical terms (P-14.2.1): the units, tens,
+ * hundreds and thousands components are joined in this order, e.g. "do" + "triaconta" + "hecta" = 132.
  */
 final class Keywords {
     /**
-     * Map with stems as keys and respective numbers as values.
+     * The largest number expressible with IUPAC numerical terms.
      */
-    static final Map<String, Integer> STEMS = Map.of(
-            "meth", 1,
-            "eth", 2,
-            "prop", 3,
-            "but", 4,
-            "pent", 5,
-            "hex", 6,
-            "hept", 7,
-            "oct", 8,
-            "non", 9,
-            "dec", 10
-    );
+    static final int MAX_NUMERAL = 9999;
+
+    private static final String[] SIMPLE_STEMS = {
+            "", "meth", "eth", "prop", "but", "pent", "hex", "hept", "oct", "non"
+    };
+    private static final String[] UNITS = {
+            "", "hen", "do", "tri", "tetra", "penta", "hexa", "hepta", "octa", "nona"
+    };
+    private static final String[] TENS = {
+            "", "deca", "icosa", "triaconta", "tetraconta", "pentaconta",
+            "hexaconta", "heptaconta", "octaconta", "nonaconta"
+    };
+    private static final String[] HUNDREDS = {
+            "", "hecta", "dicta", "tricta", "tetracta", "pentacta", "hexacta", "heptacta", "octacta", "nonacta"
+    };
+    private static final String[] THOUSANDS = {
+            "", "kilia", "dilia", "trilia", "tetralia", "pentalia", "hexalia", "heptalia", "octalia", "nonalia"
+    };
+
+    /**
+     * Map with stems as keys and respective numbers as values, from "meth" (1) to "nonanonacontanonactanonali" (9999).
+     */
+    static final Map<String, Integer> STEMS = buildMap(1, Keywords::stem);
+
+    /**
+     * Map with multiplying affixes as keys and respective numbers as values, from "di" (2) to 9999.
+     */
+    static final Map<String, Integer> MULTIPLYING_AFFIXES = buildMap(2, Keywords::multiplyingAffix);
+
+    /**
+     * Length of the longest keyword, bounds the search for the longest keyword at the start of a word.
+     */
+    static final int MAX_KEYWORD_LENGTH = Math.max(maxLength(STEMS), maxLength(MULTIPLYING_AFFIXES));
 
     /**
-     * Map with multiplying affixes as keys and respective numbers as values.
+     * Returns the stem of the carbon chain with {@code n} carbons (e.g. "prop" for 3, "undec" for 11).
+     *
+     * @param n number of carbons, in range [1, {@link #MAX_NUMERAL}]
+     * @return stem without the terminal "a" of the numerical term
      */
-    static final Map<String, Integer> MULTIPLYING_AFFIXES = Map.of(
-            "di", 2,
-            "tri", 3,
-            "tetra", 4,
-            "penta", 5,
-            "hexa", 6,
-            "hepta", 7,
-            "octa", 8,
-            "nona", 9
-    );
+    static String stem(int n) {
+        if (n < 10) {
+            return SIMPLE_STEMS[n];
+        }
+        String term = numericalTerm(n);
+        return term.substring(0, term.length() - 1);
+    }
+
+    /**
+     * Returns the multiplying affix for {@code n} (e.g. "di" for 2, "dodeca" for 12).
+     *
+     * @param n multiplier, in range [2, {@link #MAX_NUMERAL}]
+     * @return multiplying affix
+     */
+    static String multiplyingAffix(int n) {
+        return switch (n) {
+            case 2 -> "di";
+            case 3 -> "tri";
+            case 4 -> "tetra";
+            default -> n < 10 ? UNITS[n] : numericalTerm(n);
+        };
+    }
+
+    /**
+     * Composes the numerical term for a number of at least 10, e.g. "henicosa" for 21.
+     */
+    private static String numericalTerm(int n) {
+        int units = n % 10;
+        int tens = n / 10 % 10;
+        String unitsTerm = units == 1 && tens == 1 ? "un" : UNITS[units];
+        String tensTerm = TENS[tens];
+        if (tens == 2 && units > 1) {
+            tensTerm = tensTerm.substring(1); // "icosa" loses its "i" after a vowel, e.g. "docosa"
+        }
+        return unitsTerm + tensTerm + HUNDREDS[n / 100 % 10] + THOUSANDS[n / 1000];
+    }
+
+    private static Map<String, Integer> buildMap(int from, IntFunction<String> keyword) {
+        Map<String, Integer> map = new HashMap<>();
+        for (int n = from; n <= MAX_NUMERAL; n++) {
+            map.put(keyword.apply(n), n);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static int maxLength(Map<String, Integer> keywords) {
+        return keywords.keySet().stream().mapToInt(String::length).max().orElse(0);
+    }
 
     private Keywords() {} // avoid instantiation
 }
@@ -1,5 +1,7 @@
 package com.ihortymkiv.rihn;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,17 +13,43 @@ import static com.ihortymkiv.rihn.TokenType.*;
  * This class is responsible for the first stage of compilation. It scans the
  * input source string (a hydrocarbon name) and converts it into a sequence
  * of {@link Token} objects, which can then be consumed by the {@link Parser}.
+ * <p>
+ * The source is any {@link CharSequence}, or ASCII bytes read in place, so a name doesn't have to be
+ * copied into a {@link String} first. Letters are folded to lower case while scanning, so the lexemes of words
+ * are always lower case. Punctuation, "cyclo" and the ending share constant lexemes,
+ * only words and numbers are copied out of the source.
  */
 class Lexer {
-    private final String source;
+    private final CharSequence source;
     private final List<Token> tokens = new ArrayList<>();
     private int start = 0;
     private int current = 0;
 
-    Lexer(String source) {
+    Lexer(CharSequence source) {
         this.source = source;
     }
 
+    /**
+     * Scans ASCII bytes without copying them.
+     *
+     * @param ascii buffer holding the name
+     * @param offset index of the first byte of the name
+     * @param length number of bytes of the name
+     */
+    Lexer(byte[] ascii, int offset, int length) {
+        this(ByteBuffer.wrap(ascii, offset, length));
+    }
+
+    /**
+     * Scans the ASCII bytes between the position and the limit of a buffer without copying them.
+     * The position of {@code ascii} is not changed.
+     *
+     * @param ascii buffer holding the name
+     */
+    Lexer(ByteBuffer ascii) {
+        this(new AsciiSequence(ascii.slice()));
+    }
+
     /**
      * Scans the entire source string and produces a list of tokens.
      *
@@ -42,14 +70,14 @@ class Lexer {
         char c = consume();
 
         switch (c) {
-            case '1', '2', '3', '4', '5', '6', '7', '8', '9': addToken(DIGIT); break;
-            case '-': addToken(HYPHEN); break;
-            case ',': addToken(COMMA); break;
+            case '1', '2', '3', '4', '5', '6', '7', '8', '9': consumeNumber(); break;
+            case '-': addToken(HYPHEN, "-", start); break;
+            case ',': addToken(COMMA, ",", start); break;
 
             default:
-                if (source.startsWith("cyclo", start)) {
+                if (c == 'c' && matchesCyclo()) {
                     current += 4;
-                    addToken(CYCLO);
+                    addToken(CYCLO, "cyclo", start);
                 } else if (isAlpha(c)) {
                     consumeWord();
                 } else {
@@ -59,38 +87,71 @@ class Lexer {
         }
     }
 
+    private boolean matchesCyclo() {
+        return start + 5 <= source.length()
+                && charAt(start + 1) == 'y'
+                && charAt(start + 2) == 'c'
+                && charAt(start + 3) == 'l'
+                && charAt(start + 4) == 'o';
+    }
+
+    private void consumeNumber() {
+        while (isDigit(peek())) consume();
+        addToken(DIGIT, lexeme(start, current), start);
+    }
+
     private void consumeWord() {
         while (!isAtEnd() && isAlpha(peek())) consume();
-        String lexeme = source.substring(start, current);
-        if (lexeme.endsWith("e") && isAtEnd()) {
-            addToken(WORD, lexeme.substring(0, lexeme.length() - 1), start);
+        if (isAtEnd() && charAt(current - 1) == 'e') {
+            addToken(WORD, lexeme(start, current - 1), start);
             addToken(ENDING, "e", current - 1);
         } else {
-            addToken(WORD, lexeme, start);
+            addToken(WORD, lexeme(start, current), start);
         }
     }
 
+    private boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Letters are already folded to lower case by {@link #charAt(int)}.
+     */
     private boolean isAlpha(char c) {
-        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        return c >= 'a' && c <= 'z';
     }
 
     private char peek() {
         if (current >= source.length()) return '\0';
-        return source.charAt(current);
+        return charAt(current);
     }
 
     private char consume() {
         if (isAtEnd()) return '\0';
-        return source.charAt(current++);
+        return charAt(current++);
     }
 
     private boolean isAtEnd() {
         return current >= source.length();
     }
 
-    private void addToken(TokenType type) {
-        String lexeme = source.substring(start, current);
-        tokens.add(new Token(type, lexeme, start));
+    /**
+     * Returns the character at {@code index}, with ASCII letters folded to lower case.
+     */
+    private char charAt(int index) {
+        char c = source.charAt(index);
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Copies the folded characters in {@code [from, to)}, the only copy made of the source.
+     */
+    private String lexeme(int from, int to) {
+        byte[] ascii = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            ascii[i - from] = (byte) charAt(i);
+        }
+        return new String(ascii, StandardCharsets.ISO_8859_1);
     }
 
     private void addToken(TokenType type, String lexeme, int position) {
@@ -98,8 +159,40 @@ class Lexer {
     }
 
     private LexerException error(String message) {
-        String lexeme = source.substring(start, current);
+        String lexeme = source.subSequence(start, current).toString();
         return new LexerException(message, lexeme, start);
     }
 
+    /**
+     * Read-only view of ASCII bytes as characters, bytes above 127 become characters the lexer rejects.
+     */
+    static final class AsciiSequence implements CharSequence {
+        private final ByteBuffer bytes;
+
+        AsciiSequence(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.remaining();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(bytes.position() + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new AsciiSequence(bytes.slice(bytes.position() + start, end - start));
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[bytes.remaining()];
+            bytes.get(bytes.position(), copy);
+            return new String(copy, StandardCharsets.ISO_8859_1);
+        }
+    }
 }
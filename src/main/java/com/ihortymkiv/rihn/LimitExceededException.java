@@ -0,0 +1,7 @@
+package com.ihortymkiv.rihn;
+
+class LimitExceededException extends RuntimeException {
+    LimitExceededException(String message) {
+        super(String.format("%s.", message));
+    }
+}
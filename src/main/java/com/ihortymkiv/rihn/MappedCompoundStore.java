@@ -0,0 +1,304 @@
+package com.ihortymkiv.rihn;
+
+import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.chemistry.CompoundBinaryReader;
+import com.ihortymkiv.chemistry.CompoundBinaryWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent store of generated compounds in a memory-mapped, append-only file.
+ * <p>
+ * The file starts with a header and is followed by records:
+ * <pre>
+ * header: int magic, int store version, int compound format version, int reserved
+ * record: int body length, int CRC32 of the body,
+ *         body = long name hash, int name length, UTF-8 name, compound encoded by {@link CompoundBinaryWriter}
+ * </pre>
+ * An in-memory index from name to record offset is rebuilt by scanning the file when it is opened.
+ * It is keyed by the name itself rather than its hash, so names whose hashes collide keep records of their own.
+ * A record becomes visible only once its length is written, which happens after its body and checksum,
+ * and the scan stops at the first record that is incomplete or fails its checksum,
+ * so a crash in the middle of an append loses only that record.
+ * <p>
+ * Storing a name again leaves the old record behind as dead space. {@link #compact()} rewrites the live records
+ * into a new file and atomically replaces the old one, it also runs automatically when the file has to grow and
+ * more than half of it is dead.
+ * <p>
+ * A file written with another compound format version is discarded on open. The file is limited to 2 GiB,
+ * appends beyond that are dropped.
+ */
+public final class MappedCompoundStore implements Closeable {
+    private static final int MAGIC = 0x5249484E; // "RIHN"
+    private static final int STORE_VERSION = 1;
+    private static final int HEADER_LENGTH = 16;
+    private static final int RECORD_HEADER_LENGTH = 8;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private final Path path;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> index = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int end;
+    private long deadBytes;
+
+    private MappedCompoundStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the store at {@code path}, creating the file if it does not exist.
+     *
+     * @param path store file
+     * @return opened store
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static MappedCompoundStore open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null.");
+        MappedCompoundStore store = new MappedCompoundStore(path);
+        store.map();
+        return store;
+    }
+
+    /**
+     * Looks up a compound by name.
+     *
+     * @param name hydrocarbon name
+     * @return a new {@link Compound} decoded from the store, or {@code null} if the name is not stored
+     */
+    public Compound get(String name) {
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(name);
+            if (Objects.isNull(offset)) {
+                return null;
+            }
+            int bodyOffset = offset + RECORD_HEADER_LENGTH;
+            int nameLength = buffer.getInt(bodyOffset + 8);
+            int compoundOffset = bodyOffset + 12 + nameLength;
+            int compoundLength = buffer.getInt(offset) - 12 - nameLength;
+            ByteBuffer compound = buffer.slice(compoundOffset, compoundLength);
+            return new CompoundBinaryReader(compound).toCompound();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a compound, replacing any earlier record with the same name.
+     *
+     * @param name hydrocarbon name
+     * @param compound compound to store
+     * @return {@code false} if the store is full and the compound was not stored
+     */
+    public boolean put(String name, Compound compound) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] compoundBytes = CompoundBinaryWriter.write(compound);
+        long bodyLength = 12L + nameBytes.length + compoundBytes.length;
+        long hash = hash(nameBytes);
+
+        lock.writeLock().lock();
+        try {
+            if (!ensureCapacity(RECORD_HEADER_LENGTH + bodyLength)) {
+                return false;
+            }
+            int offset = end;
+            int bodyOffset = offset + RECORD_HEADER_LENGTH;
+            buffer.putLong(bodyOffset, hash);
+            buffer.putInt(bodyOffset + 8, nameBytes.length);
+            buffer.put(bodyOffset + 12, nameBytes);
+            buffer.put(bodyOffset + 12 + nameBytes.length, compoundBytes);
+            buffer.putInt(offset + 4, crc(bodyOffset, (int) bodyLength));
+            // Written last, makes the record visible to the next scan
+            buffer.putInt(offset, (int) bodyLength);
+            end = bodyOffset + (int) bodyLength;
+
+            Integer previous = index.put(name, offset);
+            if (Objects.nonNull(previous)) {
+                deadBytes += RECORD_HEADER_LENGTH + buffer.getInt(previous);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the live records into a new file and atomically replaces the current one with it.
+     *
+     * @throws UncheckedIOException if the new file cannot be written
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                out.write(header());
+                for (int offset : index.values()) {
+                    int recordLength = RECORD_HEADER_LENGTH + buffer.getInt(offset);
+                    out.write(buffer.slice(offset, recordLength));
+                }
+                out.force(true);
+            }
+            buffer.force();
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            map();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the mapped file to disk and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_CAPACITY));
+        index.clear();
+        deadBytes = 0;
+        if (size < HEADER_LENGTH || buffer.getInt(0) != MAGIC || buffer.getInt(4) != STORE_VERSION
+                || buffer.getInt(8) != CompoundBinaryWriter.VERSION) {
+            reset();
+            return;
+        }
+        scan();
+    }
+
+    /**
+     * Rebuilds the index from the records, stopping at the first incomplete or corrupted one.
+     */
+    private void scan() {
+        int offset = HEADER_LENGTH;
+        while (offset + RECORD_HEADER_LENGTH <= buffer.capacity()) {
+            int bodyLength = buffer.getInt(offset);
+            if (bodyLength == 0) {
+                break;
+            }
+            int bodyOffset = offset + RECORD_HEADER_LENGTH;
+            if (bodyLength < 12 || bodyLength > buffer.capacity() - bodyOffset
+                    || buffer.getInt(offset + 4) != crc(bodyOffset, bodyLength)) {
+                // Torn or corrupted append, clear it so that it can't be mistaken for a record later
+                clear(offset, buffer.capacity());
+                break;
+            }
+            int nameLength = buffer.getInt(bodyOffset + 8);
+            if (nameLength < 0 || nameLength > bodyLength - 12) {
+                clear(offset, buffer.capacity());
+                break;
+            }
+            byte[] nameBytes = new byte[nameLength];
+            buffer.get(bodyOffset + 12, nameBytes);
+            Integer previous = index.put(new String(nameBytes, StandardCharsets.UTF_8), offset);
+            if (Objects.nonNull(previous)) {
+                deadBytes += RECORD_HEADER_LENGTH + buffer.getInt(previous);
+            }
+            offset = bodyOffset + bodyLength;
+        }
+        end = offset;
+    }
+
+    private void reset() {
+        clear(0, buffer.capacity());
+        buffer.put(0, header(), 0, HEADER_LENGTH);
+        end = HEADER_LENGTH;
+    }
+
+    private boolean ensureCapacity(long recordLength) {
+        if (end + recordLength <= buffer.capacity()) {
+            return true;
+        }
+        if (deadBytes > (end - HEADER_LENGTH) / 2) {
+            compact();
+            if (end + recordLength <= buffer.capacity()) {
+                return true;
+            }
+        }
+        long capacity = Math.max((long) buffer.capacity() * 2, end + recordLength);
+        if (capacity > Integer.MAX_VALUE) {
+            return false;
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int crc(int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private void clear(int from, int to) {
+        byte[] zeros = new byte[8192];
+        for (int offset = from; offset < to; offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, to - offset));
+        }
+    }
+
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .putInt(STORE_VERSION)
+                .putInt(CompoundBinaryWriter.VERSION)
+                .putInt(0)
+                .flip();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 name.
+     */
+    private static long hash(byte[] nameBytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : nameBytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,247 @@
+package com.ihortymkiv.rihn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.ihortymkiv.rihn.BatchSemanticAnalyzer.*;
+
+/**
+ * Packs a {@link Hydrocarbon} AST into a single {@code long}, for bulk paths that handle millions of names.
+ * <p>
+ * From the lowest bit: the stem value in 14 bits, the ring flag, then a mask of the double bond locants and a mask
+ * of the triple bond locants, where bit {@code l - 1} of a mask is set for locant {@code l}. Two ASTs pack to
+ * the same value exactly when their canonical names are the same, so the packed value serves as its own cache key,
+ * hash and equality.
+ * <p>
+ * Stems go up to {@link Keywords#MAX_NUMERAL}, but only locants up to {@link #MAX_LOCANT} fit in the masks,
+ * and only ASTs a canonical name produces can be packed: locants in increasing order, no repeats, and
+ * a multiplying affix exactly on groups of several locants. {@link #encode} returns {@link #NOT_PACKED} for
+ * the others, which stay on the object AST. {@link #parse} packs a name straight from its characters.
+ * <p>
+ * A packed value stands for the canonical name, not for the tokens it was parsed from. {@link #decode} returns
+ * the AST of the canonical name.
+ */
+final class PackedHydrocarbon {
+    /** Largest locant the masks hold. */
+    static final int MAX_LOCANT = 24;
+    /** Returned by {@link #encode} for an AST that doesn't fit, no AST packs to it. */
+    static final long NOT_PACKED = -1L;
+
+    private static final int STEM_BITS = 14;
+    private static final long STEM_MASK = (1L << STEM_BITS) - 1;
+    private static final int CYCLIC_SHIFT = STEM_BITS;
+    private static final int ALKENE_SHIFT = CYCLIC_SHIFT + 1;
+    private static final int ALKYNE_SHIFT = ALKENE_SHIFT + MAX_LOCANT;
+    private static final long LOCANT_MASK = (1L << MAX_LOCANT) - 1;
+
+    private PackedHydrocarbon() {
+    }
+
+    /**
+     * Packs an AST.
+     *
+     * @return the packed AST, {@link #NOT_PACKED} if it doesn't fit
+     */
+    static long encode(Hydrocarbon hydrocarbon) {
+        Objects.requireNonNull(hydrocarbon, "Hydrocarbon cannot be null.");
+        int carbons = hydrocarbon.stem.value;
+        if (carbons < 1 || carbons > Keywords.MAX_NUMERAL) {
+            return NOT_PACKED;
+        }
+        Group alkene = null;
+        Group alkyne = null;
+        if (hydrocarbon.type instanceof Type.Alkene type) {
+            alkene = type.group;
+        } else if (hydrocarbon.type instanceof Type.Alkyne type) {
+            alkyne = type.group;
+        } else if (hydrocarbon.type instanceof Type.Enyne type) {
+            alkene = type.alkene.group;
+            alkyne = type.alkyne.group;
+        }
+        long alkeneLocants = locantMask(alkene);
+        long alkyneLocants = locantMask(alkyne);
+        if (alkeneLocants == NOT_PACKED || alkyneLocants == NOT_PACKED) {
+            return NOT_PACKED;
+        }
+        return pack(carbons, hydrocarbon.isCyclic, alkeneLocants, alkyneLocants);
+    }
+
+    /**
+     * Packs a name without building its AST, for bulk paths that read names.
+     *
+     * @return the value {@link #encode} returns for the AST of the name, {@link #NOT_PACKED} if it doesn't pack
+     * or is not a syntactically valid name
+     */
+    static long parse(CharSequence name) {
+        Objects.requireNonNull(name, "Name cannot be null.");
+        return new FusedParser(name).tryPack();
+    }
+
+    /**
+     * @param alkeneLocants mask of the double bond locants, bit {@code l - 1} for locant {@code l}
+     * @param alkyneLocants mask of the triple bond locants
+     * @return the packed fields, {@link #NOT_PACKED} if the stem doesn't fit
+     */
+    static long pack(int carbons, boolean isCyclic, long alkeneLocants, long alkyneLocants) {
+        if (carbons < 1 || carbons > Keywords.MAX_NUMERAL) {
+            return NOT_PACKED;
+        }
+        return carbons
+                | (isCyclic ? 1L << CYCLIC_SHIFT : 0)
+                | alkeneLocants << ALKENE_SHIFT
+                | alkyneLocants << ALKYNE_SHIFT;
+    }
+
+    /**
+     * Unpacks a packed AST.
+     *
+     * @return the AST of the canonical name, as the {@link Parser} builds it
+     */
+    static Hydrocarbon decode(long packed) {
+        return new FusedParser(name(packed)).parse();
+    }
+
+    /**
+     * @return the canonical name of a packed AST
+     */
+    static String name(long packed) {
+        return IsomerEnumerator.name(
+                carbons(packed), isCyclic(packed), locants(alkeneLocants(packed)), locants(alkyneLocants(packed))
+        );
+    }
+
+    static int carbons(long packed) {
+        return (int) (packed & STEM_MASK);
+    }
+
+    static boolean isCyclic(long packed) {
+        return (packed >>> CYCLIC_SHIFT & 1) != 0;
+    }
+
+    /**
+     * @return mask of the double bond locants, bit {@code l - 1} for locant {@code l}
+     */
+    static long alkeneLocants(long packed) {
+        return packed >>> ALKENE_SHIFT & LOCANT_MASK;
+    }
+
+    /**
+     * @return mask of the triple bond locants, bit {@code l - 1} for locant {@code l}
+     */
+    static long alkyneLocants(long packed) {
+        return packed >>> ALKYNE_SHIFT & LOCANT_MASK;
+    }
+
+    /**
+     * Applies the rules of the {@link SemanticAnalyzer} to a packed AST without unpacking or allocating.
+     * The rules on the order, repeats and multiplier of locants always hold for a packed AST.
+     *
+     * @return {@link BatchSemanticAnalyzer#VALID} or the code of the first rule the {@link SemanticAnalyzer}
+     * would throw for, as {@link BatchSemanticAnalyzer#analyze} returns it
+     */
+    static byte analyze(long packed) {
+        int carbons = carbons(packed);
+        long alkenes = alkeneLocants(packed);
+        long alkynes = alkyneLocants(packed);
+        if (isCyclic(packed) && carbons < 3) {
+            return RING_TOO_SMALL;
+        }
+        if ((alkenes | alkynes) != 0 && carbons < 2) {
+            return CHAIN_TOO_SHORT_FOR_LOCANTS;
+        }
+
+        // Locants from the last carbon on are out of range
+        long outOfRange = carbons - 1 >= MAX_LOCANT ? 0 : LOCANT_MASK << (carbons - 1) & LOCANT_MASK;
+        byte code = firstViolation(alkenes & outOfRange, 0);
+        if (code != VALID) {
+            return code;
+        }
+        // A triple bond can't share a carbon with another multiple bond, double bonds can share one
+        long sharedCarbon = alkynes & (alkynes << 1 | alkenes << 1 | alkenes | alkenes >>> 1);
+        code = firstViolation(alkynes & outOfRange, sharedCarbon);
+        if (code != VALID) {
+            return code;
+        }
+
+        if (alkenes != 0 && alkynes != 0) {
+            long locants = alkenes | alkynes;
+            if (isSymmetric(locants, carbons)) {
+                // A tie, the double bonds must get the lowest locant, which is the highest from the other end
+                boolean lowestIsAlkyne = (Long.lowestOneBit(locants) & alkynes) != 0;
+                boolean highestIsAlkene = (Long.highestOneBit(locants) & alkenes) != 0;
+                return lowestIsAlkyne && highestIsAlkene ? ALKENE_LOCANT_NOT_LOWEST : VALID;
+            }
+            return lowestDifference(locants, carbons) < 0 ? LOWEST_SET_RULE_VIOLATED : VALID;
+        }
+        return lowestDifference(alkenes | alkynes, carbons) < 0 ? LOWEST_SET_RULE_VIOLATED : VALID;
+    }
+
+    /**
+     * Picks the rule broken at the lowest locant, the range is checked before the valency at each locant.
+     */
+    private static byte firstViolation(long outOfRange, long valencyExceeded) {
+        long violations = outOfRange | valencyExceeded;
+        if (violations == 0) {
+            return VALID;
+        }
+        return (Long.lowestOneBit(violations) & outOfRange) != 0 ? LOCANT_OUT_OF_RANGE : VALENCY_EXCEEDED;
+    }
+
+    /**
+     * @return the smallest difference between a locant numbered from the other end and the locant at its position
+     */
+    private static int lowestDifference(long locants, int carbons) {
+        int lowest = Integer.MAX_VALUE;
+        for (long low = locants, high = locants; low != 0; low &= low - 1, high ^= Long.highestOneBit(high)) {
+            int locant = Long.numberOfTrailingZeros(low) + 1;
+            int mirrored = carbons - (Long.SIZE - Long.numberOfLeadingZeros(high));
+            lowest = Math.min(lowest, mirrored - locant);
+        }
+        return lowest;
+    }
+
+    private static boolean isSymmetric(long locants, int carbons) {
+        for (long low = locants, high = locants; low != 0; low &= low - 1, high ^= Long.highestOneBit(high)) {
+            int locant = Long.numberOfTrailingZeros(low) + 1;
+            if (carbons - (Long.SIZE - Long.numberOfLeadingZeros(high)) != locant) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return mask of the locants of a group, 0 without a group, {@link #NOT_PACKED} if they don't fit
+     */
+    private static long locantMask(Group group) {
+        if (Objects.isNull(group)) {
+            return 0;
+        }
+        List<Integer> locants = group.locants.locants;
+        boolean hasAffix = Objects.nonNull(group.multiplyingAffix);
+        int multiplier = hasAffix ? group.multiplyingAffix.value : 1;
+        // A single locant takes no affix, several take the affix of their number
+        if (locants.isEmpty() || multiplier != locants.size() || hasAffix == (multiplier == 1)) {
+            return NOT_PACKED;
+        }
+        long mask = 0;
+        int previous = 0;
+        for (int locant : locants) {
+            if (locant <= previous || locant > MAX_LOCANT) {
+                return NOT_PACKED;
+            }
+            mask |= 1L << (locant - 1);
+            previous = locant;
+        }
+        return mask;
+    }
+
+    private static List<Integer> locants(long mask) {
+        List<Integer> locants = new ArrayList<>(Long.bitCount(mask));
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            locants.add(Long.numberOfTrailingZeros(rest) + 1);
+        }
+        return locants;
+    }
+}
@@ -166,20 +166,29 @@ class Parser {
         consume(HYPHEN, "Hyphen expected");
         List<Integer> locants = new ArrayList<>();
         Token token = consume(DIGIT, "Digit expected after hyphen");
-        locants.add(Integer.parseInt(token.lexeme()));
+        locants.add(locantValue(token));
 
         while (!isAtEnd() && !check(HYPHEN)) {
             consume(COMMA, "Comma expected after digit");
             token = consume(DIGIT, "Digit expected after comma");
-            locants.add(Integer.parseInt(token.lexeme()));
+            locants.add(locantValue(token));
         }
 
         consume(HYPHEN, "Unterminated locants. Expected hyphen");
         return new Locants(locants);
     }
 
+    private int locantValue(Token token) {
+        try {
+            return Integer.parseInt(token.lexeme());
+        } catch (NumberFormatException e) {
+            throw error("Locant is too large", token);
+        }
+    }
+
     /**
-     * Extracts a keyword from token, if successful returns a token including the keyword, otherwise returns null.
+     * Extracts the longest keyword the token starts with,
+     * if successful returns a token including the keyword, otherwise returns null.
      * @param token token to extract from
      * @param keywords set of possible keywords
      * @return token with keyword as lexeme on success, otherwise null
@@ -188,9 +197,11 @@ class Parser {
         if (Objects.isNull(token) || token.lexeme().isEmpty()) {
             return null;
         }
-        for (String keyword : keywords) {
-            if (token.lexeme().startsWith(keyword)) {
-                String remainingWord = token.lexeme().substring(keyword.length());
+        String lexeme = token.lexeme();
+        for (int length = Math.min(lexeme.length(), Keywords.MAX_KEYWORD_LENGTH); length > 0; length--) {
+            String keyword = lexeme.substring(0, length);
+            if (keywords.contains(keyword)) {
+                String remainingWord = lexeme.substring(length);
                 Token newPrevious = new Token(WORD, keyword, token.position());
                 tokens.set(current - 1, newPrevious);
                 if (!remainingWord.isEmpty()) {
@@ -0,0 +1,31 @@
+package com.ihortymkiv.rihn;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides when a run of the pipeline may start, e.g. to bound the number of runs at once.
+ * <p>
+ * {@link Rihn} only passes the caller that runs the pipeline through it. Callers served from the store or
+ * sharing another caller's run don't take part, and get the exception of a run that was not admitted
+ * like any other exception of that run.
+ */
+public interface PipelineAdmission {
+    /**
+     * Admits every run at once.
+     */
+    PipelineAdmission NONE = new PipelineAdmission() {
+        @Override
+        public <T> T run(Supplier<T> pipeline) {
+            return pipeline.get();
+        }
+    };
+
+    /**
+     * Runs the pipeline once admitted.
+     *
+     * @param pipeline run of the pipeline
+     * @return result of the run
+     * @throws RuntimeException if the run is not admitted
+     */
+    <T> T run(Supplier<T> pipeline);
+}
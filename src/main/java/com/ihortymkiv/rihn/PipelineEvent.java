@@ -0,0 +1,101 @@
+package com.ihortymkiv.rihn;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Base class for the Java Flight Recorder events emitted by {@link Rihn}
+ * around each stage of the compiler pipeline.
+ * <p>
+ * Every event carries the length of the input, the stem value (once it is known)
+ * and the outcome of the stage: either {@code "success"} or the simple name of the thrown exception.
+ * The duration of the stage is also added to the request's {@link StageTimings}, if there is one.
+ */
+@Category("RIHNParser")
+@StackTrace(false)
+abstract class PipelineEvent extends Event {
+    static final String SUCCESS = "success";
+
+    @Label("Input Length")
+    int inputLength;
+
+    @Label("Stem")
+    @Description("Carbon count of the stem, 0 if it is not known yet")
+    int stem;
+
+    @Label("Outcome")
+    String outcome;
+
+    private final transient StageTimings.Stage stage;
+    private final transient StageTimings timings;
+
+    PipelineEvent(StageTimings.Stage stage, StageTimings timings, int inputLength, int stem) {
+        this.stage = stage;
+        this.timings = timings;
+        this.inputLength = inputLength;
+        this.stem = stem;
+    }
+
+    /**
+     * Runs a pipeline stage inside of this event and commits it, whether the stage succeeds or throws.
+     *
+     * @param body the work of the stage
+     * @return the result of the stage
+     */
+    <T> T record(Supplier<T> body) {
+        long start = System.nanoTime();
+        begin();
+        try {
+            T result = body.get();
+            outcome = SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            commit();
+            if (Objects.nonNull(timings)) {
+                timings.record(stage, System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Name("com.ihortymkiv.rihn.Lex")
+    @Label("Lex")
+    static final class Lex extends PipelineEvent {
+        Lex(StageTimings timings, int inputLength) {
+            super(StageTimings.Stage.LEX, timings, inputLength, 0);
+        }
+    }
+
+    @Name("com.ihortymkiv.rihn.Parse")
+    @Label("Parse")
+    static final class Parse extends PipelineEvent {
+        Parse(StageTimings timings, int inputLength) {
+            super(StageTimings.Stage.PARSE, timings, inputLength, 0);
+        }
+    }
+
+    @Name("com.ihortymkiv.rihn.Analyze")
+    @Label("Analyze")
+    static final class Analyze extends PipelineEvent {
+        Analyze(StageTimings timings, int inputLength, int stem) {
+            super(StageTimings.Stage.ANALYZE, timings, inputLength, stem);
+        }
+    }
+
+    @Name("com.ihortymkiv.rihn.Generate")
+    @Label("Generate")
+    static final class Generate extends PipelineEvent {
+        Generate(StageTimings timings, int inputLength, int stem) {
+            super(StageTimings.Stage.GENERATE, timings, inputLength, stem);
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.ihortymkiv.rihn;
 
+import com.ihortymkiv.chemistry.Atom;
+import com.ihortymkiv.chemistry.ChemicalElement;
 import com.ihortymkiv.chemistry.Compound;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
 
 /**
  * Public facade for the RIHNParser.
@@ -15,14 +23,287 @@ import java.util.List;
  * 2. {@link Parser}
  * 3. {@link SemanticAnalyzer}
  * 4. {@link CompoundGenerator}
+ * <p>
+ * Each stage is wrapped in a {@link PipelineEvent}, so it shows up in Java Flight Recorder recordings.
+ * <p>
+ * If a {@link MappedCompoundStore} is set, {@link #getCompound} consults it before running the pipeline
+ * and appends every newly generated compound to it. {@link #getSkeleton} doesn't, decoding a stored graph
+ * costs more than running the pipeline up to the skeleton.
+ * <p>
+ * Names the {@link SyntaxAutomaton} rejects are turned away before the store, the sharing of concurrent runs
+ * and the pipeline, with the same exception the front end would throw.
  */
 public final class Rihn {
+    private static final String VERSION = readVersion();
+
+    /**
+     * Runs are shared between callers with the same limits only, a run stopped by one caller's limits
+     * must not fail a caller with looser ones, nor a result reach a caller with stricter ones.
+     */
+    private static final SingleFlight<Flight, Compound> IN_FLIGHT = new SingleFlight<>();
+
+    static final SingleFlight<Flight, CarbonSkeleton> SKELETONS_IN_FLIGHT = new SingleFlight<>();
+
+    record Flight(String input, InputLimits limits) {}
+
+    private static volatile MappedCompoundStore store;
+
+    /**
+     * Returns the version of the library, the output for a given name may only change between versions.
+     *
+     * @return project version, {@code "unknown"} if the build did not record it
+     */
+    public static String version() {
+        return VERSION;
+    }
+
+    /**
+     * Sets the persistent store consulted by {@link #getCompound}.
+     *
+     * @param store store to use, {@code null} to disable it
+     */
+    public static void setStore(MappedCompoundStore store) {
+        Rihn.store = store;
+    }
+
+    /**
+     * Normalizes a user supplied name to the form the pipeline expects.
+     * Names that normalize to the same string describe the same compound.
+     *
+     * @param name hydrocarbon name as entered
+     * @return normalized name
+     */
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks the syntax of a name without running the pipeline or allocating, e.g. to filter a batch of names.
+     * Semantic errors such as a locant beyond the chain are only found by {@link #getCompound(String)}.
+     *
+     * @param name hydrocarbon name
+     * @return whether the name is syntactically valid
+     */
+    public static boolean isWellFormed(CharSequence name) {
+        return SyntaxAutomaton.accepts(name);
+    }
 
     public static Compound getCompound(String input) {
-        List<Token> tokens = new Lexer(input).scanTokens();
-        Hydrocarbon hydrocarbon = new Parser(tokens).parse();
-        new SemanticAnalyzer().analyze(hydrocarbon);
-        return new CompoundGenerator().generateGraph(hydrocarbon);
+        return getCompound(input, InputLimits.NONE, null);
+    }
+
+    public static Compound getCompound(String input, StageTimings timings) {
+        return getCompound(input, InputLimits.NONE, timings);
+    }
+
+    /**
+     * Runs the pipeline and records the duration of each stage.
+     * <p>
+     * Concurrent calls for the same input and limits share a single run of the pipeline, and its result or exception.
+     * Callers that waited for another caller's run record the wait as {@link StageTimings.Stage#COALESCE}
+     * instead of the compiler stages. Compounds are frozen, so sharing them is safe.
+     *
+     * @param input hydrocarbon name
+     * @param limits limits of the work the name may cause
+     * @param timings per-request timings to populate, may be {@code null}
+     * @return the compound graph
+     * @throws RuntimeException if the name is invalid or exceeds the limits
+     */
+    public static Compound getCompound(String input, InputLimits limits, StageTimings timings) {
+        return getCompound(input, limits, PipelineAdmission.NONE, timings);
+    }
+
+    /**
+     * Like {@link #getCompound(String, InputLimits, StageTimings)}, with the run of the pipeline admitted by
+     * {@code admission}. Store hits and callers sharing another caller's run are not admitted, they cause no work.
+     *
+     * @param input hydrocarbon name
+     * @param limits limits of the work the name may cause
+     * @param admission admission of the run of the pipeline
+     * @param timings per-request timings to populate, may be {@code null}
+     * @return the compound graph
+     * @throws RuntimeException if the name is invalid, exceeds the limits or its run is not admitted
+     */
+    public static Compound getCompound(String input, InputLimits limits, PipelineAdmission admission,
+                                       StageTimings timings) {
+        checkInputLength(input, limits);
+        rejectMalformed(input, timings);
+        MappedCompoundStore store = Rihn.store;
+        if (Objects.nonNull(store)) {
+            long start = System.nanoTime();
+            Compound stored = store.get(input);
+            if (Objects.nonNull(timings)) {
+                timings.record(StageTimings.Stage.STORE, System.nanoTime() - start);
+            }
+            if (Objects.nonNull(stored)) {
+                // The compound may have been stored by a caller with looser limits
+                checkCarbons(carbons(stored), limits);
+                return stored;
+            }
+        }
+
+        return IN_FLIGHT.run(new Flight(input, limits), () -> admission.run(() -> {
+            Compound compound = runPipeline(input, limits, timings);
+            if (Objects.nonNull(store)) {
+                store.put(input, compound);
+            }
+            return compound;
+        }), Objects.isNull(timings) ? null : waited -> timings.record(StageTimings.Stage.COALESCE, waited));
+    }
+
+    public static CarbonSkeleton getSkeleton(String input, StageTimings timings) {
+        return getSkeleton(input, InputLimits.NONE, timings);
+    }
+
+    /**
+     * Runs the pipeline up to the carbon skeleton, for callers that only serialize the compound.
+     * <p>
+     * Concurrent calls for the same input and limits share a single run, as for {@link #getCompound(String, StageTimings)},
+     * and waiters record {@link StageTimings.Stage#COALESCE}. Skeletons are immutable, so sharing them is safe.
+     * The store is not consulted, the skeleton is cheaper to produce than a stored graph is to decode.
+     *
+     * @param input hydrocarbon name
+     * @param limits limits of the work the name may cause
+     * @param timings per-request timings to populate, may be {@code null}
+     * @return the carbon skeleton, numbered like the compound graph of {@link #getCompound(String)}
+     * @throws RuntimeException if the name is invalid or exceeds the limits
+     */
+    public static CarbonSkeleton getSkeleton(String input, InputLimits limits, StageTimings timings) {
+        return getSkeleton(input, limits, PipelineAdmission.NONE, timings);
+    }
+
+    /**
+     * Like {@link #getSkeleton(String, InputLimits, StageTimings)}, with the run of the pipeline admitted by
+     * {@code admission}. Callers sharing another caller's run are not admitted, they cause no work.
+     *
+     * @param input hydrocarbon name
+     * @param limits limits of the work the name may cause
+     * @param admission admission of the run of the pipeline
+     * @param timings per-request timings to populate, may be {@code null}
+     * @return the carbon skeleton, numbered like the compound graph of {@link #getCompound(String)}
+     * @throws RuntimeException if the name is invalid, exceeds the limits or its run is not admitted
+     */
+    public static CarbonSkeleton getSkeleton(String input, InputLimits limits, PipelineAdmission admission,
+                                             StageTimings timings) {
+        checkInputLength(input, limits);
+        rejectMalformed(input, timings);
+        return SKELETONS_IN_FLIGHT.run(new Flight(input, limits),
+                () -> admission.run(() -> generateSkeleton(input, limits, timings)),
+                Objects.isNull(timings) ? null : waited -> timings.record(StageTimings.Stage.COALESCE, waited));
+    }
+
+    /**
+     * Runs the pipeline up to the carbon skeleton on a name read in place as ASCII, e.g. a line of a request body,
+     * so bulk callers don't have to make a {@link String} of every name. Letters are folded to lower case while
+     * scanning, as {@link #normalize(String)} would.
+     *
+     * Names read in place are not shared between concurrent calls, that would take a {@link String} key.
+     *
+     * @param ascii buffer holding the name between its position and limit, the position is not changed
+     * @param limits limits of the work the name may cause
+     * @param timings per-request timings to populate, may be {@code null}
+     * @return the carbon skeleton, numbered like the compound graph of {@link #getCompound(String)}
+     * @throws RuntimeException if the name is invalid or exceeds the limits, bytes above 127 are invalid characters
+     */
+    public static CarbonSkeleton getSkeleton(ByteBuffer ascii, InputLimits limits, StageTimings timings) {
+        CharSequence input = new Lexer.AsciiSequence(ascii.slice());
+        checkInputLength(input, limits);
+        rejectMalformed(input, timings);
+        return generateSkeleton(input, limits, timings);
+    }
+
+    private static CarbonSkeleton generateSkeleton(CharSequence input, InputLimits limits, StageTimings timings) {
+        Hydrocarbon hydrocarbon = analyze(input, limits, timings);
+        return new PipelineEvent.Generate(timings, input.length(), hydrocarbon.stem.value).record(
+                () -> new CompoundGenerator().generateSkeleton(hydrocarbon)
+        );
+    }
+
+    private static void checkCarbons(int carbons, InputLimits limits) {
+        if (carbons > limits.maxCarbons()) {
+            throw new LimitExceededException(
+                    String.format("Chain of %d carbons exceeds the maximum of %d", carbons, limits.maxCarbons())
+            );
+        }
+    }
+
+    /**
+     * Counts the carbons of a compound, which are all in the main chain of a hydrocarbon.
+     */
+    private static int carbons(Compound compound) {
+        int carbons = 0;
+        for (Atom atom : compound.atoms()) {
+            if (atom.getChemicalElement() == ChemicalElement.Carbon) {
+                carbons++;
+            }
+        }
+        return carbons;
+    }
+
+    private static void checkInputLength(CharSequence input, InputLimits limits) {
+        if (input.length() > limits.maxInputLength()) {
+            throw new LimitExceededException(
+                    String.format("Name exceeds the maximum length of %d characters", limits.maxInputLength())
+            );
+        }
+    }
+
+    /**
+     * Throws the front end's exception for a name the automaton rejects, recorded as the parse stage
+     * since that is where the name would have failed.
+     */
+    private static void rejectMalformed(CharSequence input, StageTimings timings) {
+        if (!SyntaxAutomaton.accepts(input)) {
+            new PipelineEvent.Parse(timings, input.length()).record(() -> {
+                SyntaxAutomaton.requireWellFormed(input);
+                return null;
+            });
+        }
+    }
+
+    private static Compound runPipeline(String input, InputLimits limits, StageTimings timings) {
+        Hydrocarbon hydrocarbon = analyze(input, limits, timings);
+        return new PipelineEvent.Generate(timings, input.length(), hydrocarbon.stem.value).record(
+                () -> new CompoundGenerator().generateGraph(hydrocarbon)
+        );
+    }
+
+    /**
+     * Runs the stages up to the semantic analysis.
+     *
+     * @return the validated AST
+     */
+    private static Hydrocarbon analyze(CharSequence input, InputLimits limits, StageTimings timings) {
+        int inputLength = input.length();
+        List<Token> tokens = new PipelineEvent.Lex(timings, inputLength).record(() -> new Lexer(input).scanTokens());
+
+        PipelineEvent.Parse parse = new PipelineEvent.Parse(timings, inputLength);
+        Hydrocarbon hydrocarbon = parse.record(() -> {
+            Hydrocarbon result = new Parser(tokens).parse();
+            parse.stem = result.stem.value;
+            return result;
+        });
+
+        int stem = hydrocarbon.stem.value;
+        checkCarbons(stem, limits);
+        new PipelineEvent.Analyze(timings, inputLength, stem).record(() -> {
+            new SemanticAnalyzer().analyze(hydrocarbon);
+            return null;
+        });
+        return hydrocarbon;
+    }
+
+    private static String readVersion() {
+        try (InputStream in = Rihn.class.getResourceAsStream("version.properties")) {
+            if (Objects.isNull(in)) {
+                return "unknown";
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("version", "unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
     }
 
     private Rihn() {};
@@ -2,7 +2,9 @@ package com.ihortymkiv.rihn;
 
 import com.ihortymkiv.chemistry.ChemicalElement;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * The Semantic Analyzer for the RIHNParser.
@@ -20,12 +22,19 @@ import java.util.*;
  * </ul>
  * <p>
  * It uses the Visitor pattern to traverse the {@link Type} nodes of the AST.
+ * <p>
+ * All checks run in time linear in the chain length and the number of locants:
+ * locants are validated in a single ordered pass and valencies are tracked in an array indexed by carbon.
  */
 class SemanticAnalyzer implements Type.Visitor<Void> {
     private static int ALKENE_BOND_ORDER = 2;
     private static int ALKYNE_BOND_ORDER = 3;
     private int carbonCount;
-    private Map<Integer, Integer> carbonValencies;
+
+    /**
+     * Valence used up by double and triple bonds, indexed by carbon number.
+     */
+    private int[] usedValencies;
 
     /**
      * Analyzes the {@link Hydrocarbon} AST for semantic and chemical validity.
@@ -34,8 +43,8 @@ class SemanticAnalyzer implements Type.Visitor<Void> {
      * @throws SemanticAnalyzerException if any chemical or naming rule is violated.
      */
     public void analyze(Hydrocarbon hydrocarbon) {
-        carbonValencies = new HashMap<>();
         carbonCount = hydrocarbon.stem.value;
+        usedValencies = null;
         if (hydrocarbon.isCyclic && carbonCount < 3) {
             throw new SemanticAnalyzerException("Carbon chain length must be at least 3 for it to be cyclic.");
         }
@@ -55,9 +64,8 @@ class SemanticAnalyzer implements Type.Visitor<Void> {
      */
     @Override
     public Void visit(Type.Alkene alkene) {
-        analyzeGroup(alkene.group, ALKENE_BOND_ORDER);
-        Locants locants = alkene.group.locants;
-        enforceLowestSetRuleForLocants(locants.locants, reverseLocants(locants.locants));
+        int[] locants = analyzeGroup(alkene.group, ALKENE_BOND_ORDER);
+        enforceLowestSetRuleForLocants(locants, reverseLocants(locants));
         return null;
     }
 
@@ -66,9 +74,8 @@ class SemanticAnalyzer implements Type.Visitor<Void> {
      */
     @Override
     public Void visit(Type.Alkyne alkyne) {
-        analyzeGroup(alkyne.group, ALKYNE_BOND_ORDER);
-        Locants locants = alkyne.group.locants;
-        enforceLowestSetRuleForLocants(locants.locants, reverseLocants(locants.locants));
+        int[] locants = analyzeGroup(alkyne.group, ALKYNE_BOND_ORDER);
+        enforceLowestSetRuleForLocants(locants, reverseLocants(locants));
         return null;
     }
 
@@ -77,28 +84,24 @@ class SemanticAnalyzer implements Type.Visitor<Void> {
      */
     @Override
     public Void visit(Type.Enyne enyne) {
-        Group alkeneGroup = enyne.alkene.group;
-        Group alkyneGroup = enyne.alkyne.group;
-        analyzeGroup(alkeneGroup, ALKENE_BOND_ORDER);
-        analyzeGroup(alkyneGroup, ALKYNE_BOND_ORDER);
-        analyzeLocantsInEnyne(alkeneGroup.locants, alkyneGroup.locants);
+        int[] alkeneLocants = analyzeGroup(enyne.alkene.group, ALKENE_BOND_ORDER);
+        int[] alkyneLocants = analyzeGroup(enyne.alkyne.group, ALKYNE_BOND_ORDER);
+        analyzeLocantsInEnyne(alkeneLocants, alkyneLocants);
         return null;
     }
 
-    private void analyzeLocantsInEnyne(Locants alkeneLocants, Locants alkyneLocants) {
-        // Combine locants together
-        List<Integer> locants = new ArrayList<>(alkeneLocants.locants);
-        locants.addAll(alkyneLocants.locants);
-        locants = locants.stream().sorted().toList();
+    private void analyzeLocantsInEnyne(int[] alkeneLocants, int[] alkyneLocants) {
+        // Combine locants together, both groups are already sorted
+        int[] locants = merge(alkeneLocants, alkyneLocants);
 
-        List<Integer> reversedLocants = reverseLocants(locants);
-        if (reversedLocants.equals(locants)) {
+        int[] reversedLocants = reverseLocants(locants);
+        if (Arrays.equals(reversedLocants, locants)) {
             // It's a tie, ensure double bonds have the lowest locants (alkenes)
-            int minLocant = locants.getFirst();
-            boolean original_is_alkyne = alkyneLocants.locants.contains(minLocant);
+            int minLocant = locants[0];
+            boolean original_is_alkyne = Arrays.binarySearch(alkyneLocants, minLocant) >= 0;
 
             int reversedOriginalLocant = carbonCount - minLocant;
-            boolean reversed_is_alkene = alkeneLocants.locants.contains(reversedOriginalLocant);
+            boolean reversed_is_alkene = Arrays.binarySearch(alkeneLocants, reversedOriginalLocant) >= 0;
 
             if (original_is_alkyne && reversed_is_alkene) {
                 throw new SemanticAnalyzerException(
@@ -112,60 +115,93 @@ class SemanticAnalyzer implements Type.Visitor<Void> {
         enforceLowestSetRuleForLocants(locants, reversedLocants);
     }
 
-    private void analyzeGroup(Group group, int bondOrder) {
-        analyzeLocants(group.locants, bondOrder);
+    private int[] analyzeGroup(Group group, int bondOrder) {
+        int[] locants = analyzeLocants(group.locants, bondOrder);
         if (Objects.nonNull(group.multiplyingAffix)) {
-            analyzeMultiplyingAffix(group.multiplyingAffix, group.locants.locants.size());
+            analyzeMultiplyingAffix(group.multiplyingAffix, locants.length);
         }
+        return locants;
     }
 
-    private void analyzeLocants(Locants locants, int bondOrder) {
+    /**
+     * Validates the locants of a group and returns them as a sorted array.
+     */
+    private int[] analyzeLocants(Locants locants, int bondOrder) {
         if (carbonCount < 2) {
             throw new SemanticAnalyzerException("Can't specify locants for a carbon count less than 2");
         }
-        if (!locants.locants.stream().sorted().toList().equals(locants.locants)) {
-            throw new SemanticAnalyzerException("Locants must be in order of increasing value");
+        List<Integer> values = locants.locants;
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+            if (i > 0 && result[i] < result[i - 1]) {
+                throw new SemanticAnalyzerException("Locants must be in order of increasing value");
+            }
         }
 
-        Set<Integer> seenLocants = new HashSet<>();
-        for (int i : locants.locants) {
-            if (i < 1 || i > carbonCount - 1) {
+        for (int i = 0; i < result.length; i++) {
+            int locant = result[i];
+            if (locant < 1 || locant > carbonCount - 1) {
                 throw new SemanticAnalyzerException(
-                        String.format("Invalid locant value %d, must be in range (0, %d)", i, carbonCount)
+                        String.format("Invalid locant value %d, must be in range (0, %d)", locant, carbonCount)
                 );
             }
-            if (seenLocants.contains(i)) {
-                throw new SemanticAnalyzerException(String.format("Locant %d has already been specified", i));
+            // Locants are sorted, so a duplicate can only be the previous locant
+            if (i > 0 && locant == result[i - 1]) {
+                throw new SemanticAnalyzerException(String.format("Locant %d has already been specified", locant));
             }
-            seenLocants.add(i);
-            updateValency(i, bondOrder);
-            updateValency(i + 1, bondOrder);
+            updateValency(locant, bondOrder);
+            updateValency(locant + 1, bondOrder);
         }
+        return result;
     }
 
     private void updateValency(int carbon, int bondOrder) {
-        carbonValencies.putIfAbsent(carbon, ChemicalElement.Carbon.normalValence());
-        carbonValencies.compute(carbon, (k, v) -> (v - bondOrder));
-        if (carbonValencies.get(carbon) < 0) {
+        if (Objects.isNull(usedValencies)) {
+            usedValencies = new int[carbonCount + 1];
+        }
+        usedValencies[carbon] += bondOrder;
+        if (usedValencies[carbon] > ChemicalElement.Carbon.normalValence()) {
             throw new SemanticAnalyzerException(
                     String.format("Carbon #%d has exceeded available valency", carbon)
             );
         }
     }
 
-    private void enforceLowestSetRuleForLocants(List<Integer> locants, List<Integer> reversedLocants) {
-        for (int i = 0; i < reversedLocants.size(); i++) {
-            int cmp = Integer.compare(reversedLocants.get(i), locants.get(i));
+    private void enforceLowestSetRuleForLocants(int[] locants, int[] reversedLocants) {
+        for (int i = 0; i < reversedLocants.length; i++) {
+            int cmp = Integer.compare(reversedLocants[i], locants[i]);
             if (cmp < 0) {
                 throw new SemanticAnalyzerException(
-                        String.format("Lowest set of locants rule violated, %s could be %s", locants, reversedLocants)
+                        String.format(
+                                "Lowest set of locants rule violated, %s could be %s",
+                                Arrays.toString(locants), Arrays.toString(reversedLocants)
+                        )
                 );
             }
         }
     }
 
-    private List<Integer> reverseLocants(List<Integer> locants) {
-        return locants.stream().map(locant -> carbonCount - locant).sorted().toList();
+    /**
+     * Numbers sorted locants from the other end of the chain, the result is sorted as well.
+     */
+    private int[] reverseLocants(int[] locants) {
+        int[] reversed = new int[locants.length];
+        for (int i = 0; i < locants.length; i++) {
+            reversed[i] = carbonCount - locants[locants.length - 1 - i];
+        }
+        return reversed;
+    }
+
+    private static int[] merge(int[] first, int[] second) {
+        int[] merged = new int[first.length + second.length];
+        int i = 0, j = 0, k = 0;
+        while (i < first.length && j < second.length) {
+            merged[k++] = first[i] <= second[j] ? first[i++] : second[j++];
+        }
+        while (i < first.length) merged[k++] = first[i++];
+        while (j < second.length) merged[k++] = second[j++];
+        return merged;
     }
 
     private void analyzeMultiplyingAffix(MultiplyingAffix multiplyingAffix, int locantsCount) {
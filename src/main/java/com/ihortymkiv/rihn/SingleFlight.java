@@ -0,0 +1,76 @@
+package com.ihortymkiv.rihn;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key.
+ * <p>
+ * The first caller for a key runs the computation, callers arriving while it is in flight wait for it
+ * and get the same result, or the same exception. Nothing is cached, once the computation finishes
+ * the next caller for the key runs it again.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code computation} for {@code key}, unless it is already running, in which case waits for its result.
+     *
+     * @param key key identifying the computation
+     * @param computation computation to run if none is in flight
+     * @param onWait receives the nanoseconds spent waiting for another caller's computation, may be {@code null}
+     * @return result of the computation
+     */
+    public V run(K key, Supplier<V> computation, LongConsumer onWait) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (Objects.nonNull(existing)) {
+            long start = System.nanoTime();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            } finally {
+                if (Objects.nonNull(onWait)) {
+                    onWait.accept(System.nanoTime() - start);
+                }
+            }
+        }
+
+        try {
+            V result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Returns the number of keys being computed.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ihortymkiv.rihn;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Lightweight per-request record of how long each stage of the pipeline took.
+ * <p>
+ * The {@link Rihn} facade populates the compiler stages, callers (e.g. the web layer) may add
+ * their own ones such as serialization and rendering. A stage that runs more than once accumulates its durations.
+ * <p>
+ * Not thread-safe, an instance is meant to be confined to a single request.
+ */
+public final class StageTimings {
+    /**
+     * Stages in the order they appear in the {@code Server-Timing} header.
+     */
+    public enum Stage {
+        STORE("store"),
+        COALESCE("coalesce"),
+        LEX("lex"),
+        PARSE("parse"),
+        ANALYZE("analyze"),
+        GENERATE("generate"),
+        SERIALIZE("serialize"),
+        RENDER("render");
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return this.metricName;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long[] nanos = new long[STAGES.length];
+    private final boolean[] recorded = new boolean[STAGES.length];
+
+    /**
+     * Adds a duration to a stage.
+     *
+     * @param stage stage to add the duration to
+     * @param durationNanos duration in nanoseconds
+     */
+    public void record(Stage stage, long durationNanos) {
+        Objects.requireNonNull(stage, "Stage cannot be null.");
+        this.nanos[stage.ordinal()] += durationNanos;
+        this.recorded[stage.ordinal()] = true;
+    }
+
+    /**
+     * Runs {@code body} and records its duration under {@code stage}, even if it throws.
+     *
+     * @param stage stage to record
+     * @param body the work of the stage
+     * @return the result of {@code body}
+     */
+    public <T> T time(Stage stage, Supplier<T> body) {
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the accumulated duration of a stage.
+     *
+     * @param stage stage to look up
+     * @return duration in nanoseconds, {@code 0} if the stage has not been recorded
+     */
+    public long nanos(Stage stage) {
+        return this.nanos[stage.ordinal()];
+    }
+
+    public boolean isRecorded(Stage stage) {
+        return this.recorded[stage.ordinal()];
+    }
+
+    /**
+     * Formats the recorded stages as a {@code Server-Timing} header value,
+     * e.g. {@code lex;dur=0.012, parse;dur=0.034}. Durations are in milliseconds.
+     *
+     * @return header value, empty if nothing has been recorded
+     */
+    public String toServerTiming() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Stage stage : STAGES) {
+            if (recorded[stage.ordinal()]) {
+                joiner.add(metric(stage.metricName, nanos[stage.ordinal()]));
+            }
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Formats a single {@code Server-Timing} metric.
+     *
+     * @param name metric name
+     * @param durationNanos duration in nanoseconds
+     * @return metric such as {@code total;dur=1.250}
+     */
+    public static String metric(String name, long durationNanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.3f", name, durationNanos / 1_000_000.0);
+    }
+}
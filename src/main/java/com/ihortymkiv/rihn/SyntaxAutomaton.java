@@ -0,0 +1,423 @@
+package com.ihortymkiv.rihn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Deterministic finite automaton accepting exactly the names the {@link Lexer} and {@link Parser} accept together.
+ * <p>
+ * It tells a syntactically valid name from an invalid one in a single pass over its characters, without
+ * allocating, so garbage can be turned away before any token is scanned. Letters are folded to lower case
+ * like the {@link Lexer} does.
+ * <p>
+ * The automaton is built once from {@link Keywords}. Every word of a valid name is a keyword followed by
+ * a suffix, and the parser always takes the longest keyword, so the words allowed at each point of a name form
+ * a finite set: the words whose longest keyword leaves the expected suffix. Each set is added to a trie that
+ * is minimized while it is built, which collapses the compositional numerical terms into a few thousand states.
+ * Locants are followed digit by digit, including the comparison with {@link Integer#MAX_VALUE} that decides
+ * whether a ten digit locant is too large.
+ * <p>
+ * Transitions are stored in a comb compressed table: the transition of {@code state} on character class
+ * {@code c} is {@code next[base[state] + c]} if {@code check[base[state] + c] == state}, and there is none otherwise.
+ */
+final class SyntaxAutomaton {
+    private static final int LETTERS = 0;
+    private static final int DIGITS = 26;
+    private static final int HYPHEN = 36;
+    private static final int COMMA = 37;
+    private static final int CLASSES = 38;
+
+    private static final int NONE = -1;
+
+    private static final int START;
+    private static final int[] BASE;
+    private static final int[] NEXT;
+    private static final int[] CHECK;
+    private static final boolean[] ACCEPTING;
+
+    static {
+        Builder builder = new Builder();
+        START = builder.build();
+        int[] base = new int[builder.rows.size()];
+        int length = builder.pack(base);
+        BASE = base;
+        NEXT = Arrays.copyOf(builder.next, length);
+        CHECK = Arrays.copyOf(builder.check, length);
+        ACCEPTING = new boolean[base.length];
+        builder.accepting.stream().forEach(state -> ACCEPTING[state] = true);
+    }
+
+    /**
+     * Classifies a name without allocating.
+     *
+     * @param name hydrocarbon name
+     * @return whether the {@link Lexer} and {@link Parser} accept the name
+     */
+    static boolean accepts(CharSequence name) {
+        int state = START;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            int c = classOf(name.charAt(i));
+            if (c < 0) {
+                return false;
+            }
+            int slot = BASE[state] + c;
+            if (CHECK[slot] != state) {
+                return false;
+            }
+            state = NEXT[slot];
+        }
+        return ACCEPTING[state];
+    }
+
+    /**
+     * Throws the exception the front end throws for a name the automaton rejects, and does nothing for
+     * a name it accepts.
+     * <p>
+     * The {@link Lexer} fails on the first character no token starts with, wherever the syntax error is,
+     * so such a name is rejected without scanning tokens. Only names made of valid tokens go through the
+     * front end to find the syntax error.
+     *
+     * @param name hydrocarbon name
+     * @throws LexerException if the name contains an unexpected character.
+     * @throws ParserException if the name violates the grammar's syntax.
+     */
+    static void requireWellFormed(CharSequence name) {
+        if (accepts(name)) {
+            return;
+        }
+        for (int i = 0, length = name.length(); i < length; i++) {
+            char c = name.charAt(i);
+            boolean digitBefore = i > 0 && name.charAt(i - 1) >= '0' && name.charAt(i - 1) <= '9';
+            if (classOf(c) < 0 || c == '0' && !digitBefore) {
+                throw new LexerException("Unexpected character", String.valueOf(c), i);
+            }
+        }
+        new FusedParser(name).parse();
+    }
+
+    private static int classOf(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return LETTERS + c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return LETTERS + c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return DIGITS + c - '0';
+        }
+        return c == '-' ? HYPHEN : c == ',' ? COMMA : -1;
+    }
+
+    /**
+     * What a word allows after its last letter.
+     *
+     * @param hyphen state after a hyphen following the word, {@link #NONE} if the word can't be followed by one
+     * @param accepting whether the word can end the name
+     */
+    private record Label(int hyphen, boolean accepting) {
+        Label merge(Label other) {
+            if (hyphen != NONE && other.hyphen != NONE && hyphen != other.hyphen) {
+                throw new IllegalStateException("A word cannot be followed by two different groups.");
+            }
+            return new Label(hyphen != NONE ? hyphen : other.hyphen, accepting || other.accepting);
+        }
+    }
+
+    /**
+     * Transitions and acceptance of a state, equal for states that accept the same rest of a name.
+     */
+    private record State(int[] row, boolean accepting) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof State other && accepting == other.accepting && Arrays.equals(row, other.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(row) + Boolean.hashCode(accepting);
+        }
+    }
+
+    /**
+     * Builds the states from the end of a name back to its start, so that every trie is built after the
+     * states its words lead to.
+     */
+    private static final class Builder {
+        private static final String MAX_LOCANT = Integer.toString(Integer.MAX_VALUE);
+        private static final int LESS = 0;
+        private static final int EQUAL = 1;
+        private static final int GREATER = 2;
+
+        private final List<int[]> rows = new ArrayList<>();
+        private final BitSet accepting = new BitSet();
+        /** Minimized states by their transitions and acceptance. */
+        private final Map<State, Integer> register = new HashMap<>();
+
+        private int[] next = new int[0];
+        private int[] check = new int[0];
+
+        int build() {
+            Set<String> stems = Keywords.STEMS.keySet();
+            Set<String> affixes = Keywords.MULTIPLYING_AFFIXES.keySet();
+            Label end = new Label(NONE, true);
+
+            // The alkyne of an enyne, with or without an affix
+            Map<String, Label> enyneWords = new TreeMap<>();
+            for (String affix : affixes) {
+                if (isLongest(affixes, affix, "yn")) {
+                    enyneWords.merge(affix + "yne", end, Label::merge);
+                }
+            }
+            if (isLongest(affixes, "", "yn")) {
+                enyneWords.merge("yne", end, Label::merge);
+            }
+            int enyneLocants = locants(words(enyneWords), true);
+
+            // The suffix after a single locant, or the affix and the suffix after a list of locants
+            Label enyne = new Label(enyneLocants, false);
+            Map<String, Label> simpleWords = new TreeMap<>(Map.of("ene", end, "yne", end, "en", enyne));
+            Map<String, Label> complexWords = new TreeMap<>();
+            for (String affix : affixes) {
+                if (isLongest(affixes, affix, "en")) {
+                    complexWords.merge(affix + "ene", end, Label::merge);
+                    complexWords.merge(affix + "en", enyne, Label::merge);
+                }
+                if (isLongest(affixes, affix, "yn")) {
+                    complexWords.merge(affix + "yne", end, Label::merge);
+                }
+            }
+            Label simple = new Label(locants(words(simpleWords), false), false);
+            Label complex = new Label(locants(words(complexWords), true), false);
+
+            // The stem, followed by a single locant, the connector and a list of locants, or the alkane suffix
+            Map<String, Label> stemWords = new TreeMap<>();
+            for (String stem : stems) {
+                stemWords.merge(stem, simple, Label::merge);
+                if (isLongest(stems, stem, "a")) {
+                    stemWords.merge(stem + "a", complex, Label::merge);
+                }
+                if (isLongest(stems, stem, "an")) {
+                    stemWords.merge(stem + "ane", end, Label::merge);
+                }
+            }
+            int stem = words(stemWords);
+
+            // "cyclo" always starts a token of its own, so no stem may start with its "c"
+            int[] start = rows.get(stem).clone();
+            if (start[LETTERS + 'c' - 'a'] != NONE) {
+                throw new IllegalStateException("A stem starts with \"c\".");
+            }
+            int cyclo = stem;
+            for (int i = "cyclo".length() - 1; i > 0; i--) {
+                cyclo = register(transition("cyclo".charAt(i), cyclo), false);
+            }
+            start[LETTERS + 'c' - 'a'] = cyclo;
+            return register(start, false);
+        }
+
+        /**
+         * Adds a minimized trie of words in lexicographic order, minimizing the path of the previous word
+         * as soon as the next word leaves it.
+         *
+         * @return the root of the trie
+         */
+        private int words(Map<String, Label> words) {
+            List<int[]> path = new ArrayList<>();
+            List<Label> labels = new ArrayList<>();
+            path.add(empty());
+            labels.add(new Label(NONE, false));
+
+            String previous = "";
+            for (Map.Entry<String, Label> entry : words.entrySet()) {
+                String word = entry.getKey();
+                int common = 0;
+                while (common < Math.min(previous.length(), word.length())
+                        && previous.charAt(common) == word.charAt(common)) {
+                    common++;
+                }
+                minimize(path, labels, previous, common);
+                for (int depth = common; depth < word.length(); depth++) {
+                    path.add(empty());
+                    labels.add(new Label(NONE, false));
+                }
+                labels.set(word.length(), labels.get(word.length()).merge(entry.getValue()));
+                previous = word;
+            }
+            minimize(path, labels, previous, 0);
+            return register(path.get(0), labels.get(0));
+        }
+
+        /**
+         * Replaces the states of {@code word} deeper than {@code depth} by their minimized equivalents.
+         */
+        private void minimize(List<int[]> path, List<Label> labels, String word, int depth) {
+            for (int i = word.length(); i > depth; i--) {
+                int state = register(path.remove(i), labels.remove(i));
+                path.get(i - 1)[LETTERS + word.charAt(i - 1) - 'a'] = state;
+            }
+        }
+
+        /**
+         * Adds the states reading locants, the leading hyphen already read.
+         *
+         * @param after state after the hyphen closing the locants
+         * @param list whether more than one locant is allowed
+         * @return the state before the first digit
+         */
+        private int locants(int after, boolean list) {
+            int first = rows.size();
+            int digits = MAX_LOCANT.length();
+            for (int i = 0; i <= digits * 3; i++) {
+                rows.add(empty());
+            }
+
+            for (int d = 1; d <= 9; d++) {
+                rows.get(first)[DIGITS + d] = first + 1 + compare(d, 0);
+            }
+            // State first + 1 + (length - 1) * 3 + comparison read a locant of that length,
+            // whose digits compare to the same number of leading digits of the maximum
+            for (int length = 1; length <= digits; length++) {
+                for (int comparison = LESS; comparison <= GREATER; comparison++) {
+                    int[] row = rows.get(first + 1 + (length - 1) * 3 + comparison);
+                    if (length < digits) {
+                        for (int d = 0; d <= 9; d++) {
+                            int nextComparison = comparison == EQUAL ? compare(d, length) : comparison;
+                            row[DIGITS + d] = first + 1 + length * 3 + nextComparison;
+                        }
+                    }
+                    if (length < digits || comparison != GREATER) {
+                        row[HYPHEN] = after;
+                        if (list) {
+                            row[COMMA] = first;
+                        }
+                    }
+                }
+            }
+            return first;
+        }
+
+        private static int compare(int digit, int index) {
+            return Integer.signum(Integer.compare(digit, MAX_LOCANT.charAt(index) - '0')) + 1;
+        }
+
+        private int register(int[] row, Label label) {
+            if (label.hyphen != NONE) {
+                row[HYPHEN] = label.hyphen;
+            }
+            return register(row, label.accepting);
+        }
+
+        private int register(int[] row, boolean accepting) {
+            return register.computeIfAbsent(new State(row, accepting), k -> {
+                rows.add(row);
+                if (accepting) {
+                    this.accepting.set(rows.size() - 1);
+                }
+                return rows.size() - 1;
+            });
+        }
+
+        private static int[] transition(char letter, int target) {
+            int[] row = empty();
+            row[LETTERS + letter - 'a'] = target;
+            return row;
+        }
+
+        private static int[] empty() {
+            int[] row = new int[CLASSES];
+            Arrays.fill(row, NONE);
+            return row;
+        }
+
+        /**
+         * Whether the parser takes {@code keyword} as the longest keyword of the word {@code keyword + suffix},
+         * that is, no keyword continues into the suffix.
+         */
+        private static boolean isLongest(Set<String> keywords, String keyword, String suffix) {
+            for (int i = 1; i <= suffix.length(); i++) {
+                if (keywords.contains(keyword + suffix.substring(0, i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Places the rows into {@link #next} and {@link #check}, the fullest rows first, each at the lowest base
+         * where its transitions land on free slots.
+         *
+         * @param base filled with the base of every state
+         * @return number of slots used, including the slots past the last base that lookups may touch
+         */
+        int pack(int[] base) {
+            Integer[] order = new Integer[rows.size()];
+            for (int state = 0; state < order.length; state++) {
+                order[state] = state;
+            }
+            Arrays.sort(order, Comparator.comparingInt(state -> -transitions(rows.get(state))));
+
+            next = new int[1024];
+            check = new int[1024];
+            Arrays.fill(check, NONE);
+            int firstFree = 0;
+            int length = 0;
+            for (int state : order) {
+                int[] row = rows.get(state);
+                int b = firstFree;
+                while (!fits(row, b)) {
+                    b++;
+                }
+                ensureCapacity(b + CLASSES);
+                for (int c = 0; c < CLASSES; c++) {
+                    if (row[c] != NONE) {
+                        next[b + c] = row[c];
+                        check[b + c] = state;
+                    }
+                }
+                base[state] = b;
+                length = Math.max(length, b + CLASSES);
+                while (firstFree < check.length && check[firstFree] != NONE) {
+                    firstFree++;
+                }
+            }
+            return length;
+        }
+
+        private boolean fits(int[] row, int b) {
+            for (int c = 0; c < CLASSES; c++) {
+                if (row[c] != NONE && b + c < check.length && check[b + c] != NONE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > check.length) {
+                int length = check.length;
+                next = Arrays.copyOf(next, Math.max(capacity, length * 2));
+                check = Arrays.copyOf(check, next.length);
+                Arrays.fill(check, length, check.length, NONE);
+            }
+        }
+
+        private static int transitions(int[] row) {
+            int count = 0;
+            for (int target : row) {
+                if (target != NONE) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private SyntaxAutomaton() {}
+}
@@ -5,12 +5,12 @@ package com.ihortymkiv.rihn;
  */
 enum TokenType {
     // Single character tokens
-    DIGIT,
     HYPHEN,
     COMMA,
     ENDING, // "e"
 
     // Multiple character tokens
+    DIGIT, // one or more digits, e.g. "12"
     CYCLO, WORD,
 
     EOF
@@ -0,0 +1,35 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.InputLimits;
+import com.ihortymkiv.rihn.Rihn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Load shedding for the web tier: the {@link InputLimits} handlers pass to {@link Rihn} and the
+ * {@link AdmissionControl} they run the pipeline under, see {@code rihn.input.*} and {@code rihn.admission.*}
+ * in {@code application.properties}.
+ */
+@Configuration
+class AdmissionConfiguration {
+
+    @Bean
+    InputLimits inputLimits(@Value("${rihn.input.max-length:1024}") int maxInputLength,
+                            @Value("${rihn.input.max-carbons:1000}") int maxCarbons) {
+        return new InputLimits(maxInputLength, maxCarbons);
+    }
+
+    @Bean
+    AdmissionControl admissionControl(
+            @Value("${rihn.admission.max-concurrent:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+            int maxConcurrent,
+            @Value("${rihn.admission.max-queued:64}") int maxQueued,
+            @Value("${rihn.admission.queue-timeout:500ms}") Duration queueTimeout,
+            @Value("${rihn.admission.retry-after:1s}") Duration retryAfter
+    ) {
+        return new AdmissionControl(maxConcurrent, maxQueued, queueTimeout, retryAfter);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.PipelineAdmission;
+import com.ihortymkiv.rihn.Rihn;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of pipeline executions at once.<p>
+ *
+ * Up to {@code maxConcurrent} callers are admitted, up to {@code maxQueued} more wait in arrival order
+ * for at most {@code queueTimeout}, and everything beyond that is rejected immediately. Rejecting early keeps
+ * the latency of admitted requests flat instead of letting every request slow down under a spike.<p>
+ *
+ * Handlers pass it to {@link Rihn}, which takes a permit with {@link #run(Supplier)} around the run of the pipeline
+ * only. Answers that need no run, such as 304s, cache and store hits and callers sharing another caller's run
+ * of the same name, as well as the writing of responses to slow clients, don't hold one, so a burst of requests
+ * for one name takes a single permit.
+ */
+final class AdmissionControl implements PipelineAdmission {
+    /**
+     * Admits every caller at once.
+     */
+    static final AdmissionControl NONE = new AdmissionControl(Integer.MAX_VALUE, 0, Duration.ZERO, Duration.ZERO);
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final Duration retryAfter;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * @param retryAfter how long rejected callers are told to wait before retrying
+     */
+    AdmissionControl(int maxConcurrent, int maxQueued, Duration queueTimeout, Duration retryAfter) {
+        if (maxConcurrent < 1 || maxQueued < 0 || queueTimeout.isNegative() || retryAfter.isNegative()) {
+            throw new IllegalArgumentException("Invalid admission limits.");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Runs {@code pipeline} once admitted, holding a permit until it returns.
+     *
+     * @param pipeline call into the pipeline
+     * @return result of the call
+     * @throws ServerBusyException if the caller was not admitted
+     */
+    @Override
+    public <T> T run(Supplier<T> pipeline) {
+        if (!tryAdmit()) {
+            throw new ServerBusyException(retryAfter);
+        }
+        try {
+            return pipeline.get();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Admits the caller, waiting in the queue if all permits are taken.
+     * A caller that was admitted must call {@link #release()} once it is done.
+     *
+     * @return {@code false} if the queue is full or the wait timed out
+     */
+    boolean tryAdmit() {
+        try {
+            // Unlike the untimed tryAcquire(), a timed one doesn't barge ahead of callers already waiting
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return false;
+            }
+            try {
+                return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    /**
+     * Returns whether a caller is blocked waiting for a permit.
+     */
+    boolean hasWaiters() {
+        return permits.hasQueuedThreads();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.CarbonSkeleton;
+import com.ihortymkiv.rihn.InputLimits;
+import com.ihortymkiv.rihn.Rihn;
+import com.ihortymkiv.rihn.StageTimings;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON API exposing the compound graph in the same {@code nodes}/{@code links} format the web page uses,
+ * and an SVG rendering of it for embedding.
+ * <p>
+ * Successful responses are cacheable and carry an entity tag from {@link CompoundETag},
+ * a matching {@code If-None-Match} is answered with 304 before the pipeline runs.
+ * {@code If-None-Match: *} is answered with 304 only once the name turned out to be valid.
+ * <p>
+ * The pipeline runs under {@link AdmissionControl}, callers that are not admitted get a 503 with {@code Retry-After}.
+ */
+@RestController
+@RequestMapping(path = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
+class CompoundApiController {
+    private static final MediaType SVG = MediaType.valueOf("image/svg+xml");
+
+    private final CompoundSvgCache svgCache;
+    private final CacheControl cacheControl;
+    private final InputLimits limits;
+    private final AdmissionControl admissionControl;
+
+    CompoundApiController(@Value("${rihn.svg.cache-size:1024}") int svgCacheSize, CacheControl compoundCacheControl,
+                          InputLimits limits, AdmissionControl admissionControl) {
+        this.svgCache = new CompoundSvgCache(svgCacheSize, limits, admissionControl);
+        this.cacheControl = compoundCacheControl;
+        this.limits = limits;
+        this.admissionControl = admissionControl;
+    }
+
+    @GetMapping("/compound")
+    ResponseEntity<String> compound(
+            @RequestParam(name = "name") String name,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestAttribute(name = ServerTimingFilter.ATTRIBUTE, required = false) StageTimings timings
+    ) {
+        String eTag = CompoundETag.of("json", Rihn.normalize(name));
+        if (CompoundETag.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        StageTimings stageTimings = timings == null ? new StageTimings() : timings;
+        try {
+            CarbonSkeleton skeleton = Rihn.getSkeleton(Rihn.normalize(name), limits, admissionControl, stageTimings);
+            String json = stageTimings.time(
+                    StageTimings.Stage.SERIALIZE, () -> CompoundJSONGenerator.generate(skeleton)
+            );
+            if (CompoundETag.matchesAny(ifNoneMatch)) {
+                return notModified(eTag);
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(json);
+        } catch (ServerBusyException e) {
+            return busy(e).body(new JSONObject().put("error", e.getMessage()).toString());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new JSONObject().put("error", e.getMessage()).toString());
+        }
+    }
+
+    @GetMapping(path = "/compound.svg", produces = "image/svg+xml")
+    ResponseEntity<byte[]> compoundSvg(
+            @RequestParam(name = "name") String name,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestAttribute(name = ServerTimingFilter.ATTRIBUTE, required = false) StageTimings timings
+    ) {
+        String eTag = CompoundETag.of("svg", Rihn.normalize(name));
+        if (CompoundETag.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        CompoundSvgCache.Svg svg;
+        try {
+            svg = svgCache.get(name, timings);
+        } catch (ServerBusyException e) {
+            return busy(e)
+                    .body(new JSONObject().put("error", e.getMessage()).toString().getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new JSONObject().put("error", e.getMessage()).toString().getBytes(StandardCharsets.UTF_8));
+        }
+        if (CompoundETag.matchesAny(ifNoneMatch)) {
+            return notModified(svg.eTag());
+        }
+        return ResponseEntity.ok().contentType(SVG).eTag(svg.eTag()).cacheControl(cacheControl).body(svg.bytes());
+    }
+
+    private static ResponseEntity.BodyBuilder busy(ServerBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, e.retryAfter())
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.Rihn;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Entity tags for compound responses.<p>
+ *
+ * A response for a name is a pure function of the normalized name and the library version,
+ * so the tag is derived from those alone and can be compared against {@code If-None-Match}
+ * before the pipeline runs. {@code If-None-Match: *} is the exception: it matches only if the name has
+ * a representation at all, which is known once the pipeline has succeeded, see {@link #matchesAny(String)}.
+ */
+public final class CompoundETag {
+
+    /**
+     * Returns the strong entity tag of a representation of a compound.
+     *
+     * @param representation kind of response, e.g. {@code "json"}, so different representations get different tags
+     * @param name hydrocarbon name, normalized with {@link Rihn#normalize(String)} unless the response echoes it
+     * @return quoted entity tag
+     */
+    public static String of(String representation, String name) {
+        String key = Rihn.version() + '\0' + representation + '\0' + name;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return '"' + HexFormat.of().formatHex(digest, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against an entity tag using weak comparison, as RFC 9110 requires.
+     * A {@code *} is not taken as a match, as it can't be told before the pipeline runs.
+     *
+     * @param ifNoneMatch header value, may be {@code null}
+     * @param eTag quoted entity tag
+     * @return {@code true} if the client's copy is current
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (Objects.isNull(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an {@code If-None-Match} header is {@code *}, which matches any current representation.
+     * Only to be consulted once the response would be successful.
+     *
+     * @param ifNoneMatch header value, may be {@code null}
+     * @return {@code true} if the header lists {@code *}
+     */
+    public static boolean matchesAny(String ifNoneMatch) {
+        if (Objects.isNull(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (candidate.strip().equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompoundETag() {}
+}
@@ -1,7 +1,9 @@
 package com.ihortymkiv.web;
 
 import com.ihortymkiv.chemistry.Atom;
+import com.ihortymkiv.chemistry.ChemicalElement;
 import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.rihn.CarbonSkeleton;
 import org.json.JSONObject;
 
 import java.util.*;
@@ -9,34 +11,165 @@ import java.util.*;
 
 public final class CompoundJSONGenerator {
     /**
-     * Generate JSON from Compound.
+     * Generate JSON from Compound, including the coordinates of every atom computed by {@link CompoundLayout}.
+     * Atoms are identified by their index in the compound plus one.
      * @param compound Compound
      * @return JSONObject
      */
     public static JSONObject generate(Compound compound) {
         Objects.requireNonNull(compound, "Compound must be non-null");
+        SerializeEvent event = new SerializeEvent();
+        event.begin();
+        try {
+            JSONObject jsonObject = generate(compound, event);
+            event.outcome = "success";
+            return jsonObject;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Generate the JSON {@link #generate(Compound)} produces for the compound a {@link CarbonSkeleton} describes,
+     * written straight from the skeleton in one pass, without building the compound graph.
+     * @param skeleton CarbonSkeleton
+     * @return JSON text
+     */
+    public static String generate(CarbonSkeleton skeleton) {
+        Objects.requireNonNull(skeleton, "CarbonSkeleton must be non-null");
+        SerializeEvent event = new SerializeEvent();
+        event.begin();
+        try {
+            String json = generate(skeleton, event);
+            event.outcome = "success";
+            return json;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private static JSONObject generate(Compound compound, SerializeEvent event) {
         List<JSONObject> nodes = new ArrayList<>();
         List<JSONObject> links = new ArrayList<>();
-        Set<Atom.Bond> bonds = new HashSet<>();
-        for (Atom atom : compound.getAtoms()) {
+        CompoundLayout layout = CompoundLayout.of(compound);
+        for (int i = 0; i < compound.atomCount(); i++) {
+            Atom atom = compound.atom(i);
             JSONObject node = new JSONObject();
-            node.put("id", atom.getId());
+            node.put("id", i + 1);
             node.put("symbol", atom.getChemicalElement().symbol());
-            bonds.addAll(atom.getBonds());
+            node.put("x", round(layout.x(i)));
+            node.put("y", round(layout.y(i)));
+            // Every bond is listed from both of its atoms, as the page expects
+            for (Atom.Bond bond : atom.getBonds()) {
+                JSONObject link = new JSONObject();
+                link.put("source", i + 1);
+                link.put("target", compound.indexOf(bond.to()) + 1);
+                link.put("value", bond.bondOrder());
+                links.add(link);
+            }
             nodes.add(node);
+            if (atom.getChemicalElement() == ChemicalElement.Carbon) {
+                event.stem++;
+            }
         }
-        for (Atom.Bond bond : bonds) {
-            JSONObject link = new JSONObject();
-            link.put("source", bond.from().getId());
-            link.put("target", bond.to().getId());
-            link.put("value", bond.bondOrder());
-            links.add(link);
-        }
+        event.atomCount = nodes.size();
         JSONObject jsonObject = new JSONObject();
         jsonObject.put("nodes", nodes);
         jsonObject.put("links", links);
+        jsonObject.put("width", round(layout.width()));
+        jsonObject.put("height", round(layout.height()));
         return jsonObject;
     }
 
+    /**
+     * Keys are written in the order {@link JSONObject#toString()} writes them, so that both generators
+     * produce the same text. Bonds are listed in the order the compound forms them: the carbon before,
+     * the carbon after, then the hydrogens, except for the first carbon of a ring, whose bond to the last
+     * carbon is formed after the one to the second carbon.
+     */
+    private static String generate(CarbonSkeleton skeleton, SerializeEvent event) {
+        CompoundLayout layout = CompoundLayout.of(skeleton);
+        int carbons = skeleton.carbons();
+        int atoms = skeleton.atomCount();
+        StringBuilder json = new StringBuilder(atoms * 80);
+
+        json.append("{\"nodes\":[");
+        for (int i = 0; i < atoms; i++) {
+            json.append(i == 0 ? "{\"symbol\":\"" : ",{\"symbol\":\"")
+                    .append(i < carbons ? ChemicalElement.Carbon.symbol() : ChemicalElement.Hydrogen.symbol());
+            appendNumber(json.append("\",\"x\":"), round(layout.x(i)));
+            appendNumber(json.append(",\"y\":"), round(layout.y(i)));
+            json.append(",\"id\":").append(i + 1).append('}');
+        }
+        appendNumber(json.append("],\"width\":"), round(layout.width()));
+
+        json.append(",\"links\":[");
+        for (int carbon = 0; carbon < carbons; carbon++) {
+            int previous = carbon > 0 ? carbon - 1 : carbons - 1;
+            int next = carbon < carbons - 1 ? carbon + 1 : 0;
+            boolean ringStart = carbon == 0 && skeleton.isCyclic();
+            if (ringStart) {
+                appendLink(json, carbon, next, skeleton.bondOrder(carbon));
+            }
+            if (skeleton.previousBondOrder(carbon) > 0) {
+                appendLink(json, carbon, previous, skeleton.previousBondOrder(carbon));
+            }
+            if (!ringStart && skeleton.bondOrder(carbon) > 0) {
+                appendLink(json, carbon, next, skeleton.bondOrder(carbon));
+            }
+            for (int h = 0; h < skeleton.hydrogens(carbon); h++) {
+                appendLink(json, carbon, skeleton.firstHydrogen(carbon) + h, 1);
+            }
+        }
+        for (int i = 0; i < carbons; i++) {
+            int carbon = skeleton.fillOrder(i);
+            for (int h = 0; h < skeleton.hydrogens(carbon); h++) {
+                appendLink(json, skeleton.firstHydrogen(carbon) + h, carbon, 1);
+            }
+        }
+        appendNumber(json.append("],\"height\":"), round(layout.height()));
+        json.append('}');
+
+        event.stem = carbons;
+        event.atomCount = atoms;
+        return json.toString();
+    }
+
+    private static void appendLink(StringBuilder json, int source, int target, int value) {
+        if (json.charAt(json.length() - 1) != '[') {
+            json.append(',');
+        }
+        json.append("{\"source\":").append(source + 1)
+                .append(",\"value\":").append(value)
+                .append(",\"target\":").append(target + 1).append('}');
+    }
+
+    /**
+     * Appends a number like {@link JSONObject#numberToString(Number)}, without trailing zeros after the point.
+     */
+    private static void appendNumber(StringBuilder json, double number) {
+        int start = json.length();
+        json.append(number);
+        if (json.indexOf(".", start) > start && json.indexOf("E", start) < 0) {
+            int end = json.length();
+            while (json.charAt(end - 1) == '0') end--;
+            if (json.charAt(end - 1) == '.') end--;
+            json.setLength(end);
+        }
+    }
+
+    /**
+     * Rounds a coordinate to one decimal place, which is plenty for drawing and keeps the JSON short.
+     */
+    private static double round(double coordinate) {
+        return Math.round(coordinate * 10) / 10.0;
+    }
+
     private CompoundJSONGenerator() {}
 }
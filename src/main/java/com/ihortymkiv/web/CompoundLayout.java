@@ -0,0 +1,349 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.chemistry.Atom;
+import com.ihortymkiv.chemistry.ChemicalElement;
+import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.rihn.CarbonSkeleton;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Deterministic 2D coordinates of the atoms of a {@link Compound}, so that clients only have to draw it.<p>
+ *
+ * The longest carbon chain is drawn as a zig-zag with 120° bond angles and a ring of carbons as a regular polygon.
+ * Every other atom is fanned out in the widest free angle around the atom it is bonded to,
+ * hydrogens with shorter bonds than carbons.<p>
+ *
+ * Atoms are referred to by their index in {@link Compound#atoms()}. Coordinates start at {@link #MARGIN},
+ * with the y axis pointing down as in SVG.
+ */
+public final class CompoundLayout {
+    static final double BOND_LENGTH = 30;
+    static final double HYDROGEN_BOND_LENGTH = 18;
+    static final double MARGIN = 15;
+
+    private static final Map<Compound, CompoundLayout> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final double[] x;
+    private final double[] y;
+    private final double width;
+    private final double height;
+
+    private CompoundLayout(double[] x, double[] y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the layout of a compound, computing it on first use.<p>
+     *
+     * Layouts of {@link Compound#isFrozen() frozen} compounds are cached for as long as the compound is reachable,
+     * a compound that can still change is laid out again on every call. The layout is computed outside the cache's
+     * lock, so a large compound doesn't hold up lookups of others, and two threads laying out the same compound
+     * at once both compute it but share the first result.
+     *
+     * @param compound Compound
+     * @return layout of the compound
+     */
+    public static CompoundLayout of(Compound compound) {
+        Objects.requireNonNull(compound, "Compound must be non-null");
+        if (!compound.isFrozen()) {
+            return compute(compound);
+        }
+        CompoundLayout layout = CACHE.get(compound);
+        if (Objects.nonNull(layout)) {
+            return layout;
+        }
+        layout = compute(compound);
+        CompoundLayout previous = CACHE.putIfAbsent(compound, layout);
+        return Objects.isNull(previous) ? layout : previous;
+    }
+
+    /**
+     * Returns the layout of the compound a {@link CarbonSkeleton} describes, with the same coordinates
+     * {@link #of(Compound)} computes for the generated compound, but worked out from the skeleton alone.
+     *
+     * @param skeleton CarbonSkeleton
+     * @return layout of the compound, atoms numbered like the skeleton
+     */
+    public static CompoundLayout of(CarbonSkeleton skeleton) {
+        Objects.requireNonNull(skeleton, "CarbonSkeleton must be non-null");
+        int carbons = skeleton.carbons();
+        double[] x = new double[skeleton.atomCount()];
+        double[] y = new double[skeleton.atomCount()];
+        for (int i = 0; i < carbons; i++) {
+            x[i] = backboneX(i, carbons, skeleton.isCyclic());
+            y[i] = backboneY(i, carbons, skeleton.isCyclic());
+        }
+
+        double[] angles = new double[2];
+        for (int carbon = 0; carbon < carbons; carbon++) {
+            int placed = 0;
+            if (skeleton.previousBondOrder(carbon) > 0) {
+                int previous = carbon > 0 ? carbon - 1 : carbons - 1;
+                angles[placed++] = Math.atan2(y[previous] - y[carbon], x[previous] - x[carbon]);
+            }
+            if (skeleton.bondOrder(carbon) > 0) {
+                int next = carbon < carbons - 1 ? carbon + 1 : 0;
+                angles[placed++] = Math.atan2(y[next] - y[carbon], x[next] - x[carbon]);
+            }
+            double[] fan = fanAngles(Arrays.copyOf(angles, placed), skeleton.hydrogens(carbon));
+            int hydrogen = skeleton.firstHydrogen(carbon);
+            for (double angle : fan) {
+                x[hydrogen] = x[carbon] + HYDROGEN_BOND_LENGTH * Math.cos(angle);
+                y[hydrogen] = y[carbon] + HYDROGEN_BOND_LENGTH * Math.sin(angle);
+                hydrogen++;
+            }
+        }
+        return normalized(x, y);
+    }
+
+    public int atomCount() {
+        return x.length;
+    }
+
+    public double x(int atom) {
+        return x[atom];
+    }
+
+    public double y(int atom) {
+        return y[atom];
+    }
+
+    public double width() {
+        return width;
+    }
+
+    public double height() {
+        return height;
+    }
+
+    private static CompoundLayout compute(Compound compound) {
+        List<Atom> atoms = compound.atoms();
+        int n = atoms.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        if (n == 0) {
+            return new CompoundLayout(x, y, 2 * MARGIN, 2 * MARGIN);
+        }
+
+        boolean[] placed = new boolean[n];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        List<Integer> ring = carbonRing(compound, atoms);
+        List<Integer> backbone = Objects.nonNull(ring) ? ring : longestCarbonPath(compound, atoms);
+        if (backbone.isEmpty()) {
+            backbone = List.of(0);
+        }
+        boolean isRing = Objects.nonNull(ring);
+        for (int i = 0; i < backbone.size(); i++) {
+            place(backbone.get(i), backboneX(i, backbone.size(), isRing), backboneY(i, backbone.size(), isRing),
+                    x, y, placed, queue);
+        }
+
+        while (!queue.isEmpty()) {
+            int parent = queue.remove();
+            fan(parent, compound, atoms, x, y, placed, queue);
+        }
+        // Atoms not connected to the backbone are left at the origin
+        return normalized(x, y);
+    }
+
+    /**
+     * A ring of carbons is drawn as a regular polygon starting at the top, a chain as a zig-zag.
+     */
+    private static double backboneX(int i, int size, boolean ring) {
+        if (ring) {
+            return ringRadius(size) * Math.cos(ringAngle(i, size));
+        }
+        return i * BOND_LENGTH * Math.cos(Math.PI / 6);
+    }
+
+    private static double backboneY(int i, int size, boolean ring) {
+        if (ring) {
+            return ringRadius(size) * Math.sin(ringAngle(i, size));
+        }
+        return i % 2 == 0 ? 0 : BOND_LENGTH * Math.sin(Math.PI / 6);
+    }
+
+    private static double ringRadius(int size) {
+        return BOND_LENGTH / (2 * Math.sin(Math.PI / size));
+    }
+
+    private static double ringAngle(int i, int size) {
+        return -Math.PI / 2 + 2 * Math.PI * i / size;
+    }
+
+    private static void place(int atom, double atomX, double atomY,
+                              double[] x, double[] y, boolean[] placed, ArrayDeque<Integer> queue) {
+        x[atom] = atomX;
+        y[atom] = atomY;
+        placed[atom] = true;
+        queue.add(atom);
+    }
+
+    /**
+     * Places the unplaced neighbours of {@code parent} evenly in the widest gap between its placed neighbours.
+     */
+    private static void fan(int parent, Compound compound, List<Atom> atoms,
+                            double[] x, double[] y, boolean[] placed, ArrayDeque<Integer> queue) {
+        List<Integer> unplaced = new ArrayList<>();
+        List<Double> angles = new ArrayList<>();
+        for (Atom.Bond bond : atoms.get(parent).getBonds()) {
+            int index = compound.indexOf(bond.to());
+            if (placed[index]) {
+                angles.add(Math.atan2(y[index] - y[parent], x[index] - x[parent]));
+            } else {
+                unplaced.add(index);
+            }
+        }
+        if (unplaced.isEmpty()) {
+            return;
+        }
+
+        double[] fan = fanAngles(angles.stream().mapToDouble(Double::doubleValue).toArray(), unplaced.size());
+        for (int i = 0; i < unplaced.size(); i++) {
+            int atom = unplaced.get(i);
+            double length = atoms.get(atom).getChemicalElement() == ChemicalElement.Hydrogen
+                    ? HYDROGEN_BOND_LENGTH
+                    : BOND_LENGTH;
+            place(atom, x[parent] + length * Math.cos(fan[i]), y[parent] + length * Math.sin(fan[i]),
+                    x, y, placed, queue);
+        }
+    }
+
+    /**
+     * Returns the angles of {@code count} atoms spread evenly in the widest gap between the given angles.
+     */
+    private static double[] fanAngles(double[] placedAngles, int count) {
+        // With no placed neighbours the atoms are spread over the whole circle, starting at angle 0
+        double gapStart = 0;
+        double gap = 2 * Math.PI;
+        int slots = count;
+        if (placedAngles.length > 0) {
+            double[] sorted = placedAngles.clone();
+            Arrays.sort(sorted);
+            gapStart = sorted[sorted.length - 1];
+            gap = sorted[0] + 2 * Math.PI - gapStart;
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i] - sorted[i - 1] > gap) {
+                    gapStart = sorted[i - 1];
+                    gap = sorted[i] - sorted[i - 1];
+                }
+            }
+            gapStart += gap / (count + 1);
+            slots = count + 1;
+        }
+
+        double[] angles = new double[count];
+        for (int i = 0; i < count; i++) {
+            angles[i] = gapStart + gap * i / slots;
+        }
+        return angles;
+    }
+
+    /**
+     * Returns the carbons in ring order if the carbons form a single ring, {@code null} otherwise.
+     */
+    private static List<Integer> carbonRing(Compound compound, List<Atom> atoms) {
+        int first = -1;
+        int carbons = 0;
+        for (int i = 0; i < atoms.size(); i++) {
+            if (isCarbon(atoms.get(i))) {
+                if (carbonNeighbours(atoms.get(i), compound).size() != 2) {
+                    return null;
+                }
+                first = first < 0 ? i : first;
+                carbons++;
+            }
+        }
+        if (carbons < 3) {
+            return null;
+        }
+        List<Integer> ring = new ArrayList<>(carbons);
+        int previous = -1;
+        int current = first;
+        do {
+            ring.add(current);
+            List<Integer> next = carbonNeighbours(atoms.get(current), compound);
+            int following = next.get(0) != previous ? next.get(0) : next.get(1);
+            previous = current;
+            current = following;
+        } while (current != first && ring.size() <= carbons);
+        return ring.size() == carbons ? ring : null;
+    }
+
+    /**
+     * Returns a longest path of carbons, found with two breadth-first searches,
+     * which is exact when the carbons form a tree.
+     * Hydrogens have a single bond, so the searches only reach carbons through carbons.
+     */
+    private static List<Integer> longestCarbonPath(Compound compound, List<Atom> atoms) {
+        int start = -1;
+        for (int i = 0; i < atoms.size() && start < 0; i++) {
+            if (isCarbon(atoms.get(i))) {
+                start = i;
+            }
+        }
+        if (start < 0) {
+            return List.of();
+        }
+        int[] parents = new int[atoms.size()];
+        int end = farthestCarbon(start, compound, atoms, parents);
+        int other = farthestCarbon(end, compound, atoms, parents);
+        List<Integer> path = new ArrayList<>();
+        for (int atom = other; atom >= 0; atom = parents[atom]) {
+            path.add(atom);
+        }
+        return path;
+    }
+
+    private static int farthestCarbon(int start, Compound compound, List<Atom> atoms, int[] parents) {
+        int[] farthest = {start};
+        compound.bfs(start, (atom, parent, depth) -> {
+            parents[atom] = parent;
+            if (isCarbon(atoms.get(atom))) {
+                farthest[0] = atom;
+            }
+        });
+        return farthest[0];
+    }
+
+    private static List<Integer> carbonNeighbours(Atom atom, Compound compound) {
+        List<Integer> neighbours = new ArrayList<>(2);
+        for (Atom.Bond bond : atom.getBonds()) {
+            if (isCarbon(bond.to())) {
+                neighbours.add(compound.indexOf(bond.to()));
+            }
+        }
+        return neighbours;
+    }
+
+    private static boolean isCarbon(Atom atom) {
+        return atom.getChemicalElement() == ChemicalElement.Carbon;
+    }
+
+    /**
+     * Moves the coordinates so that they start at the margin.
+     */
+    private static CompoundLayout normalized(double[] x, double[] y) {
+        double minX = Arrays.stream(x).min().orElse(0);
+        double minY = Arrays.stream(y).min().orElse(0);
+        double maxX = Arrays.stream(x).max().orElse(0);
+        double maxY = Arrays.stream(y).max().orElse(0);
+        for (int i = 0; i < x.length; i++) {
+            x[i] += MARGIN - minX;
+            y[i] += MARGIN - minY;
+        }
+        return new CompoundLayout(x, y, maxX - minX + 2 * MARGIN, maxY - minY + 2 * MARGIN);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.MappedCompoundStore;
+import com.ihortymkiv.rihn.Rihn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens the persistent {@link MappedCompoundStore} at {@code rihn.store.path} and hands it to {@link Rihn},
+ * so compounds derived before a restart are served without running the pipeline again.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rihn.store.path")
+class CompoundStoreConfiguration {
+
+    @Bean(destroyMethod = "close")
+    MappedCompoundStore compoundStore(@Value("${rihn.store.path}") Path path) throws IOException {
+        MappedCompoundStore store = MappedCompoundStore.open(path);
+        Rihn.setStore(store);
+        return store;
+    }
+}
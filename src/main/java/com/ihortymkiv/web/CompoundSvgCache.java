@@ -0,0 +1,93 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.rihn.InputLimits;
+import com.ihortymkiv.rihn.Rihn;
+import com.ihortymkiv.rihn.SingleFlight;
+import com.ihortymkiv.rihn.StageTimings;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Least recently used cache of rendered SVG images keyed by the normalized hydrocarbon name.<p>
+ *
+ * Only successfully rendered images are cached, invalid names run the pipeline again every time
+ * so that the caller gets the exception. A miss runs the pipeline and the rendering under the
+ * {@link AdmissionControl} the cache was created with, a hit takes no permit. Concurrent misses for
+ * the same name share one rendering, and only the caller doing it takes a permit.
+ */
+public final class CompoundSvgCache {
+    /**
+     * Rendered image together with its strong entity tag from {@link CompoundETag}.
+     *
+     * @param bytes UTF-8 encoded SVG document
+     * @param eTag quoted entity tag
+     */
+    public record Svg(byte[] bytes, String eTag) {}
+
+    private final Map<String, Svg> cache;
+    private final SingleFlight<String, Svg> inFlight = new SingleFlight<>();
+    private final InputLimits limits;
+    private final AdmissionControl admissionControl;
+
+    /**
+     * @param capacity maximum number of cached images
+     */
+    public CompoundSvgCache(int capacity) {
+        this(capacity, InputLimits.NONE, AdmissionControl.NONE);
+    }
+
+    /**
+     * @param capacity maximum number of cached images
+     * @param limits limits passed to the pipeline on a miss
+     * @param admissionControl admission of misses
+     */
+    CompoundSvgCache(int capacity, InputLimits limits, AdmissionControl admissionControl) {
+        this.limits = limits;
+        this.admissionControl = admissionControl;
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Svg> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached image of a compound, running the pipeline and rendering it on a miss.
+     *
+     * @param name hydrocarbon name, normalized with {@link Rihn#normalize(String)}
+     * @param timings per-request timings to populate on a miss, may be {@code null}
+     * @return rendered image
+     * @throws ServerBusyException if the image has to be rendered and the caller rendering it is not admitted
+     */
+    public Svg get(String name, StageTimings timings) {
+        String normalized = Rihn.normalize(name);
+        synchronized (cache) {
+            Svg svg = cache.get(normalized);
+            if (Objects.nonNull(svg)) {
+                return svg;
+            }
+        }
+
+        return inFlight.run(normalized, () -> admissionControl.run(() -> render(normalized, timings)),
+                Objects.isNull(timings) ? null : waited -> timings.record(StageTimings.Stage.COALESCE, waited));
+    }
+
+    private Svg render(String normalized, StageTimings timings) {
+        Compound compound = Rihn.getCompound(normalized, limits, timings);
+        byte[] bytes = Objects.isNull(timings)
+                ? CompoundSvgRenderer.render(compound)
+                : timings.time(StageTimings.Stage.RENDER, () -> CompoundSvgRenderer.render(compound));
+        Svg svg = new Svg(bytes, CompoundETag.of("svg", normalized));
+        synchronized (cache) {
+            cache.put(normalized, svg);
+        }
+        return svg;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.chemistry.Atom;
+import com.ihortymkiv.chemistry.ChemicalElement;
+import com.ihortymkiv.chemistry.Compound;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Renders a {@link Compound} as a standalone SVG image using the coordinates of {@link CompoundLayout}.<p>
+ *
+ * The drawing matches the web page: grey bonds, with double and triple bonds drawn as parallel lines,
+ * and colored circles for atoms, so the image can be embedded without any JavaScript.
+ */
+public final class CompoundSvgRenderer {
+    private static final double BOND_SPACING = 4;
+
+    /**
+     * Render SVG from Compound.
+     * @param compound Compound
+     * @return UTF-8 encoded SVG document
+     */
+    public static byte[] render(Compound compound) {
+        Objects.requireNonNull(compound, "Compound must be non-null");
+        CompoundLayout layout = CompoundLayout.of(compound);
+        List<Atom> atoms = compound.atoms();
+
+        StringBuilder svg = new StringBuilder(128 + atoms.size() * 160);
+        svg.append(String.format(Locale.ROOT,
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 %.1f %.1f\" width=\"%.1f\" height=\"%.1f\">",
+                layout.width(), layout.height(), layout.width(), layout.height()));
+
+        svg.append("<g stroke=\"#999\" stroke-opacity=\"0.6\" stroke-width=\"2\">");
+        compound.bonds().forEach(bond -> appendBond(svg, layout,
+                compound.indexOf(bond.from()), compound.indexOf(bond.to()), bond.bondOrder()));
+        svg.append("</g>");
+
+        svg.append("<g stroke=\"#fff\" stroke-width=\"1.5\">");
+        for (int i = 0; i < atoms.size(); i++) {
+            ChemicalElement element = atoms.get(i).getChemicalElement();
+            svg.append(String.format(Locale.ROOT,
+                    "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"%d\" fill=\"%s\"><title>%s</title></circle>",
+                    layout.x(i), layout.y(i), radius(element), color(element), element.symbol()));
+        }
+        svg.append("</g></svg>");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Draws one line per bond order, offset perpendicular to the bond and centered on it.
+     */
+    private static void appendBond(StringBuilder svg, CompoundLayout layout, int source, int target, int bondOrder) {
+        double dx = layout.x(target) - layout.x(source);
+        double dy = layout.y(target) - layout.y(source);
+        double length = Math.hypot(dx, dy);
+        double normalX = length == 0 ? 0 : -dy / length;
+        double normalY = length == 0 ? 0 : dx / length;
+        for (int line = 0; line < bondOrder; line++) {
+            double offset = (line - (bondOrder - 1) / 2.0) * BOND_SPACING;
+            svg.append(String.format(Locale.ROOT,
+                    "<line x1=\"%.1f\" y1=\"%.1f\" x2=\"%.1f\" y2=\"%.1f\"/>",
+                    layout.x(source) + normalX * offset, layout.y(source) + normalY * offset,
+                    layout.x(target) + normalX * offset, layout.y(target) + normalY * offset));
+        }
+    }
+
+    private static int radius(ChemicalElement element) {
+        return element == ChemicalElement.Carbon ? 10 : 5;
+    }
+
+    /**
+     * Same colors as d3.schemeCategory10 assigns on the web page.
+     */
+    private static String color(ChemicalElement element) {
+        return element == ChemicalElement.Carbon ? "#1f77b4" : "#ff7f0e";
+    }
+
+    private CompoundSvgRenderer() {}
+}
@@ -0,0 +1,139 @@
+package com.ihortymkiv.web;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * Admin endpoints for on-demand Java Flight Recorder recordings.
+ * <p>
+ * At most one recording runs at a time. A recording is bounded both in duration and in size,
+ * and is written to a local file in {@code rihn.admin.jfr.directory}, either when it is stopped
+ * or when its duration elapses.
+ * <p>
+ * Only registered when {@code rihn.admin.enabled=true}.
+ */
+@RestController
+@RequestMapping(path = "/admin/jfr", produces = MediaType.APPLICATION_JSON_VALUE)
+@ConditionalOnProperty(name = "rihn.admin.enabled", havingValue = "true")
+class FlightRecorderController {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+    private Recording recording;
+    private Path destination;
+
+    FlightRecorderController(
+            @Value("${rihn.admin.jfr.directory}") Path directory,
+            @Value("${rihn.admin.jfr.max-duration}") Duration maxDuration,
+            @Value("${rihn.admin.jfr.max-size}") DataSize maxSize
+    ) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Starts a new recording using the JDK "profile" settings.
+     *
+     * @param duration requested duration (e.g. {@code 30s}), capped at {@code rihn.admin.jfr.max-duration},
+     *                 a malformed or non-positive one is answered with 400
+     */
+    @PostMapping("/start")
+    synchronized ResponseEntity<String> start(@RequestParam(name = "duration", required = false) String duration)
+            throws IOException, ParseException {
+        Duration requested;
+        try {
+            requested = Objects.isNull(duration) ? maxDuration : DurationStyle.detectAndParse(duration);
+        } catch (IllegalArgumentException e) {
+            return badRequest("Invalid duration: " + duration);
+        }
+        if (requested.isNegative() || requested.isZero()) {
+            return badRequest("Duration must be positive: " + duration);
+        }
+        if (isRunning()) {
+            return status(HttpStatus.CONFLICT);
+        }
+        closeRecording();
+
+        Duration bounded = requested.compareTo(maxDuration) > 0 ? maxDuration : requested;
+        Files.createDirectories(directory);
+        destination = directory.resolve("rihn-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+
+        recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName("rihn");
+        recording.setDuration(bounded);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setToDisk(true);
+        recording.setDestination(destination);
+        recording.start();
+        return status(HttpStatus.OK);
+    }
+
+    /**
+     * Stops the running recording and dumps it to its destination file.
+     */
+    @PostMapping("/stop")
+    synchronized ResponseEntity<String> stop() {
+        if (Objects.isNull(recording)) {
+            return status(HttpStatus.NOT_FOUND);
+        }
+        if (isRunning()) {
+            recording.stop();
+        }
+        ResponseEntity<String> response = status(HttpStatus.OK);
+        closeRecording();
+        return response;
+    }
+
+    @GetMapping
+    synchronized ResponseEntity<String> status() {
+        return status(HttpStatus.OK);
+    }
+
+    private boolean isRunning() {
+        return Objects.nonNull(recording) && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private void closeRecording() {
+        if (Objects.nonNull(recording)) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static ResponseEntity<String> badRequest(String message) {
+        return ResponseEntity.badRequest().body(new JSONObject().put("error", message).toString());
+    }
+
+    private ResponseEntity<String> status(HttpStatus httpStatus) {
+        JSONObject body = new JSONObject();
+        body.put("state", Objects.isNull(recording) ? "NONE" : recording.getState().name());
+        body.put("file", Objects.isNull(destination) ? JSONObject.NULL : destination.toString());
+        return ResponseEntity.status(httpStatus).body(body.toString());
+    }
+}
@@ -0,0 +1,276 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.CarbonSkeleton;
+import com.ihortymkiv.rihn.InputLimits;
+import com.ihortymkiv.rihn.MappedCompoundStore;
+import com.ihortymkiv.rihn.Rihn;
+import com.ihortymkiv.rihn.StageTimings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+
+/**
+ * Spring-free alternative to {@link SpringWebApplication} for sidecar and serverless-style deployments,
+ * where startup time dominates.
+ * <p>
+ * Built on the JDK's {@code com.sun.net.httpserver} with one virtual thread per request. It serves
+ * the JSON API ({@code GET /api/compound?name=}), the SVG images ({@code GET /api/compound.svg?name=})
+ * and the static assets, but not the Thymeleaf page.
+ * <p>
+ * Accepts the same {@code --server.port=}, {@code --rihn.store.path=}, {@code --rihn.input.*=} and
+ * {@code --rihn.admission.*=} arguments as the Spring application, with the same defaults. Durations are given
+ * in {@code ms}, {@code s} or {@code m}, e.g. {@code --rihn.admission.queue-timeout=500ms}.
+ */
+public final class LightweightServer {
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "css", "text/css; charset=utf-8",
+            "js", "text/javascript; charset=utf-8",
+            "html", "text/html; charset=utf-8"
+    );
+
+    private static final int SVG_CACHE_SIZE = 1024;
+    private static final String CACHE_CONTROL = "max-age=3600, public";
+
+    private final HttpServer server;
+    private final InputLimits limits;
+    private final AdmissionControl admissionControl;
+    private final CompoundSvgCache svgCache;
+
+    /**
+     * Creates a server bound to {@code port} with the default limits, {@code 0} picks a free port.
+     *
+     * @param port port to listen on
+     * @throws IOException if the port cannot be bound
+     */
+    public LightweightServer(int port) throws IOException {
+        this(port, Map.of());
+    }
+
+    /**
+     * @param settings {@code rihn.input.*} and {@code rihn.admission.*} settings, missing ones take their defaults
+     */
+    private LightweightServer(int port, Map<String, String> settings) throws IOException {
+        this(
+                port,
+                new InputLimits(
+                        Integer.parseInt(settings.getOrDefault("rihn.input.max-length", "1024")),
+                        Integer.parseInt(settings.getOrDefault("rihn.input.max-carbons", "1000"))
+                ),
+                new AdmissionControl(
+                        Integer.parseInt(settings.getOrDefault(
+                                "rihn.admission.max-concurrent",
+                                String.valueOf(Runtime.getRuntime().availableProcessors())
+                        )),
+                        Integer.parseInt(settings.getOrDefault("rihn.admission.max-queued", "64")),
+                        duration(settings.getOrDefault("rihn.admission.queue-timeout", "500ms")),
+                        duration(settings.getOrDefault("rihn.admission.retry-after", "1s"))
+                )
+        );
+    }
+
+    LightweightServer(int port, InputLimits limits, AdmissionControl admissionControl) throws IOException {
+        this.limits = limits;
+        this.admissionControl = admissionControl;
+        this.svgCache = new CompoundSvgCache(SVG_CACHE_SIZE, limits, admissionControl);
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/compound", this::compound);
+        server.createContext("/api/compound.svg", this::compoundSvg);
+        server.createContext("/", this::staticAsset);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (arg.startsWith("--") && separator > 0) {
+                settings.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        if (settings.containsKey("rihn.store.path")) {
+            Rihn.setStore(MappedCompoundStore.open(Path.of(settings.get("rihn.store.path"))));
+        }
+        int port = Integer.parseInt(settings.getOrDefault("server.port", "8080"));
+        LightweightServer server = new LightweightServer(port, settings);
+        server.start();
+        System.out.printf("RIHNParser listening on port %d%n", server.port());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void compound(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "application/json", new JSONObject().put("error", "Method not allowed").toString());
+                return;
+            }
+            String name = queryParameter(exchange, "name");
+            if (Objects.isNull(name)) {
+                send(exchange, 400, "application/json", new JSONObject().put("error", "Missing name").toString());
+                return;
+            }
+
+            String eTag = CompoundETag.of("json", Rihn.normalize(name));
+            if (notModified(exchange, eTag, false)) {
+                return;
+            }
+
+            StageTimings timings = new StageTimings();
+            long start = System.nanoTime();
+            int status;
+            String body;
+            try {
+                CarbonSkeleton skeleton = Rihn.getSkeleton(Rihn.normalize(name), limits, admissionControl, timings);
+                body = timings.time(
+                        StageTimings.Stage.SERIALIZE, () -> CompoundJSONGenerator.generate(skeleton)
+                );
+                if (notModified(exchange, eTag, true)) {
+                    return;
+                }
+                status = 200;
+                exchange.getResponseHeaders().set("ETag", eTag);
+                exchange.getResponseHeaders().set("Cache-Control", CACHE_CONTROL);
+            } catch (ServerBusyException e) {
+                exchange.getResponseHeaders().set("Retry-After", e.retryAfter());
+                body = new JSONObject().put("error", e.getMessage()).toString();
+                status = 503;
+            } catch (Exception e) {
+                body = new JSONObject().put("error", e.getMessage()).toString();
+                status = 400;
+            }
+            String total = StageTimings.metric("total", System.nanoTime() - start);
+            exchange.getResponseHeaders().set("Server-Timing", timings.toServerTiming() + ", " + total);
+            send(exchange, status, "application/json", body);
+        }
+    }
+
+    private void compoundSvg(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String name = queryParameter(exchange, "name");
+            if (!"GET".equals(exchange.getRequestMethod()) || Objects.isNull(name)) {
+                send(exchange, 400, "application/json", new JSONObject().put("error", "Missing name").toString());
+                return;
+            }
+            if (notModified(exchange, CompoundETag.of("svg", Rihn.normalize(name)), false)) {
+                return;
+            }
+            CompoundSvgCache.Svg svg;
+            try {
+                svg = svgCache.get(name, null);
+            } catch (ServerBusyException e) {
+                exchange.getResponseHeaders().set("Retry-After", e.retryAfter());
+                send(exchange, 503, "application/json", new JSONObject().put("error", e.getMessage()).toString());
+                return;
+            } catch (Exception e) {
+                send(exchange, 400, "application/json", new JSONObject().put("error", e.getMessage()).toString());
+                return;
+            }
+            if (notModified(exchange, svg.eTag(), true)) {
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", svg.eTag());
+            exchange.getResponseHeaders().set("Cache-Control", CACHE_CONTROL);
+            exchange.getResponseHeaders().set("Content-Type", "image/svg+xml");
+            exchange.sendResponseHeaders(200, svg.bytes().length);
+            exchange.getResponseBody().write(svg.bytes());
+        }
+    }
+
+    private void staticAsset(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String extension = path.substring(path.lastIndexOf('.') + 1);
+            if (path.contains("..") || !CONTENT_TYPES.containsKey(extension)) {
+                send(exchange, 404, "text/plain", "Not found");
+                return;
+            }
+            try (InputStream asset = LightweightServer.class.getResourceAsStream("/static" + path)) {
+                if (Objects.isNull(asset)) {
+                    send(exchange, 404, "text/plain", "Not found");
+                    return;
+                }
+                byte[] bytes = asset.readAllBytes();
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPES.get(extension));
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Answers with 304 if the client's copy is current.
+     *
+     * @param succeeded whether the pipeline has already succeeded for the name, only then {@code *} matches
+     */
+    private static boolean notModified(HttpExchange exchange, String eTag, boolean succeeded) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (!CompoundETag.matches(ifNoneMatch, eTag) && !(succeeded && CompoundETag.matchesAny(ifNoneMatch))) {
+            return false;
+        }
+        exchange.getResponseHeaders().set("ETag", eTag);
+        exchange.getResponseHeaders().set("Cache-Control", CACHE_CONTROL);
+        exchange.sendResponseHeaders(304, -1);
+        return true;
+    }
+
+    /**
+     * Parses a duration such as {@code 500ms}, {@code 1s} or {@code 5m}.
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Invalid duration: " + value);
+        };
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (Objects.isNull(query)) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.StageTimings;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Objects;
+
+/**
+ * Records the time spent rendering the view as the {@link StageTimings.Stage#RENDER} stage.
+ * <p>
+ * {@link #postHandle} runs after the handler but before the view is rendered,
+ * {@link #afterCompletion} runs once rendering has finished.
+ */
+class RenderTimingInterceptor implements HandlerInterceptor {
+    private static final String RENDER_START = RenderTimingInterceptor.class.getName() + ".start";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (Objects.nonNull(modelAndView)) {
+            request.setAttribute(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(RENDER_START) instanceof Long start
+                && request.getAttribute(ServerTimingFilter.ATTRIBUTE) instanceof StageTimings timings) {
+            timings.record(StageTimings.Stage.RENDER, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ihortymkiv.web;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event emitted around {@link CompoundJSONGenerator#generate}.
+ * <p>
+ * Shares the "RIHNParser" category with the events of the compiler pipeline.
+ */
+@Name("com.ihortymkiv.web.Serialize")
+@Label("Serialize")
+@Category("RIHNParser")
+@StackTrace(false)
+final class SerializeEvent extends Event {
+    @Label("Atom Count")
+    int atomCount;
+
+    @Label("Stem")
+    @Description("Number of carbon atoms in the compound")
+    int stem;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,22 @@
+package com.ihortymkiv.web;
+
+import java.time.Duration;
+
+/**
+ * Thrown by {@link AdmissionControl#run} when a caller is not admitted, answered with 503 and {@code Retry-After}.
+ */
+class ServerBusyException extends RuntimeException {
+    private final Duration retryAfter;
+
+    ServerBusyException(Duration retryAfter) {
+        super("Server is busy, retry later.");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the value of the {@code Retry-After} header, in whole seconds and at least one.
+     */
+    String retryAfter() {
+        return String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.StageTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Attaches a {@code Server-Timing} header with a per-stage breakdown to every response but static resources.
+ * <p>
+ * A fresh {@link StageTimings} is exposed to handlers as the {@link #ATTRIBUTE} request attribute.
+ * The response body is buffered, so the header can still be set after the view has been rendered.
+ */
+@Component
+class ServerTimingFilter extends OncePerRequestFilter {
+    static final String ATTRIBUTE = "com.ihortymkiv.rihn.StageTimings";
+    static final String HEADER = "Server-Timing";
+    private static final String[] STATIC_PREFIXES = {"/css/", "/js/"};
+
+    /**
+     * Static resources have no stages to report and are the largest responses, so they are not buffered.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefix : STATIC_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StageTimings timings = new StageTimings();
+        request.setAttribute(ATTRIBUTE, timings);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            String total = StageTimings.metric("total", System.nanoTime() - start);
+            String stages = timings.toServerTiming();
+            wrapper.setHeader(HEADER, stages.isEmpty() ? total : stages + ", " + total);
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -1,34 +1,89 @@
 package com.ihortymkiv.web;
 
-import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.rihn.CarbonSkeleton;
+import com.ihortymkiv.rihn.InputLimits;
 import com.ihortymkiv.rihn.Rihn;
+import com.ihortymkiv.rihn.StageTimings;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @SpringBootApplication
 @Controller
 public class SpringWebApplication {
+    private final CacheControl cacheControl;
+    private final InputLimits limits;
+    private final AdmissionControl admissionControl;
+
+    SpringWebApplication(CacheControl compoundCacheControl, InputLimits limits, AdmissionControl admissionControl) {
+        this.cacheControl = compoundCacheControl;
+        this.limits = limits;
+        this.admissionControl = admissionControl;
+    }
 
     public static void main(String[] args) {
         SpringApplication.run(SpringWebApplication.class, args);
     }
 
+    /**
+     * Renders the page, which only depends on the name and the library version,
+     * so a matching {@code If-None-Match} is answered with 304 before the pipeline runs.
+     * Only successful pages are cacheable, an error can depend on configured limits.
+     * The pipeline runs under {@link AdmissionControl}, a caller that is not admitted gets the page with a 503.
+     */
     @RequestMapping("/")
-    String index(@RequestParam(name= "hydrocarbon", required=false) String hydrocarbon, Model model) {
+    String index(@RequestParam(name= "hydrocarbon", required=false) String hydrocarbon,
+                 @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                 @RequestAttribute(name = ServerTimingFilter.ATTRIBUTE, required = false) StageTimings timings,
+                 HttpServletResponse response,
+                 Model model) {
+        String eTag = hydrocarbon == null ? CompoundETag.of("home", "") : CompoundETag.of("html", hydrocarbon);
+        if (CompoundETag.matches(ifNoneMatch, eTag)) {
+            return notModified(response, eTag);
+        }
         if (hydrocarbon != null) {
             model.addAttribute("hydrocarbon", hydrocarbon);
+            StageTimings stageTimings = timings == null ? new StageTimings() : timings;
             try {
-                Compound compound = Rihn.getCompound(hydrocarbon.toLowerCase());
-                model.addAttribute("compoundJSON", CompoundJSONGenerator.generate(compound).toString());
+                CarbonSkeleton skeleton = Rihn.getSkeleton(Rihn.normalize(hydrocarbon), limits, admissionControl, stageTimings);
+                String compoundJSON = stageTimings.time(
+                        StageTimings.Stage.SERIALIZE, () -> CompoundJSONGenerator.generate(skeleton)
+                );
+                model.addAttribute("compoundJSON", compoundJSON);
+            } catch (ServerBusyException e) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader(HttpHeaders.RETRY_AFTER, e.retryAfter());
+                model.addAttribute("error", e.getMessage());
+                return "index";
             } catch (Exception e) {
                 model.addAttribute("error", e.getMessage());
+                return "index";
             }
         }
+        if (CompoundETag.matchesAny(ifNoneMatch)) {
+            return notModified(response, eTag);
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
         return "index";
     }
 
+    /**
+     * Answers with 304, returning no view leaves the response as it is since the handler takes the response.
+     */
+    private String notModified(HttpServletResponse response, String eTag) {
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return null;
+    }
+
 }
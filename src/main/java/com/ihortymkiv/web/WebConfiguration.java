@@ -0,0 +1,26 @@
+package com.ihortymkiv.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+class WebConfiguration implements WebMvcConfigurer {
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderTimingInterceptor());
+    }
+
+    /**
+     * {@code Cache-Control} of successful compound responses, which only change with the library version.
+     */
+    @Bean
+    CacheControl compoundCacheControl(@Value("${rihn.cache.max-age:1h}") Duration maxAge) {
+        return CacheControl.maxAge(maxAge).cachePublic();
+    }
+}
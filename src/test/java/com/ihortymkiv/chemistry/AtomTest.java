@@ -3,6 +3,11 @@ package com.ihortymkiv.chemistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AtomTest {
@@ -46,4 +51,22 @@ class AtomTest {
         assertThrows(BondOrderExceedsValenceException.class, () -> atom.addBond(new Atom(ChemicalElement.Carbon), 5));
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldAssignUniqueIdsConcurrently() throws InterruptedException {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(new Atom(ChemicalElement.Hydrogen).getId());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.ihortymkiv.chemistry;
+
+import com.ihortymkiv.rihn.Rihn;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundBinaryTest {
+
+    private Compound ethene() {
+        Compound compound = new Compound();
+        Atom c1 = new Atom(ChemicalElement.Carbon);
+        Atom c2 = new Atom(ChemicalElement.Carbon);
+        compound.addAtom(c1);
+        compound.addAtom(c2);
+        c1.addBond(c2, 2);
+        for (Atom c : List.of(c1, c2)) {
+            for (int i = 0; i < 2; i++) {
+                Atom h = new Atom(ChemicalElement.Hydrogen);
+                compound.addAtom(h);
+                c.addBond(h, 1);
+            }
+        }
+        return compound;
+    }
+
+    @Test
+    void shouldEncodeCompactly() {
+        byte[] bytes = CompoundBinaryWriter.write(ethene());
+        // version, 2 varints, 6 element codes, 5 bonds of 2 one-byte fields
+        assertEquals(1 + 2 + 6 + 5 * 2, bytes.length);
+    }
+
+    @Test
+    void shouldAnswerQueriesFromBuffer() {
+        CompoundBinaryReader reader = new CompoundBinaryReader(ByteBuffer.wrap(CompoundBinaryWriter.write(ethene())));
+
+        assertEquals(6, reader.atomCount());
+        assertEquals(5, reader.bondCount());
+        assertEquals(ChemicalElement.Carbon, reader.element(0));
+        assertEquals(ChemicalElement.Hydrogen, reader.element(5));
+        assertEquals(2, reader.count(ChemicalElement.Carbon));
+        assertEquals(0, reader.bondSource(0));
+        assertEquals(1, reader.bondTarget(0));
+        assertEquals(2, reader.bondOrder(0));
+        assertEquals(4, reader.bondOrderSum(1));
+    }
+
+    @Test
+    void shouldReadAtBufferPosition() {
+        byte[] bytes = CompoundBinaryWriter.write(ethene());
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+        buffer.position(3);
+
+        CompoundBinaryReader reader = new CompoundBinaryReader(buffer);
+        assertEquals(bytes.length, reader.encodedLength());
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    void shouldRoundTripLargeCompound() {
+        Compound compound = Rihn.getCompound("dotriacontahecta-1,31-dien-100-yne");
+        byte[] bytes = CompoundBinaryWriter.write(compound);
+        Compound decoded = new CompoundBinaryReader(ByteBuffer.wrap(bytes)).toCompound();
+
+        List<Atom> expected = compound.getAtoms();
+        List<Atom> actual = decoded.getAtoms();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getChemicalElement(), actual.get(i).getChemicalElement());
+            assertEquals(0, actual.get(i).getValence());
+            assertEquals(expected.get(i).getBonds().size(), actual.get(i).getBonds().size());
+        }
+        assertArrayEquals(bytes, CompoundBinaryWriter.write(decoded));
+    }
+
+    @Test
+    void shouldRejectUnknownVersion() {
+        byte[] bytes = CompoundBinaryWriter.write(ethene());
+        bytes[0] = 42;
+        assertThrows(IllegalArgumentException.class, () -> new CompoundBinaryReader(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    void shouldRejectTruncatedBuffer() {
+        byte[] bytes = CompoundBinaryWriter.write(ethene());
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> new CompoundBinaryReader(truncated));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.ihortymkiv.chemistry;
+
+import com.ihortymkiv.rihn.IsomerEnumerator;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Benchmark of keeping a large batch of generated compounds as {@link Compound} objects in a list against keeping
+ * them in an {@link OffHeapCompoundStore}: heap in use after a full collection, time spent in garbage collection
+ * while filling, and the bytes the store holds in direct memory.
+ * <p>
+ * The compounds are every chain and ring up to 12 carbons with at most two double and one triple bond, repeated
+ * up to the number of compounds given as the first argument, 500 000 by default.
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -Xmx4g -cp target/classes:target/test-classes com.ihortymkiv.chemistry.CompoundStoreBenchmark}.
+ */
+class CompoundStoreBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        List<IsomerEnumerator.Isomer> isomers = new ArrayList<>();
+        for (boolean cyclic : new boolean[]{false, true}) {
+            for (int bonds = 0; bonds < 6; bonds++) {
+                new IsomerEnumerator().enumerate(1, 12, cyclic, bonds % 3, bonds / 3, isomer -> {
+                    synchronized (isomers) {
+                        isomers.add(isomer);
+                    }
+                });
+            }
+        }
+
+        System.out.printf("%-10s %12s %14s %10s %14s%n", "store", "compounds", "heap MiB", "GC ms", "off-heap MiB");
+        List<Compound> list = new ArrayList<>();
+        run("list", count, isomers, list::add);
+        list.clear();
+        OffHeapCompoundStore store = new OffHeapCompoundStore();
+        run("off-heap", count, isomers, store::append);
+        System.out.printf("%-10s %12d %14s %10s %14.1f%n", "", store.size(), "", "", store.usedBytes() / 1048576.0);
+    }
+
+    private static void run(String name, int count, List<IsomerEnumerator.Isomer> isomers,
+                            Consumer<Compound> store) {
+        System.gc();
+        long gcMillis = -gcMillis();
+        for (int i = 0; i < count; i++) {
+            store.accept(isomers.get(i % isomers.size()).compound());
+        }
+        gcMillis += gcMillis();
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        double heap = (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0;
+        System.out.printf("%-10s %12d %14.1f %10d %14s%n", name, count, heap, gcMillis, "");
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
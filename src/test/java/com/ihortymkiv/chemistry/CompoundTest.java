@@ -0,0 +1,178 @@
+package com.ihortymkiv.chemistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundTest {
+
+    private Compound compound;
+
+    /**
+     * Builds two components, a propane skeleton C0-C1-C2 with a branch C1-C3 and C3-C4,
+     * and a lone hydrogen H5.
+     */
+    @BeforeEach
+    void setUp() {
+        compound = new Compound();
+        for (int i = 0; i < 5; i++) {
+            compound.addAtom(new Atom(ChemicalElement.Carbon));
+        }
+        compound.addAtom(new Atom(ChemicalElement.Hydrogen));
+        List<Atom> atoms = compound.getAtoms();
+        atoms.get(0).addBond(atoms.get(1), 1);
+        atoms.get(1).addBond(atoms.get(2), 1);
+        atoms.get(1).addBond(atoms.get(3), 1);
+        atoms.get(3).addBond(atoms.get(4), 1);
+    }
+
+    @Test
+    void shouldLookUpIndices() {
+        List<Atom> atoms = compound.getAtoms();
+        for (int i = 0; i < atoms.size(); i++) {
+            assertEquals(i, compound.indexOf(atoms.get(i)));
+        }
+        assertEquals(-1, compound.indexOf(new Atom(ChemicalElement.Carbon)));
+    }
+
+    @Test
+    void shouldTraverseBreadthFirst() {
+        List<int[]> visits = new ArrayList<>();
+        compound.bfs(0, (atom, parent, depth) -> visits.add(new int[]{atom, parent, depth}));
+
+        assertArrayEquals(new int[]{0, -1, 0}, visits.get(0));
+        assertArrayEquals(new int[]{1, 0, 1}, visits.get(1));
+        assertArrayEquals(new int[]{2, 1, 2}, visits.get(2));
+        assertArrayEquals(new int[]{3, 1, 2}, visits.get(3));
+        assertArrayEquals(new int[]{4, 3, 3}, visits.get(4));
+        assertEquals(5, visits.size());
+    }
+
+    @Test
+    void shouldTraverseDepthFirst() {
+        List<int[]> visits = new ArrayList<>();
+        compound.dfs(2, (atom, parent, depth) -> visits.add(new int[]{atom, parent, depth}));
+
+        assertArrayEquals(new int[]{2, -1, 0}, visits.get(0));
+        assertArrayEquals(new int[]{1, 2, 1}, visits.get(1));
+        assertArrayEquals(new int[]{0, 1, 2}, visits.get(2));
+        assertArrayEquals(new int[]{3, 1, 2}, visits.get(3));
+        assertArrayEquals(new int[]{4, 3, 3}, visits.get(4));
+        assertEquals(5, visits.size());
+    }
+
+    @Test
+    void shouldLabelComponents() {
+        int[] labels = new int[6];
+
+        assertEquals(2, compound.components(labels));
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 1}, labels);
+    }
+
+    @Test
+    void shouldFindShortestPath() {
+        assertArrayEquals(new int[]{0, 1, 3, 4}, compound.shortestPath(0, 4));
+        assertArrayEquals(new int[]{2}, compound.shortestPath(2, 2));
+        assertArrayEquals(new int[0], compound.shortestPath(0, 5));
+    }
+
+    @Test
+    void shouldTraverseLongChainWithoutRecursion() {
+        Compound chain = new Compound();
+        Atom previous = null;
+        for (int i = 0; i < 200_000; i++) {
+            Atom carbon = new Atom(ChemicalElement.Carbon);
+            chain.addAtom(carbon);
+            if (previous != null) {
+                carbon.addBond(previous, 1);
+            }
+            previous = carbon;
+        }
+        int[] deepest = {0};
+        chain.dfs(0, (atom, parent, depth) -> deepest[0] = Math.max(deepest[0], depth));
+
+        assertEquals(199_999, deepest[0]);
+        assertEquals(200_000, chain.shortestPath(0, 199_999).length);
+    }
+
+    @Test
+    void shouldFreezeIntoImmutableSnapshot() {
+        Compound snapshot = compound.freeze();
+        List<Atom> atoms = snapshot.getAtoms();
+
+        assertTrue(snapshot.isFrozen());
+        assertFalse(compound.isFrozen());
+        assertSame(snapshot, snapshot.freeze());
+        assertEquals(compound.getAtoms(), atoms);
+        for (int i = 0; i < atoms.size(); i++) {
+            assertEquals(i, snapshot.indexOf(atoms.get(i)));
+            assertTrue(atoms.get(i).isFrozen());
+        }
+        assertThrows(IllegalStateException.class, () -> snapshot.addAtom(new Atom(ChemicalElement.Hydrogen)));
+        assertThrows(IllegalStateException.class, () -> atoms.get(0).addBond(new Atom(ChemicalElement.Hydrogen), 1));
+        assertThrows(IllegalStateException.class, () -> new Compound().addAtom(atoms.get(0)));
+        assertThrows(UnsupportedOperationException.class, () -> atoms.get(0).getBonds().clear());
+    }
+
+    @Test
+    void shouldDecodeFrozenCompound() {
+        byte[] encoded = CompoundBinaryWriter.write(compound.freeze());
+
+        assertTrue(new CompoundBinaryReader(java.nio.ByteBuffer.wrap(encoded)).toCompound().isFrozen());
+    }
+
+    @Test
+    void shouldExposeAtomsWithoutCopying() {
+        List<Atom> view = compound.atoms();
+
+        assertSame(view, compound.atoms());
+        assertEquals(6, compound.atomCount());
+        assertSame(view.get(3), compound.atom(3));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new Atom(ChemicalElement.Carbon)));
+        compound.addAtom(new Atom(ChemicalElement.Hydrogen));
+        assertEquals(7, view.size());
+
+        Compound snapshot = compound.freeze();
+        assertSame(snapshot.atoms(), snapshot.atoms());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.atoms().remove(0));
+    }
+
+    @Test
+    void shouldStreamEveryBondOnce() {
+        List<int[]> bonds = compound.bonds()
+                .map(bond -> new int[]{compound.indexOf(bond.from()), compound.indexOf(bond.to())})
+                .toList();
+
+        assertEquals(4, bonds.size());
+        assertArrayEquals(new int[]{0, 1}, bonds.get(0));
+        assertArrayEquals(new int[]{1, 2}, bonds.get(1));
+        assertArrayEquals(new int[]{1, 3}, bonds.get(2));
+        assertArrayEquals(new int[]{3, 4}, bonds.get(3));
+    }
+
+    @Test
+    void shouldStreamBondsInParallel() {
+        Compound chain = new Compound();
+        Atom previous = null;
+        for (int i = 0; i < 100_000; i++) {
+            Atom carbon = new Atom(ChemicalElement.Carbon);
+            chain.addAtom(carbon);
+            if (previous != null) {
+                carbon.addBond(previous, 1 + i % 2);
+            }
+            previous = carbon;
+        }
+        Compound snapshot = chain.freeze();
+
+        assertEquals(99_999, snapshot.bonds().parallel().count());
+        assertEquals(snapshot.bonds().mapToInt(Atom.Bond::bondOrder).sum(),
+                snapshot.bonds().parallel().mapToInt(Atom.Bond::bondOrder).sum());
+        assertEquals(snapshot.bonds().map(Atom.Bond::to).toList(),
+                snapshot.bonds().parallel().map(Atom.Bond::to).toList());
+        assertEquals(100_000, snapshot.atoms().parallelStream().filter(atom -> atom.getBonds().size() > 0).count());
+    }
+}
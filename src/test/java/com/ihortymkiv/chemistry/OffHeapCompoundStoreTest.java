@@ -0,0 +1,103 @@
+package com.ihortymkiv.chemistry;
+
+import com.ihortymkiv.rihn.Rihn;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapCompoundStoreTest {
+
+    @Test
+    void shouldReadBackCompoundsByIndex() {
+        List<Compound> compounds = new ArrayList<>();
+        for (String name : List.of("methane", "cyclohexa-1,3-diene", "hex-1-en-5-yne", "dodeca-1,3,5,7,9,11-hexaene")) {
+            compounds.add(Rihn.getCompound(name));
+        }
+        // Smaller than most compounds, so that they get chunks of their own
+        OffHeapCompoundStore store = new OffHeapCompoundStore(32);
+        for (int i = 0; i < 3; i++) {
+            for (Compound compound : compounds) {
+                store.append(compound);
+            }
+        }
+
+        assertEquals(12, store.size());
+        for (int i = 0; i < store.size(); i++) {
+            Compound expected = compounds.get(i % compounds.size());
+            assertArrayEquals(CompoundBinaryWriter.write(expected), CompoundBinaryWriter.write(store.get(i)));
+            assertEquals(expected.atomCount(), store.reader(i).atomCount());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> store.reader(12));
+    }
+
+    @Test
+    void shouldBoundEachCompoundToItsOwnBytes() {
+        OffHeapCompoundStore store = new OffHeapCompoundStore();
+        List<byte[]> expected = new ArrayList<>();
+        for (String name : List.of("propane", "cyclohexa-1,3-diene", "methane")) {
+            Compound compound = Rihn.getCompound(name);
+            expected.add(CompoundBinaryWriter.write(compound));
+            store.append(compound);
+        }
+
+        // All three share a chunk, each view must stop at the end of its compound
+        for (int i = 0; i < expected.size(); i++) {
+            ByteBuffer encoded = store.encoded(i);
+            assertTrue(encoded.isReadOnly());
+            byte[] actual = new byte[encoded.remaining()];
+            encoded.get(actual);
+            assertArrayEquals(expected.get(i), actual);
+            assertEquals(expected.get(i).length, store.reader(i).encodedLength());
+        }
+    }
+
+    @Test
+    void shouldIterateInAppendOrder() {
+        OffHeapCompoundStore store = new OffHeapCompoundStore();
+        List<Integer> carbons = new ArrayList<>();
+        for (String name : List.of("ethane", "propane", "butane")) {
+            store.append(Rihn.getCompound(name));
+        }
+        for (CompoundBinaryReader reader : store) {
+            carbons.add(reader.count(ChemicalElement.Carbon));
+        }
+
+        assertEquals(List.of(2, 3, 4), carbons);
+        long expectedBytes = 0;
+        for (CompoundBinaryReader reader : store) {
+            expectedBytes += reader.encodedLength();
+        }
+        assertEquals(expectedBytes, store.usedBytes());
+    }
+
+    @Test
+    void shouldIndexPastOneIndexChunk() {
+        OffHeapCompoundStore store = new OffHeapCompoundStore();
+        Compound methane = Rihn.getCompound("methane");
+        Compound ethene = Rihn.getCompound("eth-1-ene");
+        int count = (1 << 20) + 10;
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, store.append(i % 1000 == 0 ? ethene : methane));
+        }
+
+        assertEquals(count, store.size());
+        assertEquals(2, store.reader(1_048_000).count(ChemicalElement.Carbon));
+        assertEquals(1, store.reader(1 << 20).count(ChemicalElement.Carbon));
+        assertEquals(2, store.reader(0).count(ChemicalElement.Carbon));
+    }
+
+    @Test
+    void shouldRejectUseAfterClose() {
+        OffHeapCompoundStore store = new OffHeapCompoundStore();
+        store.append(Rihn.getCompound("methane"));
+        store.close();
+
+        assertEquals(0, store.size());
+        assertThrows(IllegalStateException.class, () -> store.reader(0));
+        assertThrows(IllegalStateException.class, () -> store.append(Rihn.getCompound("methane")));
+    }
+}
@@ -0,0 +1,121 @@
+package com.ihortymkiv.rihn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark of the {@link SemanticAnalyzer}, called once per AST, against the {@link BatchSemanticAnalyzer}
+ * on the same ASTs laid out in a {@link HydrocarbonBatch} and against {@link PackedHydrocarbon#analyze}
+ * on their packed values, in nanoseconds per name.
+ * <p>
+ * The corpora are the valid names with up to 14 carbons and at most two double and one triple bond, and the same
+ * names with every locant moved one carbon up, which breaks a rule in most of them. Only the analysis is measured,
+ * the ASTs are parsed, laid out and packed once.
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp target/classes:target/test-classes com.ihortymkiv.rihn.BatchAnalysisBenchmark}.
+ */
+class BatchAnalysisBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int NAMES_PER_ROUND = 2_000_000;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        List<Hydrocarbon> valid = new ArrayList<>();
+        for (boolean cyclic : new boolean[]{false, true}) {
+            for (int bonds = 0; bonds < 6; bonds++) {
+                new IsomerEnumerator().enumerate(1, 14, cyclic, bonds % 3, bonds / 3, isomer -> {
+                    Hydrocarbon hydrocarbon = new Parser(new Lexer(isomer.name()).scanTokens()).parse();
+                    synchronized (valid) {
+                        valid.add(hydrocarbon);
+                    }
+                });
+            }
+        }
+        List<Hydrocarbon> shifted = valid.stream().map(BatchAnalysisBenchmark::shifted).toList();
+
+        System.out.printf("%-10s %-10s %12s%n", "corpus", "analyzer", "ns/name");
+        run("valid", valid);
+        run("shifted", shifted);
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void run(String corpus, List<Hydrocarbon> hydrocarbons) {
+        Hydrocarbon[] array = hydrocarbons.toArray(Hydrocarbon[]::new);
+        HydrocarbonBatch batch = new HydrocarbonBatch(NAMES_PER_ROUND);
+        for (int i = 0; i < NAMES_PER_ROUND; i++) {
+            batch.add(array[i % array.length]);
+        }
+        long[] packed = hydrocarbons.stream().mapToLong(PackedHydrocarbon::encode).toArray();
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            perAst(array);
+            batch(batch);
+            packed(packed);
+        }
+        long perAst = 0;
+        long batched = 0;
+        long packedNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            perAst += perAst(array);
+            batched += batch(batch);
+            packedNanos += packed(packed);
+        }
+        double names = (double) MEASURED_ROUNDS * NAMES_PER_ROUND;
+        System.out.printf("%-10s %-10s %12.1f%n", corpus, "per AST", perAst / names);
+        System.out.printf("%-10s %-10s %12.1f%n", corpus, "batch", batched / names);
+        System.out.printf("%-10s %-10s %12.1f%n", corpus, "packed", packedNanos / names);
+    }
+
+    private static long perAst(Hydrocarbon[] hydrocarbons) {
+        long start = System.nanoTime();
+        for (int i = 0; i < NAMES_PER_ROUND; i++) {
+            try {
+                new SemanticAnalyzer().analyze(hydrocarbons[i % hydrocarbons.length]);
+                sink++;
+            } catch (SemanticAnalyzerException e) {
+                sink--;
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long batch(HydrocarbonBatch batch) {
+        long start = System.nanoTime();
+        byte[] codes = new BatchSemanticAnalyzer().analyze(batch);
+        sink += codes[codes.length - 1];
+        return System.nanoTime() - start;
+    }
+
+    private static long packed(long[] packed) {
+        long start = System.nanoTime();
+        for (int i = 0; i < NAMES_PER_ROUND; i++) {
+            sink += PackedHydrocarbon.analyze(packed[i % packed.length]);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Hydrocarbon shifted(Hydrocarbon hydrocarbon) {
+        Type type = hydrocarbon.type;
+        if (type instanceof Type.Alkene alkene) {
+            type = new Type.Alkene(shifted(alkene.group));
+        } else if (type instanceof Type.Alkyne alkyne) {
+            type = new Type.Alkyne(shifted(alkyne.group));
+        } else if (type instanceof Type.Enyne enyne) {
+            type = new Type.Enyne(
+                    new Type.Alkene(shifted(enyne.alkene.group)), new Type.Alkyne(shifted(enyne.alkyne.group))
+            );
+        }
+        return new Hydrocarbon(hydrocarbon.isCyclic, hydrocarbon.stem, type);
+    }
+
+    private static Group shifted(Group group) {
+        return new Group(
+                new Locants(group.locants.locants.stream().map(locant -> locant + 1).toList()),
+                group.multiplyingAffix
+        );
+    }
+}
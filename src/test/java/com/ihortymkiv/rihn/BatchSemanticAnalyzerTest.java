@@ -0,0 +1,183 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.ihortymkiv.rihn.BatchSemanticAnalyzer.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the {@link BatchSemanticAnalyzer} with the {@link SemanticAnalyzer} on names and on random ASTs
+ * that break the rules in every order.
+ */
+class BatchSemanticAnalyzerTest {
+    private static final Map<String, Byte> CODES = Map.of(
+            "Carbon chain length must be at least 3", RING_TOO_SMALL,
+            "Can't specify locants", CHAIN_TOO_SHORT_FOR_LOCANTS,
+            "Locants must be in order", LOCANTS_OUT_OF_ORDER,
+            "Invalid locant value", LOCANT_OUT_OF_RANGE,
+            "has already been specified", DUPLICATE_LOCANT,
+            "has exceeded available valency", VALENCY_EXCEEDED,
+            "Invalid multiplier", INVALID_MULTIPLIER,
+            "Alkene locant", ALKENE_LOCANT_NOT_LOWEST,
+            "Lowest set of locants rule violated", LOWEST_SET_RULE_VIOLATED
+    );
+
+    @Test
+    void shouldReturnCodePerRow() {
+        List<Hydrocarbon> hydrocarbons = new ArrayList<>();
+        for (String name : List.of("cyclohexa-1,3-diene", "cyclomethane", "pent-5-ene", "penta-3,3-diene",
+                "penta-3,2-diene", "pent-2-en-3-yne", "meth-1-yne", "prop-2-ene", "propa-1,2-triene",
+                "pent-4-en-1-yne", "octane")) {
+            hydrocarbons.add(new Parser(new Lexer(name).scanTokens()).parse());
+        }
+
+        assertArrayEquals(new byte[]{
+                VALID, RING_TOO_SMALL, LOCANT_OUT_OF_RANGE, DUPLICATE_LOCANT, LOCANTS_OUT_OF_ORDER, VALENCY_EXCEEDED,
+                CHAIN_TOO_SHORT_FOR_LOCANTS, LOWEST_SET_RULE_VIOLATED, INVALID_MULTIPLIER, ALKENE_LOCANT_NOT_LOWEST,
+                VALID
+        }, analyze(hydrocarbons));
+    }
+
+    @Test
+    void shouldAnalyzeNames() {
+        BatchSemanticAnalyzer analyzer = new BatchSemanticAnalyzer();
+        List<CharSequence> names = List.of("CycloHexa-1,3-diene", "' OR 1=1 --", "prop-2-ene",
+                "hexa-1,3-di-ene", new StringBuilder("pent-5-ene"), "octane");
+
+        assertArrayEquals(new byte[]{
+                VALID, MALFORMED, LOWEST_SET_RULE_VIOLATED, MALFORMED, LOCANT_OUT_OF_RANGE, VALID
+        }, analyzer.analyze(names));
+        // The analyzer is reused for the next batch
+        assertArrayEquals(new byte[]{MALFORMED, VALID}, analyzer.analyze(List.of("", "propane")));
+        assertArrayEquals(new byte[0], analyzer.analyze(List.of()));
+    }
+
+    @Test
+    void shouldAgreeWithSemanticAnalyzerOnRandomAsts() {
+        Random random = new Random(48);
+        List<Hydrocarbon> hydrocarbons = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            hydrocarbons.add(randomHydrocarbon(random));
+        }
+
+        byte[] codes = analyze(hydrocarbons);
+        for (int i = 0; i < codes.length; i++) {
+            assertEquals(expectedCode(hydrocarbons.get(i)), codes[i], "row " + i);
+        }
+    }
+
+    @Test
+    void shouldAgreeWithSemanticAnalyzerOnEverySmallEnyne() {
+        // Random locants are rarely symmetric, these include every tie between double and triple bonds
+        List<Hydrocarbon> hydrocarbons = new ArrayList<>();
+        for (int carbons = 1; carbons <= 9; carbons++) {
+            for (int first = 0; first <= carbons; first++) {
+                for (int second = first; second <= carbons; second++) {
+                    for (int alkyne = 0; alkyne <= carbons; alkyne++) {
+                        Group alkenes = first == second
+                                ? new Group(new Locants(List.of(first)), null)
+                                : new Group(new Locants(List.of(first, second)), new MultiplyingAffix(token("di"), 2));
+                        Type.Alkyne alkyneType = new Type.Alkyne(new Group(new Locants(List.of(alkyne)), null));
+                        Type type = new Type.Enyne(new Type.Alkene(alkenes), alkyneType);
+                        hydrocarbons.add(new Hydrocarbon(false, new Stem(token("stem"), carbons), type));
+                    }
+                }
+            }
+        }
+
+        byte[] codes = analyze(hydrocarbons);
+        for (int i = 0; i < codes.length; i++) {
+            assertEquals(expectedCode(hydrocarbons.get(i)), codes[i], "row " + i);
+        }
+    }
+
+    @Test
+    void shouldAcceptEnumeratedIsomers() {
+        List<Hydrocarbon> hydrocarbons = new ArrayList<>();
+        new IsomerEnumerator().enumerate(2, 12, false, 2, 1, isomer -> add(hydrocarbons, isomer.name()));
+        new IsomerEnumerator().enumerate(3, 10, true, 3, 0, isomer -> add(hydrocarbons, isomer.name()));
+
+        byte[] codes = analyze(hydrocarbons);
+        for (byte code : codes) {
+            assertEquals(VALID, code);
+        }
+    }
+
+    @Test
+    void shouldReuseColumnsAfterClear() {
+        HydrocarbonBatch batch = new HydrocarbonBatch(1);
+        batch.add(new Parser(new Lexer("dodeca-1,3,5,7,9-pentaene").scanTokens()).parse());
+        batch.add(new Parser(new Lexer("prop-2-ene").scanTokens()).parse());
+        assertArrayEquals(new byte[]{VALID, LOWEST_SET_RULE_VIOLATED}, new BatchSemanticAnalyzer().analyze(batch));
+
+        batch.clear();
+        batch.add(new Parser(new Lexer("hex-1-en-3-yne").scanTokens()).parse());
+        assertArrayEquals(new byte[]{VALID}, new BatchSemanticAnalyzer().analyze(batch));
+    }
+
+    private static byte[] analyze(List<Hydrocarbon> hydrocarbons) {
+        HydrocarbonBatch batch = new HydrocarbonBatch(16);
+        hydrocarbons.forEach(batch::add);
+        return new BatchSemanticAnalyzer().analyze(batch);
+    }
+
+    private static synchronized void add(List<Hydrocarbon> hydrocarbons, String name) {
+        hydrocarbons.add(new Parser(new Lexer(name).scanTokens()).parse());
+    }
+
+    /**
+     * Builds an AST of up to 30 carbons with random groups, which breaks a rule more often than not.
+     */
+    static Hydrocarbon randomHydrocarbon(Random random) {
+        int carbons = 1 + random.nextInt(random.nextBoolean() ? 8 : 30);
+        Group alkene = random.nextInt(3) > 0 ? group(random, carbons) : null;
+        Group alkyne = random.nextInt(3) > 0 ? group(random, carbons) : null;
+        Type type = alkene == null && alkyne == null ? new Type.Alkane()
+                : alkyne == null ? new Type.Alkene(alkene)
+                : alkene == null ? new Type.Alkyne(alkyne)
+                : new Type.Enyne(new Type.Alkene(alkene), new Type.Alkyne(alkyne));
+        return new Hydrocarbon(random.nextInt(4) == 0, new Stem(token("stem"), carbons), type);
+    }
+
+    /**
+     * Builds mostly sorted locants around the chain, with an occasional repeated, swapped or missing multiplier.
+     */
+    private static Group group(Random random, int carbons) {
+        List<Integer> locants = new ArrayList<>();
+        int locant = random.nextInt(3);
+        for (int count = 1 + random.nextInt(4); count > 0; count--) {
+            locants.add(locant);
+            locant += random.nextInt(4) == 0 ? random.nextInt(5) - 2 : 1 + random.nextInt(Math.max(1, carbons / 3));
+        }
+        int multiplier = random.nextInt(5) == 0 ? 2 + random.nextInt(3) : locants.size();
+        MultiplyingAffix affix = locants.size() == 1 && random.nextBoolean() || multiplier < 2
+                ? null
+                : new MultiplyingAffix(token("affix"), multiplier);
+        return new Group(new Locants(locants), affix);
+    }
+
+    /**
+     * @return the code of the rule the {@link SemanticAnalyzer} throws for
+     */
+    static byte expectedCode(Hydrocarbon hydrocarbon) {
+        try {
+            new SemanticAnalyzer().analyze(hydrocarbon);
+            return VALID;
+        } catch (SemanticAnalyzerException e) {
+            return CODES.entrySet().stream()
+                    .filter(entry -> e.getMessage().contains(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private static Token token(String lexeme) {
+        return new Token(TokenType.WORD, lexeme, 0);
+    }
+}
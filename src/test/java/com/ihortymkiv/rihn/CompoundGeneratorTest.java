@@ -126,6 +126,28 @@ class CompoundGeneratorTest {
         assertGraphEquality(expected, actual);
     }
 
+    @Test
+    void shouldGenerateLongChain() {
+        Hydrocarbon hydrocarbon = new Hydrocarbon(
+                false,
+                new Stem(word("kili", 0), 1000),
+                new Type.Alkene(
+                        new Group(
+                                new Locants(List.of(1, 500, 998)),
+                                new MultiplyingAffix(word("tri", 0), 3)
+                        )
+                )
+        );
+        Compound compound = new CompoundGenerator().generateGraph(hydrocarbon);
+        List<Atom> atoms = compound.getAtoms();
+
+        // 2n + 2 hydrogens minus 2 for each double bond
+        assertEquals(1000 + 2002 - 6, atoms.size());
+        assertTrue(compound.isFrozen());
+        assertEquals(2, atoms.get(500).getBonds().getFirst().bondOrder());
+        assertEquals(1, atoms.get(501).getBonds().getFirst().bondOrder());
+    }
+
     @Test
     void shouldGenerateEnyne() {
         Hydrocarbon hydrocarbon = new Hydrocarbon(
@@ -0,0 +1,130 @@
+package com.ihortymkiv.rihn;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Benchmark of the two-stage front end ({@link Lexer} followed by {@link Parser}) against the {@link Lexer}
+ * followed by the {@link TableParser} and the {@link FusedParser}, in nanoseconds and bytes allocated per name,
+ * with the cost of classifying the same names with the {@link SyntaxAutomaton} for comparison.
+ * <p>
+ * The corpora are short names (every chain and ring up to 12 carbons with at most one double and one triple bond),
+ * long compositional stems (alkanes from 1 000 to 9 999 carbons), polyenes with 100 to 110 locants and junk,
+ * random printable ASCII of up to 64 characters, which the front ends reject with an exception.
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp target/classes:target/test-classes com.ihortymkiv.rihn.FrontEndBenchmark}.
+ */
+class FrontEndBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int NAMES_PER_ROUND = 500_000;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        List<String> shortNames = new ArrayList<>();
+        for (boolean cyclic : new boolean[]{false, true}) {
+            for (int bonds = 0; bonds < 4; bonds++) {
+                new IsomerEnumerator().enumerate(1, 12, cyclic, bonds & 1, bonds >> 1, isomer -> {
+                    synchronized (shortNames) {
+                        shortNames.add(isomer.name());
+                    }
+                });
+            }
+        }
+        List<String> longStems = new ArrayList<>();
+        for (int n = 1_000; n <= Keywords.MAX_NUMERAL; n += 7) {
+            longStems.add(Keywords.stem(n) + "ane");
+        }
+        List<String> polyenes = new ArrayList<>();
+        for (int n = 200; n < 220; n++) {
+            polyenes.add(polyeneName(n));
+        }
+
+        List<String> junk = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            char[] chars = new char[1 + random.nextInt(64)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) (' ' + random.nextInt('~' - ' ' + 1));
+            }
+            junk.add(new String(chars));
+        }
+
+        System.out.printf("%-12s %-10s %12s %12s%n", "corpus", "front end", "ns/name", "bytes/name");
+        run("short", shortNames);
+        run("long stem", longStems);
+        run("polyene", polyenes);
+        run("junk", junk);
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void run(String corpus, List<String> names) {
+        String[] array = names.toArray(String[]::new);
+        ToIntFunction<String> twoStage = name -> stem(() -> new Parser(new Lexer(name).scanTokens()).parse());
+        ToIntFunction<String> table = name -> stem(() -> new TableParser(new Lexer(name).scanTokens()).parse());
+        ToIntFunction<String> fused = name -> stem(() -> new FusedParser(name).parse());
+        ToIntFunction<String> automaton = name -> SyntaxAutomaton.accepts(name) ? 1 : 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            measure(array, twoStage);
+            measure(array, table);
+            measure(array, fused);
+            measure(array, automaton);
+        }
+        print(corpus, "two-stage", array, twoStage);
+        print(corpus, "table", array, table);
+        print(corpus, "fused", array, fused);
+        print(corpus, "automaton", array, automaton);
+    }
+
+    /**
+     * @return the carbon count of the stem, 0 if the front end rejects the name
+     */
+    private static int stem(Supplier<Hydrocarbon> frontEnd) {
+        try {
+            return frontEnd.get().stem.value;
+        } catch (LexerException | ParserException e) {
+            return 0;
+        }
+    }
+
+    private static void print(String corpus, String frontEnd, String[] names, ToIntFunction<String> parse) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long nanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            nanos += measure(names, parse);
+        }
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        long parsed = (long) MEASURED_ROUNDS * NAMES_PER_ROUND;
+        System.out.printf("%-12s %-10s %12.1f %12.0f%n", corpus, frontEnd, (double) nanos / parsed, (double) allocated / parsed);
+    }
+
+    private static long measure(String[] names, ToIntFunction<String> parse) {
+        long start = System.nanoTime();
+        for (int i = 0; i < NAMES_PER_ROUND; i++) {
+            sink += parse.applyAsInt(names[i % names.length]);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Builds e.g. "deca-1,3,5,7,9-pentaene".
+     */
+    private static String polyeneName(int n) {
+        StringJoiner joiner = new StringJoiner(",", Keywords.stem(n) + "a-", "-");
+        int count = 0;
+        for (int locant = 1; locant < n; locant += 2, count++) {
+            joiner.add(Integer.toString(locant));
+        }
+        return joiner + Keywords.multiplyingAffix(count) + "ene";
+    }
+}
@@ -0,0 +1,104 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every {@link ParserTest} against the {@link FusedParser} and compares both front ends on
+ * generated names and their misspellings.
+ */
+class FusedParserTest extends ParserTest {
+
+    @Override
+    Hydrocarbon parse(String name) {
+        return new FusedParser(name).parse();
+    }
+
+    @Test
+    void shouldThrowForLeadingZero() {
+        LexerException exception = assertThrowsExactly(LexerException.class, () -> parse("dec-05-ene"));
+        assertEquals("0", exception.getLexeme());
+        assertEquals(4, exception.getPosition());
+    }
+
+    @Test
+    void shouldThrowLexerExceptionEvenAfterSyntaxError() {
+        // The lexer scans the whole name before the parser sees the unknown stem
+        LexerException exception = assertThrowsExactly(LexerException.class, () -> parse("xyz-1-ene+"));
+        assertEquals("+", exception.getLexeme());
+        assertEquals(9, exception.getPosition());
+    }
+
+    @Test
+    void shouldFoldCase() {
+        assertEquals(parse("cyclohexa-1,3-diene"), new FusedParser(new StringBuilder("CycloHEXA-1,3-DIENE")).parse());
+    }
+
+    @Test
+    void shouldParseValidNamesInSinglePass() {
+        for (boolean cyclic : new boolean[]{false, true}) {
+            new IsomerEnumerator().enumerate(1, 30, cyclic, 1, 1, isomer -> assertEquals(
+                    new Parser(new Lexer(isomer.name()).scanTokens()).parse(),
+                    new FusedParser(isomer.name()).tryParse(),
+                    isomer.name()
+            ));
+        }
+        assertNull(new FusedParser("prop-1-yn-2-ene").tryParse());
+    }
+
+    @Test
+    void shouldAgreeWithTwoStagePathOnGeneratedNames() {
+        List<String> names = new ArrayList<>();
+        new IsomerEnumerator().enumerate(1, 12, false, 0, 0, isomer -> add(names, isomer.name()));
+        new IsomerEnumerator().enumerate(3, 9, true, 2, 1, isomer -> add(names, isomer.name()));
+        new IsomerEnumerator().enumerate(4, 9, false, 1, 2, isomer -> add(names, isomer.name()));
+        names.addAll(List.of(
+                "kiliane", "dotriacontahecta-1,31-dien-100-yne", "tetracosa-1,3,5,7,9,11,13,15,17,19,21,23-dodecaene",
+                "cyclocyclopropane", "cyclo", "cycloe", "e", "", "-", "prop-1-e", "hex-1-en-3-e", "propa-1,2-cyclodiene",
+                "prop-1-en-", "prop-1-ene-", "propanee", "propa", "propane1", "dec-2147483648-ene", "dec-2147483647-ene"
+        ));
+
+        for (String name : names) {
+            assertSameOutcome(name);
+            for (int i = 0; i <= name.length(); i++) {
+                assertSameOutcome(name.substring(0, i) + name.substring(Math.min(i + 1, name.length())));
+                for (char c : "ae-,01n".toCharArray()) {
+                    assertSameOutcome(name.substring(0, i) + c + name.substring(i));
+                }
+            }
+        }
+    }
+
+    private static void add(List<String> names, String name) {
+        synchronized (names) {
+            names.add(name);
+        }
+    }
+
+    private static void assertSameOutcome(String name) {
+        Object expected = outcome(() -> new Parser(new Lexer(name).scanTokens()).parse());
+        Object actual = outcome(() -> new FusedParser(name).parse());
+        assertEquals(expected, actual, name);
+    }
+
+    /**
+     * @return the AST, or the class, message and token or position of the thrown exception
+     */
+    private static Object outcome(Supplier<Hydrocarbon> frontEnd) {
+        try {
+            return frontEnd.get();
+        } catch (ParserException e) {
+            return List.of(e.getClass(), e.getMessage(), e.getToken());
+        } catch (LexerException e) {
+            return List.of(e.getClass(), e.getMessage(), e.getLexeme(), e.getPosition());
+        } catch (RuntimeException e) {
+            return List.of(e.getClass(), Objects.toString(e.getMessage()));
+        }
+    }
+}
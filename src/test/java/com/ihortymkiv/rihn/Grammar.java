@@ -0,0 +1,219 @@
+package com.ihortymkiv.rihn;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The productions of docs/grammar.ebnf as a tree of {@link Expression}s.
+ * <p>
+ * It understands the notation used there: {@code name ::= expression} on one line, quoted terminals,
+ * alternatives with {@code |}, groups, the {@code ?}, {@code +} and {@code *} suffixes,
+ * and the prose {@code rule without its terminal "a"}. The leading comment is skipped.
+ */
+final class Grammar {
+    static final Path DEFAULT_PATH = Path.of("docs", "grammar.ebnf");
+
+    sealed interface Expression {}
+
+    record Terminal(String text) implements Expression {}
+
+    record NonTerminal(String name) implements Expression {}
+
+    record Sequence(List<Expression> items) implements Expression {}
+
+    record Choice(List<Expression> alternatives) implements Expression {}
+
+    /**
+     * @param max maximum number of repetitions, {@code -1} if unbounded
+     */
+    record Repeat(Expression item, int min, int max) implements Expression {}
+
+    /**
+     * {@code item}, with {@code suffix} removed from its end.
+     */
+    record Without(Expression item, String suffix) implements Expression {}
+
+    private final Map<String, Expression> productions;
+    private final String start;
+
+    private Grammar(Map<String, Expression> productions, String start) {
+        this.productions = productions;
+        this.start = start;
+    }
+
+    static Grammar read(Path path) throws IOException {
+        return parse(Files.readString(path));
+    }
+
+    static Grammar parse(String source) {
+        int commentEnd = source.indexOf("**/");
+        String rules = commentEnd < 0 ? source : source.substring(commentEnd + 3);
+        Map<String, Expression> productions = new LinkedHashMap<>();
+        for (String line : rules.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int separator = line.indexOf("::=");
+            if (separator < 0) {
+                throw new IllegalArgumentException("Production expected: " + line);
+            }
+            String name = line.substring(0, separator).trim();
+            productions.put(name, new ExpressionReader(line.substring(separator + 3)).read());
+        }
+        if (productions.isEmpty()) {
+            throw new IllegalArgumentException("Grammar has no productions.");
+        }
+        return new Grammar(productions, productions.keySet().iterator().next());
+    }
+
+    /**
+     * @return name of the first production, the start symbol
+     */
+    String start() {
+        return start;
+    }
+
+    Expression production(String name) {
+        Expression expression = productions.get(name);
+        if (Objects.isNull(expression)) {
+            throw new IllegalArgumentException("Unknown rule " + name);
+        }
+        return expression;
+    }
+
+    Map<String, Expression> productions() {
+        return productions;
+    }
+
+    /**
+     * Recursive descent over the right-hand side of one production.
+     */
+    private static final class ExpressionReader {
+        private final String source;
+        private int current;
+
+        ExpressionReader(String source) {
+            this.source = source;
+        }
+
+        Expression read() {
+            Expression expression = choice();
+            skipWhitespace();
+            if (current < source.length()) {
+                throw error("End of production expected");
+            }
+            return expression;
+        }
+
+        private Expression choice() {
+            List<Expression> alternatives = new ArrayList<>();
+            alternatives.add(sequence());
+            while (match('|')) {
+                alternatives.add(sequence());
+            }
+            return alternatives.size() == 1 ? alternatives.getFirst() : new Choice(alternatives);
+        }
+
+        private Expression sequence() {
+            List<Expression> items = new ArrayList<>();
+            skipWhitespace();
+            while (current < source.length() && source.charAt(current) != '|' && source.charAt(current) != ')') {
+                items.add(suffixed());
+                skipWhitespace();
+            }
+            if (items.isEmpty()) {
+                throw error("Expression expected");
+            }
+            return items.size() == 1 ? items.getFirst() : new Sequence(items);
+        }
+
+        private Expression suffixed() {
+            Expression item = primary();
+            if (match('?')) return new Repeat(item, 0, 1);
+            if (match('+')) return new Repeat(item, 1, -1);
+            if (match('*')) return new Repeat(item, 0, -1);
+            skipWhitespace();
+            if (source.startsWith("without", current)) {
+                current += "without".length();
+                expectWord("its");
+                expectWord("terminal");
+                skipWhitespace();
+                return new Without(item, string());
+            }
+            return item;
+        }
+
+        private Expression primary() {
+            skipWhitespace();
+            if (current >= source.length()) {
+                throw error("Expression expected");
+            }
+            char c = source.charAt(current);
+            if (c == '"') {
+                return new Terminal(string());
+            }
+            if (match('(')) {
+                Expression group = choice();
+                if (!match(')')) {
+                    throw error("')' expected");
+                }
+                return group;
+            }
+            return new NonTerminal(identifier());
+        }
+
+        private String string() {
+            int end = source.indexOf('"', current + 1);
+            if (source.charAt(current) != '"' || end < 0) {
+                throw error("Terminal expected");
+            }
+            String text = source.substring(current + 1, end);
+            current = end + 1;
+            return text;
+        }
+
+        private String identifier() {
+            int begin = current;
+            while (current < source.length()
+                    && (Character.isLetterOrDigit(source.charAt(current)) || source.charAt(current) == '_')) {
+                current++;
+            }
+            if (begin == current) {
+                throw error("Rule name expected");
+            }
+            return source.substring(begin, current);
+        }
+
+        private void expectWord(String word) {
+            skipWhitespace();
+            if (!identifier().equals(word)) {
+                throw error("'" + word + "' expected");
+            }
+        }
+
+        private boolean match(char expected) {
+            skipWhitespace();
+            if (current < source.length() && source.charAt(current) == expected) {
+                current++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (current < source.length() && Character.isWhitespace(source.charAt(current))) {
+                current++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + current + ": " + source);
+        }
+    }
+}
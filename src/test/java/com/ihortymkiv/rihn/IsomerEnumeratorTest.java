@@ -0,0 +1,166 @@
+package com.ihortymkiv.rihn;
+
+import com.ihortymkiv.chemistry.CompoundBinaryWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsomerEnumeratorTest {
+
+    private final IsomerEnumerator enumerator = new IsomerEnumerator();
+
+    @Test
+    void shouldEnumerateIsomersOfHexadiene() {
+        Set<String> names = enumerate(6, false, 2, 0);
+
+        assertEquals(Set.of(
+                "hexa-1,2-diene", "hexa-1,3-diene", "hexa-1,4-diene", "hexa-1,5-diene",
+                "hexa-2,3-diene", "hexa-2,4-diene"
+        ), names);
+    }
+
+    @Test
+    void shouldEnumerateEnynes() {
+        Set<String> names = enumerate(5, false, 1, 1);
+
+        assertEquals(Set.of("pent-1-en-3-yne", "pent-1-en-4-yne", "pent-3-en-1-yne"), names);
+    }
+
+    @Test
+    void shouldEnumerateSameNamesAsAnalyzerAccepts() {
+        for (int carbons = 1; carbons <= 9; carbons++) {
+            for (boolean cyclic : new boolean[]{false, true}) {
+                for (int doubles = 0; doubles <= 3; doubles++) {
+                    for (int triples = 0; triples <= 2; triples++) {
+                        assertEquals(
+                                accepted(carbons, cyclic, doubles, triples),
+                                enumerate(carbons, cyclic, doubles, triples),
+                                String.format("%d carbons, cyclic %b, %d double, %d triple",
+                                        carbons, cyclic, doubles, triples)
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldGenerateSameCompoundAsPipeline() {
+        List<IsomerEnumerator.Isomer> isomers = new ArrayList<>();
+        enumerator.enumerate(3, 14, true, 2, 1, isomer -> {
+            synchronized (isomers) {
+                isomers.add(isomer);
+            }
+        });
+
+        assertFalse(isomers.isEmpty());
+        for (IsomerEnumerator.Isomer isomer : isomers) {
+            Hydrocarbon parsed = new Parser(new Lexer(isomer.name()).scanTokens()).parse();
+            new SemanticAnalyzer().analyze(parsed);
+            assertArrayEquals(
+                    CompoundBinaryWriter.write(new CompoundGenerator().generateGraph(parsed)),
+                    CompoundBinaryWriter.write(isomer.compound()),
+                    isomer.name()
+            );
+        }
+    }
+
+    @Test
+    void shouldRunOnGivenPool() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            new IsomerEnumerator(pool).enumerate(40, 60, false, 3, 0,
+                    isomer -> threads.add(Thread.currentThread().getName()));
+
+            assertFalse(threads.isEmpty());
+            assertTrue(threads.stream().allMatch(name -> name.startsWith("ForkJoinPool-")), threads.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> enumerator.enumerate(0, false, 0, 0, isomer -> {}));
+        assertThrows(IllegalArgumentException.class, () -> enumerator.enumerate(10_000, false, 0, 0, isomer -> {}));
+        assertThrows(IllegalArgumentException.class, () -> enumerator.enumerate(5, false, -1, 0, isomer -> {}));
+        assertTrue(enumerate(2, true, 0, 0).isEmpty());
+        assertEquals(Set.of("methane"), enumerate(1, false, 0, 0));
+    }
+
+    private Set<String> enumerate(int carbons, boolean cyclic, int doubles, int triples) {
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        enumerator.enumerate(carbons, cyclic, doubles, triples, isomer -> assertTrue(names.add(isomer.name())));
+        return names;
+    }
+
+    /**
+     * Tries every placement of the bonds, valid or not, and keeps the names the parser and analyzer accept.
+     */
+    private static Set<String> accepted(int carbons, boolean cyclic, int doubles, int triples) {
+        Set<String> names = new HashSet<>();
+        if (cyclic && carbons < 3) {
+            return names;
+        }
+        place(carbons, cyclic, 1, doubles, triples, new ArrayList<>(), new ArrayList<>(), names);
+        return names;
+    }
+
+    private static void place(int carbons, boolean cyclic, int from, int doubles, int triples,
+                              List<Integer> doubleLocants, List<Integer> tripleLocants, Set<String> names) {
+        if (doubles == 0 && triples == 0) {
+            String name = nameOf(carbons, cyclic, doubleLocants, tripleLocants);
+            try {
+                new SemanticAnalyzer().analyze(new Parser(new Lexer(name).scanTokens()).parse());
+                names.add(name);
+            } catch (SemanticAnalyzerException e) {
+                // Rejected placement
+            }
+            return;
+        }
+        for (int locant = from; locant < carbons; locant++) {
+            if (doubles > 0) {
+                doubleLocants.add(locant);
+                place(carbons, cyclic, locant + 1, doubles - 1, triples, doubleLocants, tripleLocants, names);
+                doubleLocants.removeLast();
+            }
+            if (triples > 0) {
+                tripleLocants.add(locant);
+                place(carbons, cyclic, locant + 1, doubles, triples - 1, doubleLocants, tripleLocants, names);
+                tripleLocants.removeLast();
+            }
+        }
+    }
+
+    private static String nameOf(int carbons, boolean cyclic, List<Integer> doubles, List<Integer> triples) {
+        StringBuilder name = new StringBuilder(cyclic ? "cyclo" : "").append(Keywords.stem(carbons));
+        if (doubles.isEmpty() && triples.isEmpty()) {
+            return name.append("ane").toString();
+        }
+        if (!doubles.isEmpty()) {
+            name.append(doubles.size() > 1 ? "a" : "").append(group(doubles)).append("en");
+        }
+        if (!triples.isEmpty()) {
+            name.append(doubles.isEmpty() && triples.size() > 1 ? "a" : "").append(group(triples)).append("yn");
+        }
+        return name.append('e').toString();
+    }
+
+    private static String group(List<Integer> locants) {
+        StringBuilder group = new StringBuilder("-");
+        for (int i = 0; i < locants.size(); i++) {
+            group.append(i > 0 ? "," : "").append(locants.get(i));
+        }
+        group.append('-');
+        return locants.size() > 1 ? group.append(Keywords.multiplyingAffix(locants.size())).toString()
+                : group.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordsTest {
+
+    @Test
+    void shouldComposeStems() {
+        assertEquals("meth", Keywords.stem(1));
+        assertEquals("dec", Keywords.stem(10));
+        assertEquals("undec", Keywords.stem(11));
+        assertEquals("dodec", Keywords.stem(12));
+        assertEquals("tridec", Keywords.stem(13));
+        assertEquals("icos", Keywords.stem(20));
+        assertEquals("henicos", Keywords.stem(21));
+        assertEquals("docos", Keywords.stem(22));
+        assertEquals("tetracos", Keywords.stem(24));
+        assertEquals("triacont", Keywords.stem(30));
+        assertEquals("hect", Keywords.stem(100));
+        assertEquals("henhect", Keywords.stem(101));
+        assertEquals("undecahect", Keywords.stem(111));
+        assertEquals("dotriacontahect", Keywords.stem(132));
+        assertEquals("kili", Keywords.stem(1000));
+        assertEquals("dili", Keywords.stem(2000));
+    }
+
+    @Test
+    void shouldComposeMultiplyingAffixes() {
+        assertEquals("di", Keywords.multiplyingAffix(2));
+        assertEquals("tetra", Keywords.multiplyingAffix(4));
+        assertEquals("nona", Keywords.multiplyingAffix(9));
+        assertEquals("deca", Keywords.multiplyingAffix(10));
+        assertEquals("dodeca", Keywords.multiplyingAffix(12));
+        assertEquals("henicosa", Keywords.multiplyingAffix(21));
+    }
+
+    @Test
+    void shouldHaveUniqueKeywords() {
+        assertEquals(Keywords.MAX_NUMERAL, Keywords.STEMS.size());
+        assertEquals(Keywords.MAX_NUMERAL - 1, Keywords.MULTIPLYING_AFFIXES.size());
+        assertEquals(132, Keywords.STEMS.get("dotriacontahect"));
+    }
+
+}
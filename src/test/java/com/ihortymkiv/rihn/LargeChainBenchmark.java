@@ -0,0 +1,94 @@
+package com.ihortymkiv.rihn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static com.ihortymkiv.rihn.TokenType.WORD;
+
+/**
+ * Benchmark of the pipeline on polyenes with a double bond at every other carbon,
+ * at 10, 1 000 and 100 000 carbons.
+ * <p>
+ * Chains up to {@link Keywords#MAX_NUMERAL} carbons run the whole pipeline from the name,
+ * longer ones have no IUPAC name and start from the AST. Each stage should take roughly
+ * the same time per carbon at every size.
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp target/classes:target/test-classes com.ihortymkiv.rihn.LargeChainBenchmark}.
+ */
+class LargeChainBenchmark {
+    private static final int[] SIZES = {10, 1_000, 100_000};
+    private static final int WARMUP_CARBONS = 20_000_000;
+    private static final int MEASURED_CARBONS = 20_000_000;
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %12s %12s %12s %12s%n", "carbons", "lex ns/C", "parse ns/C", "analyze ns/C", "generate ns/C");
+        for (int n : SIZES) {
+            run(n, Math.max(1, WARMUP_CARBONS / n));
+            StageTimings timings = run(n, Math.max(1, MEASURED_CARBONS / n));
+            long carbons = (long) Math.max(1, MEASURED_CARBONS / n) * n;
+            System.out.printf(
+                    "%10d %12.2f %12.2f %12.2f %12.2f%n",
+                    n,
+                    perCarbon(timings, StageTimings.Stage.LEX, carbons),
+                    perCarbon(timings, StageTimings.Stage.PARSE, carbons),
+                    perCarbon(timings, StageTimings.Stage.ANALYZE, carbons),
+                    perCarbon(timings, StageTimings.Stage.GENERATE, carbons)
+            );
+        }
+    }
+
+    private static StageTimings run(int n, int iterations) {
+        StageTimings timings = new StageTimings();
+        if (n <= Keywords.MAX_NUMERAL) {
+            String name = polyeneName(n);
+            for (int i = 0; i < iterations; i++) {
+                Rihn.getCompound(name, timings);
+            }
+        } else {
+            Hydrocarbon hydrocarbon = polyene(n);
+            for (int i = 0; i < iterations; i++) {
+                timings.time(StageTimings.Stage.ANALYZE, () -> {
+                    new SemanticAnalyzer().analyze(hydrocarbon);
+                    return null;
+                });
+                timings.time(StageTimings.Stage.GENERATE, () -> new CompoundGenerator().generateGraph(hydrocarbon));
+            }
+        }
+        return timings;
+    }
+
+    private static double perCarbon(StageTimings timings, StageTimings.Stage stage, long carbons) {
+        return (double) timings.nanos(stage) / carbons;
+    }
+
+    private static List<Integer> doubleBondLocants(int n) {
+        List<Integer> locants = new ArrayList<>();
+        for (int locant = 1; locant < n; locant += 2) {
+            locants.add(locant);
+        }
+        return locants;
+    }
+
+    /**
+     * Builds e.g. "deca-1,3,5,7,9-pentaene".
+     */
+    private static String polyeneName(int n) {
+        List<Integer> locants = doubleBondLocants(n);
+        StringJoiner joiner = new StringJoiner(",", Keywords.stem(n) + "a-", "-");
+        locants.forEach(locant -> joiner.add(locant.toString()));
+        return joiner + Keywords.multiplyingAffix(locants.size()) + "ene";
+    }
+
+    private static Hydrocarbon polyene(int n) {
+        List<Integer> locants = doubleBondLocants(n);
+        return new Hydrocarbon(
+                false,
+                new Stem(new Token(WORD, "", 0), n),
+                new Type.Alkene(
+                        new Group(new Locants(locants), new MultiplyingAffix(new Token(WORD, "", 0), locants.size()))
+                )
+        );
+    }
+}
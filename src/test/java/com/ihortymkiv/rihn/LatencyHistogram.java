@@ -0,0 +1,122 @@
+package com.ihortymkiv.rihn;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of latencies in nanoseconds with a relative error below 1%,
+ * laid out like an HDR histogram: 128 linear buckets, then 64 buckets per power of two.
+ * <p>
+ * {@link #recordCorrected(long, long)} corrects for coordinated omission the way HdrHistogram does: a caller that
+ * waits for each response before sending the next request at a fixed interval misses the requests it would have
+ * sent while stalled, so a latency above the interval is recorded along with those of the missed requests.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(Long.MAX_VALUE) + 1);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos)));
+    }
+
+    /**
+     * Records a latency measured by a caller that sends one request every {@code expectedInterval} nanoseconds
+     * and waits for each response.
+     *
+     * @param nanos measured latency
+     * @param expectedInterval interval between requests, {@code 0} to record the latency only
+     */
+    public void recordCorrected(long nanos, long expectedInterval) {
+        record(nanos);
+        if (expectedInterval <= 0) {
+            return;
+        }
+        for (long missed = nanos - expectedInterval; missed >= expectedInterval; missed -= expectedInterval) {
+            record(missed);
+        }
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.addAndGet(i, other.counts.get(i));
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @param percentile percentile in range [0, 100]
+     * @return highest value of the bucket the percentile falls into, {@code 0} if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(counts.length() - 1);
+    }
+
+    public long max() {
+        for (int i = counts.length() - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return highestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return count, p50, p90, p99, p99.9 and max in milliseconds on one line
+     */
+    public String summary() {
+        return String.format(Locale.ROOT, "%9d %9.3f %9.3f %9.3f %9.3f %9.3f",
+                count(), millis(percentile(50)), millis(percentile(90)), millis(percentile(99)),
+                millis(percentile(99.9)), millis(max()));
+    }
+
+    /**
+     * @return header of the columns of {@link #summary()}
+     */
+    public static String header() {
+        return String.format("%9s %9s %9s %9s %9s %9s", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
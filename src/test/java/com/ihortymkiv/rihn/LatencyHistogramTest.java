@@ -0,0 +1,42 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReportPercentilesWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(50_000_000, histogram.percentile(50), 500_000);
+        assertEquals(99_000_000, histogram.percentile(99), 990_000);
+        assertEquals(99_900_000, histogram.percentile(99.9), 999_000);
+        assertEquals(100_000_000, histogram.max(), 1_000_000);
+    }
+
+    @Test
+    void shouldMapEveryValueToBucketContainingIt() {
+        for (long value : new long[]{0, 1, 127, 128, 129, 255, 256, 1_000_003, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.highestValue(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValue(index - 1) < value);
+        }
+    }
+
+    @Test
+    void shouldRecordMissedRequestsWhenCorrecting() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordCorrected(100, 10);
+
+        // 100 plus the requests that would have been sent at 10, 20, ..., 90
+        assertEquals(10, histogram.count());
+        assertEquals(10, histogram.percentile(0));
+        assertEquals(100, histogram.max());
+    }
+}
@@ -2,6 +2,8 @@ package com.ihortymkiv.rihn;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -106,6 +108,33 @@ class LexerTest {
         assertIterableEquals(expected, tokens);
     }
 
+    @Test
+    void shouldTokenizeMultiDigitLocants() {
+        List<Token> tokens = new Lexer("dodeca-1,10-diene").scanTokens();
+        List<Token> expected = List.of(
+                new Token(WORD, "dodeca", 0),
+                new Token(HYPHEN, "-", 6),
+                new Token(DIGIT, "1", 7),
+                new Token(COMMA, ",", 8),
+                new Token(DIGIT, "10", 9),
+                new Token(HYPHEN, "-", 11),
+                new Token(WORD, "dien", 12),
+                new Token(ENDING, "e", 16),
+                new Token(EOF, "", 17)
+        );
+        assertIterableEquals(expected, tokens);
+    }
+
+    @Test
+    void shouldThrowForLeadingZero() {
+        LexerException exception = assertThrowsExactly(
+                LexerException.class,
+                () -> new Lexer("dec-05-ene").scanTokens()
+        );
+        assertEquals("0", exception.getLexeme());
+        assertEquals(4, exception.getPosition());
+    }
+
     @Test
     void shouldThrowForUnexpectedCharacter() {
         LexerException exception = assertThrowsExactly(
@@ -117,4 +146,40 @@ class LexerTest {
         assertEquals(4, exception.getPosition());
     }
 
+    @Test
+    void shouldFoldCaseWhileScanning() {
+        List<Token> tokens = new Lexer(new StringBuilder("CycloHEXA-1,3-DIENE")).scanTokens();
+
+        assertIterableEquals(new Lexer("cyclohexa-1,3-diene").scanTokens(), tokens);
+    }
+
+    @Test
+    void shouldScanAsciiBytesInPlace() {
+        byte[] lines = "propane\nPent-2-ENE\nbutane".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.wrap(lines, 8, 10);
+
+        assertIterableEquals(new Lexer("pent-2-ene").scanTokens(), new Lexer(lines, 8, 10).scanTokens());
+        assertIterableEquals(new Lexer("pent-2-ene").scanTokens(), new Lexer(buffer).scanTokens());
+        assertEquals(8, buffer.position());
+    }
+
+    @Test
+    void shouldShareConstantLexemes() {
+        List<Token> tokens = new Lexer("cyclohexa-1,3-diene").scanTokens();
+
+        assertSame("cyclo", tokens.get(0).lexeme());
+        assertSame("-", tokens.get(2).lexeme());
+        assertSame(",", tokens.get(4).lexeme());
+        assertSame("e", tokens.get(8).lexeme());
+    }
+
+    @Test
+    void shouldRejectNonAsciiBytes() {
+        byte[] name = {'p', 'r', 'o', 'p', (byte) 0xE4, 'n', 'e'};
+        LexerException exception = assertThrowsExactly(
+                LexerException.class,
+                () -> new Lexer(name, 0, name.length).scanTokens()
+        );
+        assertEquals(4, exception.getPosition());
+    }
 }
@@ -0,0 +1,169 @@
+package com.ihortymkiv.rihn;
+
+import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.chemistry.CompoundBinaryWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCompoundStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file() {
+        return directory.resolve("compounds.store");
+    }
+
+    @Test
+    void shouldReturnStoredCompound() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            assertNull(store.get("propane"));
+            Compound compound = Rihn.getCompound("hex-2-en-4-yne");
+            assertTrue(store.put("hex-2-en-4-yne", compound));
+
+            Compound stored = store.get("hex-2-en-4-yne");
+            assertArrayEquals(CompoundBinaryWriter.write(compound), CompoundBinaryWriter.write(stored));
+            assertNull(store.get("propane"));
+        }
+    }
+
+    @Test
+    void shouldSurviveReopening() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            store.put("propane", Rihn.getCompound("propane"));
+            store.put("butane", Rihn.getCompound("butane"));
+        }
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            assertEquals(2, store.size());
+            assertEquals(14, store.get("butane").getAtoms().size());
+        }
+    }
+
+    @Test
+    void shouldDropTornAppend() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            store.put("propane", Rihn.getCompound("propane"));
+            store.put("butane", Rihn.getCompound("butane"));
+        }
+        // Flip a byte in the last record, as if the process died halfway through writing it
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            channel.read(buffer, 0);
+            int second = 16 + 8 + buffer.getInt(16);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), second + 20);
+        }
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            assertEquals(1, store.size());
+            assertNotNull(store.get("propane"));
+            assertNull(store.get("butane"));
+
+            store.put("pentane", Rihn.getCompound("pentane"));
+        }
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            assertEquals(2, store.size());
+            assertNotNull(store.get("pentane"));
+        }
+    }
+
+    @Test
+    void shouldKeepNamesWithCollidingHashes() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            store.put("propane", Rihn.getCompound("propane"));
+            store.put("butane", Rihn.getCompound("butane"));
+        }
+        // Give the second record the first one's name hash, with a checksum that still matches
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            channel.read(buffer, 0);
+            int second = 16 + 8 + buffer.getInt(16);
+            int bodyLength = buffer.getInt(second);
+            buffer.putLong(second + 8, buffer.getLong(16 + 8));
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(second + 8, bodyLength));
+            buffer.putInt(second + 4, (int) crc.getValue());
+            channel.write(buffer.slice(second, 8 + bodyLength), second);
+        }
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            assertEquals(2, store.size());
+            store.compact();
+
+            assertEquals(11, store.get("propane").getAtoms().size());
+            assertEquals(14, store.get("butane").getAtoms().size());
+        }
+    }
+
+    @Test
+    void shouldCompactToLiveRecords() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            for (int i = 0; i < 100; i++) {
+                store.put("decane", Rihn.getCompound("decane"));
+            }
+            store.put("propane", Rihn.getCompound("propane"));
+            long before = Files.size(file());
+            store.compact();
+
+            assertEquals(2, store.size());
+            assertEquals(32, store.get("decane").getAtoms().size());
+            assertNotNull(store.get("propane"));
+            assertTrue(Files.size(file()) <= before);
+        }
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void shouldGrowBeyondInitialCapacity() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            Compound compound = Rihn.getCompound("kiliane");
+            for (int i = 0; i < 200; i++) {
+                assertTrue(store.put("kiliane-" + i, compound));
+            }
+            assertEquals(200, store.size());
+            assertEquals(3002, store.get("kiliane-199").getAtoms().size());
+        }
+    }
+
+    @Test
+    void shouldApplyCallerLimitsToStoredCompounds() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            Rihn.setStore(store);
+            InputLimits limits = new InputLimits(1024, 5);
+            assertThrows(LimitExceededException.class, () -> Rihn.getCompound("decane", limits, null));
+
+            Rihn.getCompound("decane");
+            assertNotNull(store.get("decane"));
+            assertThrows(LimitExceededException.class, () -> Rihn.getCompound("decane", limits, null));
+            assertNotNull(Rihn.getCompound("decane", new InputLimits(1024, 10), null));
+        } finally {
+            Rihn.setStore(null);
+        }
+    }
+
+    @Test
+    void shouldBeConsultedByRihn() throws IOException {
+        try (MappedCompoundStore store = MappedCompoundStore.open(file())) {
+            Rihn.setStore(store);
+            Rihn.getCompound("propane");
+            assertNotNull(store.get("propane"));
+
+            StageTimings timings = new StageTimings();
+            Rihn.getCompound("propane", timings);
+            assertTrue(timings.isRecorded(StageTimings.Stage.STORE));
+            assertFalse(timings.isRecorded(StageTimings.Stage.LEX));
+        } finally {
+            Rihn.setStore(null);
+        }
+    }
+
+}
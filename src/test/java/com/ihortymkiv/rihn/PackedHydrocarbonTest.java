@@ -0,0 +1,134 @@
+package com.ihortymkiv.rihn;
+
+import com.ihortymkiv.chemistry.CompoundBinaryWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.ihortymkiv.rihn.PackedHydrocarbon.NOT_PACKED;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedHydrocarbonTest {
+
+    @Test
+    void shouldRoundTripEnumeratedNames() {
+        List<String> names = new ArrayList<>();
+        for (boolean cyclic : new boolean[]{false, true}) {
+            new IsomerEnumerator().enumerate(1, 14, cyclic, 2, 1, isomer -> add(names, isomer.name()));
+            new IsomerEnumerator().enumerate(1, 12, cyclic, 3, 0, isomer -> add(names, isomer.name()));
+        }
+        names.addAll(List.of("cyclo" + Keywords.stem(Keywords.MAX_NUMERAL) + "ane", "pentacos-24-yne"));
+
+        Set<Long> packedValues = new HashSet<>();
+        for (String name : names) {
+            Hydrocarbon hydrocarbon = hydrocarbon(name);
+            long packed = PackedHydrocarbon.encode(hydrocarbon);
+
+            assertNotEquals(NOT_PACKED, packed, name);
+            assertEquals(name, PackedHydrocarbon.name(packed));
+            assertEquals(hydrocarbon, PackedHydrocarbon.decode(packed), name);
+            assertTrue(packedValues.add(packed), name);
+        }
+    }
+
+    @Test
+    void shouldNotPackNonCanonicalAsts() {
+        for (String name : List.of("hexacos-25-ene", "penta-3,2-diene", "penta-2,2-diene", "propa-1,2-triene",
+                "propa-1-diene", "hex-1-en-3,5-yne")) {
+            assertEquals(NOT_PACKED, PackedHydrocarbon.encode(hydrocarbon(name)), name);
+        }
+    }
+
+    @Test
+    void shouldPackNamesLikeTheirAsts() {
+        List<String> names = new ArrayList<>();
+        new IsomerEnumerator().enumerate(1, 10, false, 2, 1, isomer -> add(names, isomer.name()));
+        new IsomerEnumerator().enumerate(3, 8, true, 2, 1, isomer -> add(names, isomer.name()));
+        names.addAll(List.of("hexacos-25-ene", "penta-3,2-diene", "penta-2,2-diene", "propa-1,2-triene",
+                "propa-1-diene", "hex-1-en-3,5-yne", "hexa-1,3-dien-5-yne", "hexa-1,3-di-ene", "' OR 1=1 --", "",
+                "Cyclo" + Keywords.stem(Keywords.MAX_NUMERAL).toUpperCase() + "ANE", "dec-2147483648-ene"));
+
+        int packedCount = 0;
+        for (String name : names) {
+            for (int i = 0; i <= name.length(); i++) {
+                for (char c : "ae-,1".toCharArray()) {
+                    String mutated = name.substring(0, i) + c + name.substring(i);
+                    assertEquals(expectedPacked(mutated), PackedHydrocarbon.parse(mutated), mutated);
+                }
+            }
+            long packed = PackedHydrocarbon.parse(name);
+            assertEquals(expectedPacked(name), packed, name);
+            if (packed != NOT_PACKED) {
+                packedCount++;
+            }
+        }
+        assertTrue(packedCount > 150);
+    }
+
+    @Test
+    void shouldAgreeWithSemanticAnalyzer() {
+        Random random = new Random(49);
+        int packedCount = 0;
+        for (int i = 0; i < 50_000; i++) {
+            Hydrocarbon hydrocarbon = BatchSemanticAnalyzerTest.randomHydrocarbon(random);
+            long packed = PackedHydrocarbon.encode(hydrocarbon);
+            if (packed != NOT_PACKED) {
+                packedCount++;
+                assertEquals(BatchSemanticAnalyzerTest.expectedCode(hydrocarbon), PackedHydrocarbon.analyze(packed),
+                        PackedHydrocarbon.name(packed));
+            }
+        }
+        assertTrue(packedCount > 10_000);
+
+        for (String name : List.of("pent-4-en-1-yne", "pent-1-en-4-yne", "hex-2-en-3-yne", "hexa-1,2-diyne",
+                "prop-2-ene", "cycloethane", "meth-1-ene", "pent-5-ene")) {
+            Hydrocarbon hydrocarbon = hydrocarbon(name);
+            assertEquals(BatchSemanticAnalyzerTest.expectedCode(hydrocarbon),
+                    PackedHydrocarbon.analyze(PackedHydrocarbon.encode(hydrocarbon)), name);
+        }
+    }
+
+    @Test
+    void shouldGenerateSameCompoundAsAst() {
+        for (String name : List.of("methane", "cyclohexa-1,3-diene", "hex-1-en-5-yne", "dodeca-1,3,5,7,9,11-hexaene",
+                "tricos-11-yne")) {
+            Hydrocarbon hydrocarbon = hydrocarbon(name);
+            long packed = PackedHydrocarbon.encode(hydrocarbon);
+
+            assertArrayEquals(
+                    CompoundBinaryWriter.write(new CompoundGenerator().generateGraph(hydrocarbon)),
+                    CompoundBinaryWriter.write(new CompoundGenerator().generateGraph(packed)),
+                    name
+            );
+            CarbonSkeleton expected = new CompoundGenerator().generateSkeleton(hydrocarbon);
+            CarbonSkeleton actual = new CompoundGenerator().generateSkeleton(packed);
+            assertEquals(expected.isCyclic(), actual.isCyclic());
+            for (int carbon = 0; carbon < expected.carbons(); carbon++) {
+                assertEquals(expected.bondOrder(carbon), actual.bondOrder(carbon), name);
+            }
+        }
+    }
+
+    private static synchronized void add(List<String> names, String name) {
+        names.add(name);
+    }
+
+    /**
+     * @return the packed AST of a name, {@link PackedHydrocarbon#NOT_PACKED} if the front end rejects it
+     */
+    private static long expectedPacked(String name) {
+        try {
+            return PackedHydrocarbon.encode(hydrocarbon(name));
+        } catch (LexerException | ParserException e) {
+            return NOT_PACKED;
+        }
+    }
+
+    private static Hydrocarbon hydrocarbon(String name) {
+        return new Parser(new Lexer(name).scanTokens()).parse();
+    }
+}
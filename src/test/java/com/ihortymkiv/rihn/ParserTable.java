@@ -0,0 +1,107 @@
+package com.ihortymkiv.rihn;
+
+/**
+ * LL(1) parse table of docs/grammar.ebnf, driven by the {@link TableParser}.
+ * <p>
+ * Generated by {@code ParserTableGenerator} in the test sources, do not edit. Symbols are numbered
+ * terminals first: symbol {@code s} is the terminal {@code s} if {@code s < TERMINALS.length},
+ * otherwise the rule {@code s - TERMINALS.length}.
+ */
+final class ParserTable {
+    /**
+     * Quoted strings, the rules the scanner matches as a whole and "$" after the end of the name.
+     */
+    static final String[] TERMINALS = {
+            "$",
+            "\"cyclo\"",
+            "stem",
+            "\"e\"",
+            "\"an\"",
+            "\"en\"",
+            "\"yn\"",
+            "\"a\"",
+            "multiplying_affix",
+            "\"-\"",
+            "number",
+            "\",\"",
+    };
+
+    /**
+     * Rules of the grammar, the start rule first, and helper rules for groups, options and repetitions.
+     */
+    static final String[] RULES = {
+            "hydrocarbon",
+            "hydrocarbon#1",
+            "type",
+            "type_alkane",
+            "group",
+            "unsaturation",
+            "complex_group",
+            "simple_group",
+            "unsaturation#1",
+            "enyne_tail",
+            "locants",
+            "locant",
+            "enyne_group",
+            "locants#1",
+            "enyne_group#1",
+    };
+
+    /**
+     * Rule on the left-hand side of each production.
+     */
+    static final int[] PRODUCTION_RULES = {
+            1, 1, 0, 2, 2, 3, 4, 4, 8, 8, 5, 5, 6, 7, 9, 13, 13, 10, 11, 14, 14, 12
+    };
+
+    /**
+     * Symbols on the right-hand side of each production.
+     */
+    static final int[][] PRODUCTIONS = {
+            {1}, // hydrocarbon#1 ::= "cyclo"
+            {}, // hydrocarbon#1 ::= ε
+            {13, 2, 14, 3}, // hydrocarbon ::= hydrocarbon#1 stem type "e"
+            {15}, // type ::= type_alkane
+            {16, 17}, // type ::= group unsaturation
+            {4}, // type_alkane ::= "an"
+            {18}, // group ::= complex_group
+            {19}, // group ::= simple_group
+            {21}, // unsaturation#1 ::= enyne_tail
+            {}, // unsaturation#1 ::= ε
+            {5, 20}, // unsaturation ::= "en" unsaturation#1
+            {6}, // unsaturation ::= "yn"
+            {7, 22, 8}, // complex_group ::= "a" locants multiplying_affix
+            {23}, // simple_group ::= locant
+            {24, 6}, // enyne_tail ::= enyne_group "yn"
+            {11, 10, 25}, // locants#1 ::= "," number locants#1
+            {}, // locants#1 ::= ε
+            {9, 10, 25, 9}, // locants ::= "-" number locants#1 "-"
+            {9, 10, 9}, // locant ::= "-" number "-"
+            {8}, // enyne_group#1 ::= multiplying_affix
+            {}, // enyne_group#1 ::= ε
+            {22, 26}, // enyne_group ::= locants enyne_group#1
+    };
+
+    /**
+     * Production to expand each rule with for each terminal, -1 if the terminal can't follow.
+     */
+    static final int[][] TABLE = {
+            {-1, 2, 2, -1, -1, -1, -1, -1, -1, -1, -1, -1}, // hydrocarbon
+            {-1, 0, 1, -1, -1, -1, -1, -1, -1, -1, -1, -1}, // hydrocarbon#1
+            {-1, -1, -1, -1, 3, -1, -1, 4, -1, 4, -1, -1}, // type
+            {-1, -1, -1, -1, 5, -1, -1, -1, -1, -1, -1, -1}, // type_alkane
+            {-1, -1, -1, -1, -1, -1, -1, 6, -1, 7, -1, -1}, // group
+            {-1, -1, -1, -1, -1, 10, 11, -1, -1, -1, -1, -1}, // unsaturation
+            {-1, -1, -1, -1, -1, -1, -1, 12, -1, -1, -1, -1}, // complex_group
+            {-1, -1, -1, -1, -1, -1, -1, -1, -1, 13, -1, -1}, // simple_group
+            {-1, -1, -1, 9, -1, -1, -1, -1, -1, 8, -1, -1}, // unsaturation#1
+            {-1, -1, -1, -1, -1, -1, -1, -1, -1, 14, -1, -1}, // enyne_tail
+            {-1, -1, -1, -1, -1, -1, -1, -1, -1, 17, -1, -1}, // locants
+            {-1, -1, -1, -1, -1, -1, -1, -1, -1, 18, -1, -1}, // locant
+            {-1, -1, -1, -1, -1, -1, -1, -1, -1, 21, -1, -1}, // enyne_group
+            {-1, -1, -1, -1, -1, -1, -1, -1, -1, 16, -1, 15}, // locants#1
+            {-1, -1, -1, -1, -1, -1, 20, -1, 19, -1, -1, -1}, // enyne_group#1
+    };
+
+    private ParserTable() {}
+}
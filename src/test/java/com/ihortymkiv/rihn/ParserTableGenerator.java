@@ -0,0 +1,366 @@
+package com.ihortymkiv.rihn;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Generates the {@link ParserTable} of the {@link TableParser} from docs/grammar.ebnf.
+ * <p>
+ * The productions reachable from the start rule are rewritten without EBNF operators: every group, option and
+ * repetition becomes a helper rule named after the rule it appears in, e.g. {@code locants#1} for
+ * {@code ("," number)*}. Quoted strings and the rules the scanner of the parser matches as a whole
+ * ({@link #TOKEN_RULES}) are terminals. The table is filled from the FIRST and FOLLOW sets of the rules,
+ * and a cell claimed by two productions fails the generation, since the grammar has to stay LL(1).
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp target/classes:target/test-classes com.ihortymkiv.rihn.ParserTableGenerator}
+ * after changing the grammar. {@code ParserTableGeneratorTest} fails while the generated class is out of date.
+ */
+class ParserTableGenerator {
+    static final Path TABLE_PATH = Path.of("src", "test", "java", "com", "ihortymkiv", "rihn", "ParserTable.java");
+
+    /**
+     * Rules matched by the scanner of the {@link TableParser} instead of being parsed.
+     */
+    static final Set<String> TOKEN_RULES = Set.of("stem", "multiplying_affix", "number");
+
+    /**
+     * Terminal after the last symbol of a name.
+     */
+    static final String END = "$";
+
+    /**
+     * @param rule index of the rule on the left-hand side
+     * @param symbols right-hand side, empty for the empty production
+     */
+    private record Production(int rule, List<Symbol> symbols) {}
+
+    private record Symbol(String name, boolean terminal) {}
+
+    private final Grammar grammar;
+    private final List<String> terminals = new ArrayList<>(List.of(END));
+    private final List<String> rules = new ArrayList<>();
+    private final List<Production> productions = new ArrayList<>();
+    private final Map<String, Integer> helpers = new HashMap<>();
+    private final Deque<String> pending = new ArrayDeque<>();
+
+    private ParserTableGenerator(Grammar grammar) {
+        this.grammar = grammar;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path grammar = args.length > 0 ? Path.of(args[0]) : Grammar.DEFAULT_PATH;
+        Files.writeString(TABLE_PATH, generate(Grammar.read(grammar)));
+        System.out.println("Wrote " + TABLE_PATH);
+    }
+
+    /**
+     * @return source of the {@link ParserTable} class
+     * @throws IllegalStateException if the grammar is not LL(1)
+     * @throws IllegalArgumentException if the grammar uses a rule it doesn't define, or an operator the parser
+     *                                  can't handle outside token rules
+     */
+    static String generate(Grammar grammar) {
+        return new ParserTableGenerator(grammar).run();
+    }
+
+    private String run() {
+        rule(grammar.start());
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            Grammar.Expression expression = grammar.production(name);
+            List<Grammar.Expression> alternatives = expression instanceof Grammar.Choice choice
+                    ? choice.alternatives()
+                    : List.of(expression);
+            addProductions(name, alternatives);
+        }
+
+        int[][] table = table();
+        return source(table);
+    }
+
+    /**
+     * Returns the symbol of a rule, queueing its productions when it is first seen.
+     */
+    private Symbol rule(String name) {
+        if (TOKEN_RULES.contains(name)) {
+            return terminal(name);
+        }
+        if (!rules.contains(name)) {
+            grammar.production(name);
+            rules.add(name);
+            pending.add(name);
+        }
+        return new Symbol(name, false);
+    }
+
+    private Symbol terminal(String name) {
+        if (!terminals.contains(name)) {
+            terminals.add(name);
+        }
+        return new Symbol(name, true);
+    }
+
+    private void addProductions(String name, List<Grammar.Expression> alternatives) {
+        int rule = rules.indexOf(name);
+        for (Grammar.Expression alternative : alternatives) {
+            productions.add(new Production(rule, symbols(name, alternative)));
+        }
+    }
+
+    private List<Symbol> symbols(String owner, Grammar.Expression expression) {
+        return switch (expression) {
+            case Grammar.Terminal terminal -> List.of(terminal('"' + terminal.text() + '"'));
+            case Grammar.NonTerminal rule -> List.of(rule(rule.name()));
+            case Grammar.Sequence sequence -> {
+                List<Symbol> symbols = new ArrayList<>();
+                for (Grammar.Expression item : sequence.items()) {
+                    symbols.addAll(symbols(owner, item));
+                }
+                yield symbols;
+            }
+            case Grammar.Choice choice -> List.of(helper(owner, choice.alternatives(), false));
+            case Grammar.Repeat repeat when repeat.min() == 0 && repeat.max() == 1 ->
+                    List.of(helper(owner, List.of(repeat.item()), true));
+            case Grammar.Repeat repeat when repeat.min() == 0 && repeat.max() < 0 -> List.of(star(owner, repeat.item()));
+            case Grammar.Repeat repeat when repeat.min() == 1 && repeat.max() < 0 -> {
+                List<Symbol> symbols = new ArrayList<>(symbols(owner, repeat.item()));
+                symbols.add(star(owner, repeat.item()));
+                yield symbols;
+            }
+            case Grammar.Repeat repeat -> throw new IllegalArgumentException(
+                    "Unsupported repetition {" + repeat.min() + "," + repeat.max() + "} in " + owner
+            );
+            case Grammar.Without without -> throw new IllegalArgumentException(
+                    "'without its terminal' is only allowed in token rules, found in " + owner
+            );
+        };
+    }
+
+    /**
+     * Adds a helper rule with one production per alternative, and an empty one if {@code optional}.
+     */
+    private Symbol helper(String owner, List<Grammar.Expression> alternatives, boolean optional) {
+        String name = newHelper(owner);
+        int rule = rules.indexOf(name);
+        for (Grammar.Expression alternative : alternatives) {
+            productions.add(new Production(rule, symbols(owner, alternative)));
+        }
+        if (optional) {
+            productions.add(new Production(rule, List.of()));
+        }
+        return new Symbol(name, false);
+    }
+
+    /**
+     * Adds the right recursive helper rule {@code H ::= item H | ε}.
+     */
+    private Symbol star(String owner, Grammar.Expression item) {
+        String name = newHelper(owner);
+        int rule = rules.indexOf(name);
+        List<Symbol> symbols = new ArrayList<>(symbols(owner, item));
+        symbols.add(new Symbol(name, false));
+        productions.add(new Production(rule, symbols));
+        productions.add(new Production(rule, List.of()));
+        return new Symbol(name, false);
+    }
+
+    private String newHelper(String owner) {
+        String name = owner + "#" + helpers.merge(owner, 1, Integer::sum);
+        rules.add(name);
+        return name;
+    }
+
+    /**
+     * @return for each rule and terminal, the production to expand the rule with, -1 for none
+     */
+    private int[][] table() {
+        int count = rules.size();
+        boolean[] nullable = new boolean[count];
+        BitSet[] first = new BitSet[count];
+        BitSet[] follow = new BitSet[count];
+        for (int rule = 0; rule < count; rule++) {
+            first[rule] = new BitSet();
+            follow[rule] = new BitSet();
+        }
+        follow[0].set(terminals.indexOf(END));
+
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (Production production : productions) {
+                BitSet before = (BitSet) first[production.rule].clone();
+                boolean nullableSymbols = first(production.symbols, first, nullable, first[production.rule]);
+                if (nullableSymbols && !nullable[production.rule]) {
+                    nullable[production.rule] = true;
+                    changed = true;
+                }
+                changed |= !before.equals(first[production.rule]);
+            }
+        }
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (Production production : productions) {
+                List<Symbol> symbols = production.symbols;
+                for (int i = 0; i < symbols.size(); i++) {
+                    if (symbols.get(i).terminal) {
+                        continue;
+                    }
+                    BitSet target = follow[rules.indexOf(symbols.get(i).name)];
+                    BitSet before = (BitSet) target.clone();
+                    if (first(symbols.subList(i + 1, symbols.size()), first, nullable, target)) {
+                        target.or(follow[production.rule]);
+                    }
+                    changed |= !before.equals(target);
+                }
+            }
+        }
+
+        int[][] table = new int[count][terminals.size()];
+        for (int[] row : table) {
+            Arrays.fill(row, -1);
+        }
+        List<String> conflicts = new ArrayList<>();
+        for (int p = 0; p < productions.size(); p++) {
+            Production production = productions.get(p);
+            BitSet lookahead = new BitSet();
+            if (first(production.symbols, first, nullable, lookahead)) {
+                lookahead.or(follow[production.rule]);
+            }
+            for (int t = lookahead.nextSetBit(0); t >= 0; t = lookahead.nextSetBit(t + 1)) {
+                int[] row = table[production.rule];
+                if (row[t] >= 0) {
+                    conflicts.add(String.format("%s on %s: %s | %s", rules.get(production.rule), terminals.get(t),
+                            text(productions.get(row[t])), text(production)));
+                } else {
+                    row[t] = p;
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Grammar is not LL(1):\n" + String.join("\n", conflicts));
+        }
+        return table;
+    }
+
+    /**
+     * Adds the FIRST set of a sequence of symbols to {@code into}.
+     *
+     * @return whether the whole sequence can be empty
+     */
+    private boolean first(List<Symbol> symbols, BitSet[] first, boolean[] nullable, BitSet into) {
+        for (Symbol symbol : symbols) {
+            if (symbol.terminal) {
+                into.set(terminals.indexOf(symbol.name));
+                return false;
+            }
+            int rule = rules.indexOf(symbol.name);
+            into.or(first[rule]);
+            if (!nullable[rule]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String source(int[][] table) {
+        StringBuilder out = new StringBuilder();
+        out.append("""
+                package com.ihortymkiv.rihn;
+
+                /**
+                 * LL(1) parse table of docs/grammar.ebnf, driven by the {@link TableParser}.
+                 * <p>
+                 * Generated by {@code ParserTableGenerator} in the test sources, do not edit. Symbols are numbered
+                 * terminals first: symbol {@code s} is the terminal {@code s} if {@code s < TERMINALS.length},
+                 * otherwise the rule {@code s - TERMINALS.length}.
+                 */
+                final class ParserTable {
+                    /**
+                     * Quoted strings, the rules the scanner matches as a whole and "$" after the end of the name.
+                     */
+                    static final String[] TERMINALS = {
+                """);
+        terminals.forEach(terminal -> out.append("            ").append(literal(terminal)).append(",\n"));
+        out.append("""
+                    };
+
+                    /**
+                     * Rules of the grammar, the start rule first, and helper rules for groups, options and repetitions.
+                     */
+                    static final String[] RULES = {
+                """);
+        rules.forEach(rule -> out.append("            ").append(literal(rule)).append(",\n"));
+        out.append("""
+                    };
+
+                    /**
+                     * Rule on the left-hand side of each production.
+                     */
+                    static final int[] PRODUCTION_RULES = {
+                """);
+        StringJoiner productionRules = new StringJoiner(", ", "            ", "\n");
+        productions.forEach(production -> productionRules.add(Integer.toString(production.rule)));
+        out.append(productionRules).append("""
+                    };
+
+                    /**
+                     * Symbols on the right-hand side of each production.
+                     */
+                    static final int[][] PRODUCTIONS = {
+                """);
+        for (Production production : productions) {
+            StringJoiner symbols = new StringJoiner(", ", "{", "},");
+            for (Symbol symbol : production.symbols) {
+                int index = symbol.terminal
+                        ? terminals.indexOf(symbol.name)
+                        : terminals.size() + rules.indexOf(symbol.name);
+                symbols.add(Integer.toString(index));
+            }
+            out.append("            ").append(symbols).append(" // ").append(text(production)).append('\n');
+        }
+        out.append("""
+                    };
+
+                    /**
+                     * Production to expand each rule with for each terminal, -1 if the terminal can't follow.
+                     */
+                    static final int[][] TABLE = {
+                """);
+        for (int rule = 0; rule < table.length; rule++) {
+            StringJoiner row = new StringJoiner(", ", "{", "},");
+            for (int production : table[rule]) {
+                row.add(Integer.toString(production));
+            }
+            out.append("            ").append(row).append(" // ").append(rules.get(rule)).append('\n');
+        }
+        out.append("""
+                    };
+
+                    private ParserTable() {}
+                }
+                """);
+        return out.toString();
+    }
+
+    private String text(Production production) {
+        StringJoiner text = new StringJoiner(" ", rules.get(production.rule) + " ::= ", "");
+        text.setEmptyValue(rules.get(production.rule) + " ::= ε");
+        production.symbols.forEach(symbol -> text.add(symbol.name));
+        return text.toString();
+    }
+
+    private static String literal(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,53 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserTableGeneratorTest {
+
+    @Test
+    void shouldMatchGeneratedTable() throws IOException {
+        String generated = ParserTableGenerator.generate(Grammar.read(Grammar.DEFAULT_PATH));
+        assertEquals(generated, Files.readString(ParserTableGenerator.TABLE_PATH),
+                "ParserTable is out of date, run ParserTableGenerator");
+    }
+
+    @Test
+    void shouldRewriteOptionsAndRepetitions() {
+        String source = ParserTableGenerator.generate(Grammar.parse("""
+                list ::= "(" item ("," item)* ")" "!"?
+                item ::= "x"+ | number
+                """));
+
+        assertTrue(source.contains("// list#1 ::= \",\" item list#1"));
+        assertTrue(source.contains("// list#1 ::= ε"));
+        assertTrue(source.contains("// list#2 ::= \"!\""));
+        assertTrue(source.contains("// item ::= \"x\" item#1"));
+        assertTrue(source.contains("// item#1 ::= \"x\" item#1"));
+        assertTrue(source.contains("// item ::= number"));
+    }
+
+    @Test
+    void shouldRejectGrammarThatIsNotLL1() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                ParserTableGenerator.generate(Grammar.parse("""
+                        type ::= group "en" | group "yn"
+                        group ::= "-" number "-"
+                        """)));
+        assertEquals("""
+                Grammar is not LL(1):
+                type on "-": type ::= group "en" | type ::= group "yn\"""", exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectTerminalRemovalOutsideTokenRules() {
+        assertThrows(IllegalArgumentException.class, () -> ParserTableGenerator.generate(Grammar.parse("""
+                name ::= word without its terminal "a"
+                word ::= "ab"
+                """)));
+    }
+}
@@ -10,14 +10,20 @@ import static com.ihortymkiv.rihn.TokenType.*;
 
 class ParserTest {
 
+    /**
+     * Runs the front end under test, the {@link Lexer} followed by the {@link Parser}.
+     */
+    Hydrocarbon parse(String name) {
+        return new Parser(new Lexer(name).scanTokens()).parse();
+    }
+
     private Token word(String lexeme, int location) {
         return new Token(WORD, lexeme, location);
     }
 
     @Test
     void shouldParseSimpleCyclicHydrocarbon() {
-        List<Token> tokens = new Lexer("cyclopropane").scanTokens();
-        Hydrocarbon hydrocarbon = new Parser(tokens).parse();
+        Hydrocarbon hydrocarbon = parse("cyclopropane");
         Hydrocarbon expected = new Hydrocarbon(
                 true,
                 new Stem(word("prop", 5), 3),
@@ -28,8 +34,7 @@ class ParserTest {
 
     @Test
     void shouldParseCyclicHydrocarbonWithLocants() {
-        List<Token> tokens = new Lexer("cyclohexa-1,3,5-triene").scanTokens();
-        Hydrocarbon hydrocarbon = new Parser(tokens).parse();
+        Hydrocarbon hydrocarbon = parse("cyclohexa-1,3,5-triene");
         Hydrocarbon expected = new Hydrocarbon(
                 true,
                 new Stem(word("hex", 5), 6),
@@ -45,8 +50,7 @@ class ParserTest {
 
     @Test
     void shouldParseSimpleAlkyne() {
-        List<Token> tokens = new Lexer("eth-1-yne").scanTokens();
-        Hydrocarbon hydrocarbon = new Parser(tokens).parse();
+        Hydrocarbon hydrocarbon = parse("eth-1-yne");
         Hydrocarbon expected = new Hydrocarbon(
                 false,
                 new Stem(word("eth", 0), 2),
@@ -59,8 +63,7 @@ class ParserTest {
 
     @Test
     void shouldParseAlkeneWithSingleLocant() {
-        List<Token> tokens = new Lexer("prop-1-ene").scanTokens();
-        Hydrocarbon hydrocarbon = new Parser(tokens).parse();
+        Hydrocarbon hydrocarbon = parse("prop-1-ene");
         Hydrocarbon expected = new Hydrocarbon(
                 false,
                 new Stem(word("prop", 0), 3),
@@ -73,8 +76,7 @@ class ParserTest {
 
     @Test
     void shouldParseAlkeneWithLocants() {
-        List<Token> tokens = new Lexer("propa-1,2-diene").scanTokens();
-        Hydrocarbon hydrocarbon = new Parser(tokens).parse();
+        Hydrocarbon hydrocarbon = parse("propa-1,2-diene");
         Hydrocarbon expected = new Hydrocarbon(
                 false,
                 new Stem(word("prop", 0), 3),
@@ -90,8 +92,7 @@ class ParserTest {
 
     @Test
     void shouldParseEnyne() {
-        List<Token> tokens = new Lexer("hepta-1,5-dien-3-yne").scanTokens();
-        Hydrocarbon hydrocarbon = new Parser(tokens).parse();
+        Hydrocarbon hydrocarbon = parse("hepta-1,5-dien-3-yne");
         Hydrocarbon expected = new Hydrocarbon(
                 false,
                 new Stem(word("hept", 0), 7),
@@ -113,72 +114,109 @@ class ParserTest {
         assertEquals(expected, hydrocarbon);
     }
 
+    @Test
+    void shouldParseCompositionalStemWithMultiDigitLocants() {
+        Hydrocarbon hydrocarbon = parse("dotriacontahecta-1,31-dien-100-yne");
+        Hydrocarbon expected = new Hydrocarbon(
+                false,
+                new Stem(word("dotriacontahect", 0), 132),
+                new Type.Enyne(
+                        new Type.Alkene(
+                                new Group(
+                                        new Locants(List.of(1, 31)),
+                                        new MultiplyingAffix(word("di", 22), 2)
+                                )
+                        ),
+                        new Type.Alkyne(
+                                new Group(
+                                        new Locants(List.of(100)),
+                                        null
+                                )
+                        )
+                )
+        );
+        assertEquals(expected, hydrocarbon);
+    }
+
+    @Test
+    void shouldParseLongestStem() {
+        assertEquals(16, parse("cyclohexadecane").stem.value);
+        assertEquals(6, parse("hexa-1,3-diene").stem.value);
+        assertEquals(1000, parse("kiliane").stem.value);
+    }
+
+    @Test
+    void shouldParseCompositionalMultiplyingAffix() {
+        Hydrocarbon hydrocarbon = parse("tetracosa-1,3,5,7,9,11,13,15,17,19,21,23-dodecaene");
+        Type.Alkene alkene = assertInstanceOf(Type.Alkene.class, hydrocarbon.type);
+        assertEquals(24, hydrocarbon.stem.value);
+        assertEquals(12, alkene.group.multiplyingAffix.value);
+    }
+
+    @Test
+    void shouldThrowForTooLargeLocant() {
+        ParserException exception = assertThrows(ParserException.class, () -> parse("dec-12345678901-ene"));
+        assertTrue(exception.getMessage().contains("Locant is too large"));
+        assertEquals("12345678901", exception.getToken().lexeme());
+    }
+
     @Test
     void shouldThrowForInvalidEnyne() {
-        List<Token> tokens = new Lexer("hepta-1,5-diyn-3-ene").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("hepta-1,5-diyn-3-ene"));
         assertTrue(exception.getMessage().contains("Ending expected"));
         assertEquals("-", exception.getToken().lexeme());
     }
 
     @Test
     void shouldThrowForMissingStem() {
-        List<Token> tokens = new Lexer("cycloyne").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("cycloyne"));
         assertTrue(exception.getMessage().contains("Stem expected"));
         assertEquals("yn", exception.getToken().lexeme());
     }
 
     @Test
     void shouldThrowForMissingSuffix() {
-        List<Token> tokens = new Lexer("cyclomethne").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("cyclomethne"));
         assertTrue(exception.getMessage().contains("Hyphen expected"));
         assertEquals("n", exception.getToken().lexeme());
     }
 
     @Test
     void shouldThrowForHydrocarbonWithConnectorButWithSimpleGroup() {
-        List<Token> tokens = new Lexer("propa-5-ene").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("propa-5-ene"));
         assertTrue(exception.getMessage().contains("Complex group with multiplying affix expected"));
         assertEquals("-", exception.getToken().lexeme());
     }
 
     @Test
     void shouldThrowForHydrocarbonWithoutConnectorButWithComplexGroup() {
-        List<Token> tokens = new Lexer("prop-5-diene").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("prop-5-diene"));
         assertTrue(exception.getMessage().contains("Suffix 'en' or 'yn' expected"));
         assertEquals("dien", exception.getToken().lexeme());
     }
 
     @Test
     void shouldThrowForHydrocarbonWithInvalidEnding() {
-        List<Token> tokens = new Lexer("prop-5-en").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("prop-5-en"));
         assertTrue(exception.getMessage().contains("Ending expected"));
         assertEquals("", exception.getToken().lexeme());
     }
 
     @Test
     void shouldThrowForUnterminatedLocants() {
-        List<Token> tokens = new Lexer("prop-5").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("prop-5"));
         assertTrue(exception.getMessage().contains("Unterminated locants."));
     }
 
     @Test
     void shouldThrowForMalformedLocants() {
-        List<Token> tokens = new Lexer("prop-1,a-ene").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("prop-1,a-ene"));
         assertTrue(exception.getMessage().contains("Digit expected"));
     }
 
     @Test
     void shouldThrowForMultipleLocantsWhenSingleExpected() {
-        List<Token> tokens = new Lexer("dec-1,2,3,4,5,6,7,8,9-ene").scanTokens();
-        ParserException exception = assertThrows(ParserException.class, () -> new Parser(tokens).parse());
+        ParserException exception = assertThrows(ParserException.class, () -> parse("dec-1,2,3,4,5,6,7,8,9-ene"));
         assertTrue(exception.getMessage().contains("Only one locant expected"));
     }
 
@@ -0,0 +1,152 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RihnTest {
+
+    @Test
+    void shouldRejectLongInputBeforeLexing() {
+        InputLimits limits = new InputLimits(8, 100);
+
+        LimitExceededException e = assertThrows(
+                LimitExceededException.class, () -> Rihn.getCompound("%".repeat(9), limits, null)
+        );
+        assertEquals("Name exceeds the maximum length of 8 characters.", e.getMessage());
+        assertNotNull(Rihn.getCompound("octane", limits, null));
+    }
+
+    @Test
+    void shouldRejectLongChainAfterParsing() {
+        InputLimits limits = new InputLimits(100, 10);
+
+        LimitExceededException e = assertThrows(
+                LimitExceededException.class, () -> Rihn.getSkeleton("undecane", limits, null)
+        );
+        assertEquals("Chain of 11 carbons exceeds the maximum of 10.", e.getMessage());
+        assertNotNull(Rihn.getSkeleton("decane", limits, null));
+        // Limits apply to the call they are passed to only
+        assertNotNull(Rihn.getSkeleton("undecane", null));
+    }
+
+    @Test
+    void shouldRejectMalformedNameBeforeLexing() {
+        assertFalse(Rihn.isWellFormed("' OR 1=1 --"));
+        assertTrue(Rihn.isWellFormed("hex-2-en-4-yne"));
+
+        LexerException e = assertThrows(LexerException.class, () -> Rihn.getCompound("' OR 1=1 --"));
+        assertEquals("Unexpected character ''' at position 0.", e.getMessage());
+        assertThrows(ParserException.class, () -> Rihn.getSkeleton("hexa-1,3-di-ene", null));
+    }
+
+    @Test
+    void shouldAnalyzeNamesReadInPlace() {
+        byte[] lines = "propane\nCycloHEXA-1,3-diene\nhexa-1,3-di-ene".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer line = ByteBuffer.wrap(lines, 8, 19);
+
+        CarbonSkeleton expected = Rihn.getSkeleton("cyclohexa-1,3-diene", null);
+        CarbonSkeleton actual = Rihn.getSkeleton(line, InputLimits.NONE, null);
+        assertEquals(8, line.position());
+        assertEquals(expected.isCyclic(), actual.isCyclic());
+        for (int carbon = 0; carbon < expected.carbons(); carbon++) {
+            assertEquals(expected.bondOrder(carbon), actual.bondOrder(carbon));
+        }
+        assertThrows(ParserException.class,
+                () -> Rihn.getSkeleton(ByteBuffer.wrap(lines, 28, 15), InputLimits.NONE, null));
+        assertThrows(LimitExceededException.class,
+                () -> Rihn.getSkeleton(ByteBuffer.wrap(lines, 8, 19), new InputLimits(10, 10), null));
+    }
+
+    @Test
+    void shouldShareConcurrentSkeletonRun() throws InterruptedException {
+        CarbonSkeleton shared = Rihn.getSkeleton("propane", null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = Thread.ofPlatform().start(() -> Rihn.SKELETONS_IN_FLIGHT.run(new Rihn.Flight("propane", InputLimits.NONE), () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return shared;
+        }, null));
+        started.await();
+
+        StageTimings timings = new StageTimings();
+        AtomicReference<CarbonSkeleton> result = new AtomicReference<>();
+        Thread waiter = Thread.ofPlatform().start(() -> result.set(Rihn.getSkeleton("propane", timings)));
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (waiter.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "Caller did not block");
+            Thread.sleep(1);
+        }
+        release.countDown();
+        leader.join();
+        waiter.join();
+
+        assertSame(shared, result.get());
+        assertTrue(timings.isRecorded(StageTimings.Stage.COALESCE));
+        assertFalse(timings.isRecorded(StageTimings.Stage.LEX));
+    }
+
+    @Test
+    void shouldNotShareRunsAcrossLimits() throws InterruptedException {
+        CarbonSkeleton shared = Rihn.getSkeleton("decane", null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = Thread.ofPlatform().start(
+                () -> Rihn.SKELETONS_IN_FLIGHT.run(new Rihn.Flight("decane", InputLimits.NONE), () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return shared;
+                }, null));
+        started.await();
+        try {
+            // Neither waits for the unlimited run in flight, each gets the outcome of its own limits
+            assertThrows(LimitExceededException.class,
+                    () -> Rihn.getSkeleton("decane", new InputLimits(1024, 5), null));
+            CarbonSkeleton looser = Rihn.getSkeleton("decane", new InputLimits(1024, 20), null);
+            assertNotSame(shared, looser);
+            assertEquals(10, looser.carbons());
+        } finally {
+            release.countDown();
+            leader.join();
+        }
+    }
+
+    @Test
+    void shouldAdmitOnlyTheCallerRunningThePipeline() {
+        AtomicInteger admitted = new AtomicInteger();
+        PipelineAdmission counting = new PipelineAdmission() {
+            @Override
+            public <T> T run(Supplier<T> pipeline) {
+                admitted.incrementAndGet();
+                return pipeline.get();
+            }
+        };
+
+        assertNotNull(Rihn.getSkeleton("hexane", InputLimits.NONE, counting, null));
+        assertEquals(1, admitted.get());
+        // Names turned away before the pipeline take no admission
+        assertThrows(ParserException.class, () -> Rihn.getSkeleton("hexa-1,3-di-ene", InputLimits.NONE, counting, null));
+        assertEquals(1, admitted.get());
+    }
+
+    @Test
+    void shouldRejectNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new InputLimits(0, 10));
+    }
+}
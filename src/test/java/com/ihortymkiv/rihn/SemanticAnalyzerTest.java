@@ -85,6 +85,25 @@ class SemanticAnalyzerTest {
         assertTrue(exception.getMessage().contains("Alkene locant (4) expected to be lower than alkyne's (1)."));
     }
 
+    @Test
+    void shouldAcceptMultiDigitLocants() {
+        assertDoesNotThrow(() -> semanticAnalyzer.analyze(hydrocarbon("undec-5-ene")));
+        assertDoesNotThrow(() -> semanticAnalyzer.analyze(hydrocarbon("cyclododeca-1,3,5,7,9,11-hexaene")));
+    }
+
+    @Test
+    void shouldThrowForInvalidMultiDigitLocant() {
+        SemanticAnalyzerException exception = assertThrows(
+                SemanticAnalyzerException.class, () -> semanticAnalyzer.analyze(hydrocarbon("undec-11-ene"))
+        );
+        assertTrue(exception.getMessage().contains("must be in range (0, 11)"));
+
+        exception = assertThrows(
+                SemanticAnalyzerException.class, () -> semanticAnalyzer.analyze(hydrocarbon("dodec-10-ene"))
+        );
+        assertTrue(exception.getMessage().contains("Lowest set of locants rule violated, [10] could be [2]"));
+    }
+
     private Hydrocarbon hydrocarbon(String input) {
         return new Parser(new Lexer(input).scanTokens()).parse();
     }
@@ -0,0 +1,121 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private static final int KEYS = 8;
+    private static final int CALLERS_PER_KEY = 32;
+
+    /**
+     * Waits until every thread is blocked, i.e. has either started the computation or joined one in flight.
+     */
+    private static void awaitBlocked(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!threads.stream().allMatch(t -> t.getState() == Thread.State.WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not block");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void shouldComputeOncePerKeyUnderContention() throws InterruptedException {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        Map<String, AtomicInteger> computations = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> waits = new ConcurrentHashMap<>();
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Thread, String> results = new ConcurrentHashMap<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int key = 0; key < KEYS; key++) {
+            String name = "key" + key;
+            for (int caller = 0; caller < CALLERS_PER_KEY; caller++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    String result = singleFlight.run(name, () -> {
+                        computations.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return name.toUpperCase();
+                    }, waited -> waits.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet());
+                    results.put(Thread.currentThread(), result);
+                }));
+            }
+        }
+        awaitBlocked(threads);
+        assertEquals(KEYS, singleFlight.inFlight());
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(1, computations.get("key" + key).get());
+            assertEquals(CALLERS_PER_KEY - 1, waits.get("key" + key).get());
+        }
+        assertEquals(KEYS * CALLERS_PER_KEY, results.size());
+        results.values().forEach(result -> assertTrue(result.startsWith("KEY")));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void shouldShareFailure() throws InterruptedException {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("Invalid");
+        AtomicReference<List<Throwable>> thrown = new AtomicReference<>(new ArrayList<>());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int caller = 0; caller < CALLERS_PER_KEY; caller++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    singleFlight.run("key", () -> {
+                        computations.incrementAndGet();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        throw failure;
+                    }, null);
+                } catch (RuntimeException e) {
+                    synchronized (thrown) {
+                        thrown.get().add(e);
+                    }
+                }
+            }));
+        }
+        awaitBlocked(threads);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(CALLERS_PER_KEY, thrown.get().size());
+        thrown.get().forEach(e -> assertSame(failure, e));
+    }
+
+    @Test
+    void shouldRecomputeOnceFinished() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.run("key", computations::incrementAndGet, null);
+        singleFlight.run("key", computations::incrementAndGet, null);
+
+        assertEquals(2, computations.get());
+    }
+}
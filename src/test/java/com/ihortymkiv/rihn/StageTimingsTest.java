@@ -0,0 +1,47 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import static com.ihortymkiv.rihn.StageTimings.Stage.*;
+
+class StageTimingsTest {
+
+    @Test
+    void shouldFormatRecordedStagesInOrder() {
+        StageTimings timings = new StageTimings();
+        timings.record(PARSE, 2_500_000);
+        timings.record(LEX, 1_000_000);
+        timings.record(LEX, 250_000);
+
+        assertEquals("lex;dur=1.250, parse;dur=2.500", timings.toServerTiming());
+    }
+
+    @Test
+    void shouldBeEmptyWhenNothingRecorded() {
+        assertEquals("", new StageTimings().toServerTiming());
+    }
+
+    @Test
+    void shouldRecordAllCompilerStages() {
+        StageTimings timings = new StageTimings();
+        Rihn.getCompound("hex-2-en-4-yne", timings);
+
+        assertTrue(timings.isRecorded(LEX));
+        assertTrue(timings.isRecorded(PARSE));
+        assertTrue(timings.isRecorded(ANALYZE));
+        assertTrue(timings.isRecorded(GENERATE));
+        assertFalse(timings.isRecorded(SERIALIZE));
+    }
+
+    @Test
+    void shouldRecordFailingStage() {
+        StageTimings timings = new StageTimings();
+        assertThrows(ParserException.class, () -> Rihn.getCompound("prop-1-enx", timings));
+
+        assertTrue(timings.isRecorded(PARSE));
+        assertFalse(timings.isRecorded(ANALYZE));
+    }
+
+}
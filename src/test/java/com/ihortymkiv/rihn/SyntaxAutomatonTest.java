@@ -0,0 +1,115 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the {@link SyntaxAutomaton} with the {@link Lexer} and {@link Parser} on generated names,
+ * every keyword and their misspellings.
+ */
+class SyntaxAutomatonTest {
+
+    @Test
+    void shouldAcceptEveryKeyword() {
+        for (int n = 1; n <= Keywords.MAX_NUMERAL; n++) {
+            String stem = Keywords.stem(n);
+            assertSameVerdict(stem + "ane");
+            assertSameVerdict("cyclo" + stem + "-1-ene");
+            assertSameVerdict(stem + "-1-en-3-yne");
+            if (n > 1) {
+                String affix = Keywords.multiplyingAffix(n);
+                assertSameVerdict("hexa-1,3-" + affix + "ene");
+                assertSameVerdict("hexa-1,3-" + affix + "yne");
+                assertSameVerdict("hexa-1,3-" + affix + "en-5,7-" + affix + "yne");
+            }
+        }
+    }
+
+    @Test
+    void shouldAgreeWithFrontEndOnGeneratedNames() {
+        List<String> names = new ArrayList<>();
+        new IsomerEnumerator().enumerate(1, 12, false, 0, 0, isomer -> add(names, isomer.name()));
+        new IsomerEnumerator().enumerate(3, 9, true, 2, 1, isomer -> add(names, isomer.name()));
+        new IsomerEnumerator().enumerate(4, 9, false, 1, 2, isomer -> add(names, isomer.name()));
+        names.addAll(List.of(
+                "kiliane", "dotriacontahecta-1,31-dien-100-yne", "tetracosa-1,3,5,7,9,11,13,15,17,19,21,23-dodecaene",
+                "cyclocyclopropane", "cyclo", "cycloe", "e", "", "-", "prop-1-e", "hex-1-en-3-e", "propa-1,2-cyclodiene",
+                "prop-1-en-", "prop-1-ene-", "propanee", "propa", "propane1", "hex-1-en-3-diyne", "hexa-1,3-di-ene"
+        ));
+
+        for (String name : names) {
+            assertSameVerdict(name);
+            for (int i = 0; i <= name.length(); i++) {
+                assertSameVerdict(name.substring(0, i) + name.substring(Math.min(i + 1, name.length())));
+                for (char c : "ae-,01n%".toCharArray()) {
+                    assertSameVerdict(name.substring(0, i) + c + name.substring(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldCompareLocantsWithLargestInteger() {
+        assertTrue(SyntaxAutomaton.accepts("dec-2147483647-ene"));
+        assertTrue(SyntaxAutomaton.accepts("dec-999999999-ene"));
+        assertTrue(SyntaxAutomaton.accepts("deca-1,1999999999-diene"));
+        assertFalse(SyntaxAutomaton.accepts("dec-2147483648-ene"));
+        assertFalse(SyntaxAutomaton.accepts("dec-2200000000-ene"));
+        assertFalse(SyntaxAutomaton.accepts("dec-10000000000-ene"));
+        assertFalse(SyntaxAutomaton.accepts("dec-05-ene"));
+    }
+
+    @Test
+    void shouldFoldCase() {
+        assertTrue(SyntaxAutomaton.accepts(new StringBuilder("CycloHEXA-1,3-DIENE")));
+        assertFalse(SyntaxAutomaton.accepts("cyclohexa-1,3-diéne"));
+    }
+
+    @Test
+    void shouldThrowLikeFrontEnd() {
+        for (String name : List.of("", "prop", "prop-1-ene+", "xyz-1-ene+", "propa-1,2-diene-", "dec-05-ene",
+                "dec-2147483648-ene", "CYCLOé", "hexa-1,3-di-ene", "prop-1-en-%")) {
+            assertEquals(outcome(() -> new Parser(new Lexer(name).scanTokens()).parse()),
+                    outcome(() -> SyntaxAutomaton.requireWellFormed(name)), name);
+        }
+        assertDoesNotThrow(() -> SyntaxAutomaton.requireWellFormed("hex-2-en-4-yne"));
+    }
+
+    private static void add(List<String> names, String name) {
+        synchronized (names) {
+            names.add(name);
+        }
+    }
+
+    private static void assertSameVerdict(String name) {
+        boolean valid;
+        try {
+            new Parser(new Lexer(name).scanTokens()).parse();
+            valid = true;
+        } catch (LexerException | ParserException e) {
+            valid = false;
+        }
+        assertEquals(valid, SyntaxAutomaton.accepts(name), name);
+    }
+
+    /**
+     * @return the class, message and token or position of the thrown exception
+     */
+    private static Object outcome(Runnable frontEnd) {
+        try {
+            frontEnd.run();
+            return "accepted";
+        } catch (ParserException e) {
+            return List.of(e.getClass(), e.getMessage(), e.getToken());
+        } catch (LexerException e) {
+            return List.of(e.getClass(), e.getMessage(), e.getLexeme(), e.getPosition());
+        } catch (RuntimeException e) {
+            return List.of(e.getClass(), Objects.toString(e.getMessage()));
+        }
+    }
+}
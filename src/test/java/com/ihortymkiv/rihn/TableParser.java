@@ -0,0 +1,324 @@
+package com.ihortymkiv.rihn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.stream.IntStream;
+
+import static com.ihortymkiv.rihn.TokenType.*;
+
+/**
+ * Table-driven LL(1) parser for the RIHNParser, an alternative to the recursive descent {@link Parser}.
+ * <p>
+ * It consumes the {@link Token}s of the {@link Lexer} and builds the same {@link Hydrocarbon} AST, driven by
+ * the {@link ParserTable} generated from docs/grammar.ebnf. Every step either expands the rule on top of a stack
+ * with the production the table picks for the next terminal, or matches the terminal on top of it,
+ * so the parser never backtracks and never changes the token list.
+ * <p>
+ * A word holds several terminals, e.g. the stem, the connector "a" and nothing else in "propa".
+ * The scanner cuts the next terminal off the front of the current word on demand, trying only the terminals
+ * the table allows at that point and taking the longest match. Stems and multiplying affixes are the longest keyword
+ * the word starts with, like in the {@link Parser}, found in a {@link KeywordTable} without cutting substrings.
+ * <p>
+ * The rules with an AST node have an action that builds it from the values of their symbols, the values of
+ * the other rules are left in place for the rule around them. The value of a terminal cut out of a word is its text.
+ */
+class TableParser {
+    private static final int TERMINALS = ParserTable.TERMINALS.length;
+    private static final int END = indexOf("$");
+    private static final int NUMBER = indexOf("number");
+
+    /** Token each terminal is, or null for terminals cut out of words. */
+    private static final TokenType[] TOKEN_TYPES = new TokenType[TERMINALS];
+    /** Text of the terminals cut out of words that are quoted strings. */
+    private static final String[] WORDS = new String[TERMINALS];
+    /** Keywords of the terminals cut out of words that are rules. */
+    private static final KeywordTable[] KEYWORDS = new KeywordTable[TERMINALS];
+    private static final KeywordTable STEMS = new KeywordTable(Keywords.STEMS);
+    private static final KeywordTable MULTIPLYING_AFFIXES = new KeywordTable(Keywords.MULTIPLYING_AFFIXES);
+
+    /** Terminals each rule can be expanded on, and each terminal on its own. */
+    private static final int[][] LOOKAHEADS = new int[ParserTable.RULES.length][];
+    private static final int[][] SINGLE = new int[TERMINALS][];
+    private static final Action[] ACTIONS = new Action[ParserTable.RULES.length];
+
+    static {
+        Map<String, TokenType> tokens = Map.of(
+                "$", EOF, "\"cyclo\"", CYCLO, "\"e\"", ENDING, "\"-\"", HYPHEN, "\",\"", COMMA, "number", DIGIT
+        );
+        Map<String, KeywordTable> keywords = Map.of("stem", STEMS, "multiplying_affix", MULTIPLYING_AFFIXES);
+        for (int t = 0; t < TERMINALS; t++) {
+            String terminal = ParserTable.TERMINALS[t];
+            SINGLE[t] = new int[]{t};
+            TOKEN_TYPES[t] = tokens.get(terminal);
+            KEYWORDS[t] = keywords.get(terminal);
+            if (Objects.isNull(TOKEN_TYPES[t]) && Objects.isNull(KEYWORDS[t])) {
+                if (!terminal.startsWith("\"")) {
+                    throw new IllegalStateException("No scanner for terminal " + terminal);
+                }
+                WORDS[t] = terminal.substring(1, terminal.length() - 1);
+            }
+        }
+
+        Map<String, Action> actions = Map.of(
+                "hydrocarbon", TableParser::hydrocarbon,
+                "type", TableParser::type,
+                "type_alkane", (values, from, to) -> new Type.Alkane(),
+                "enyne_tail", (values, from, to) -> new Type.Alkyne((Group) values[from]),
+                "complex_group", (values, from, to) ->
+                        new Group((Locants) values[from + 1], (MultiplyingAffix) values[from + 2]),
+                "simple_group", (values, from, to) -> new Group((Locants) values[from], null),
+                "enyne_group", (values, from, to) -> new Group(
+                        (Locants) values[from], to - from > 1 ? (MultiplyingAffix) values[from + 1] : null
+                ),
+                "locants", TableParser::locants,
+                "locant", TableParser::locants
+        );
+        for (int rule = 0; rule < ParserTable.RULES.length; rule++) {
+            LOOKAHEADS[rule] = lookaheads(ParserTable.TABLE[rule]);
+            ACTIONS[rule] = actions.get(ParserTable.RULES[rule]);
+        }
+    }
+
+    private final List<Token> tokens;
+    private int current = 0;
+    /** Number of letters of the current word already cut off. */
+    private int offset = 0;
+
+    /** Terminal found by the last scan, its length in the current word and its value. */
+    private int scanned = -1;
+    private int scannedLength;
+    private Object scannedValue;
+
+    private int[] symbols = new int[16];
+    private int top = 0;
+    private int[] frames = new int[8];
+    private int frameTop = 0;
+    private Object[] values = new Object[8];
+    private int valueTop = 0;
+
+    /**
+     * @param tokens The list of tokens from the {@link Lexer}.
+     */
+    TableParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses the token stream into a {@link Hydrocarbon} AST.
+     *
+     * @return The root node of the AST, a {@link Hydrocarbon} object.
+     * @throws ParserException if the token stream violates the grammar's syntax.
+     */
+    Hydrocarbon parse() {
+        // The start rule, followed by the end of the name
+        push(END);
+        push(TERMINALS);
+        while (top > 0) {
+            int symbol = symbols[--top];
+            if (symbol < 0) {
+                reduce(~symbol);
+            } else if (symbol < TERMINALS) {
+                match(symbol);
+            } else {
+                expand(symbol - TERMINALS);
+            }
+        }
+        return (Hydrocarbon) values[0];
+    }
+
+    private void expand(int rule) {
+        // Like a token, the next terminal is scanned once and then kept until it is matched
+        int terminal = scanned >= 0 ? scanned : scan(LOOKAHEADS[rule]);
+        if (terminal < 0 || ParserTable.TABLE[rule][terminal] < 0) {
+            throw error(LOOKAHEADS[rule]);
+        }
+        if (Objects.nonNull(ACTIONS[rule])) {
+            push(~rule);
+            if (frameTop == frames.length) {
+                frames = Arrays.copyOf(frames, frameTop * 2);
+            }
+            frames[frameTop++] = valueTop;
+        }
+        int[] production = ParserTable.PRODUCTIONS[ParserTable.TABLE[rule][terminal]];
+        for (int i = production.length - 1; i >= 0; i--) {
+            push(production[i]);
+        }
+    }
+
+    private void match(int terminal) {
+        if (scanned != terminal && scan(SINGLE[terminal]) < 0) {
+            throw error(SINGLE[terminal]);
+        }
+        pushValue(scannedValue);
+        if (Objects.isNull(TOKEN_TYPES[terminal])) {
+            offset += scannedLength;
+            if (offset == tokens.get(current).lexeme().length()) {
+                current++;
+                offset = 0;
+            }
+        } else if (tokens.get(current).type() != EOF) {
+            current++;
+        }
+        scanned = -1;
+    }
+
+    /**
+     * Runs the action of a rule on the values of its symbols.
+     */
+    private void reduce(int rule) {
+        int from = frames[--frameTop];
+        Object value = ACTIONS[rule].apply(values, from, valueTop);
+        valueTop = from;
+        pushValue(value);
+    }
+
+    /**
+     * Finds the terminal among {@code candidates} at the current position, the longest one if several match.
+     *
+     * @return the terminal, -1 if none matches
+     */
+    private int scan(int[] candidates) {
+        Token token = tokens.get(current);
+        scanned = -1;
+        scannedLength = 0;
+        for (int terminal : candidates) {
+            if (Objects.nonNull(TOKEN_TYPES[terminal])) {
+                if (offset == 0 && token.type() == TOKEN_TYPES[terminal]) {
+                    scanned = terminal;
+                    scannedValue = terminal == NUMBER ? locantValue(token) : token;
+                    return terminal;
+                }
+            } else if (token.type() == WORD) {
+                scanWord(terminal, token);
+            }
+        }
+        return scanned;
+    }
+
+    private void scanWord(int terminal, Token token) {
+        String word = token.lexeme();
+        if (Objects.nonNull(WORDS[terminal])) {
+            String text = WORDS[terminal];
+            if (text.length() > scannedLength && word.startsWith(text, offset)) {
+                scanned = terminal;
+                scannedLength = text.length();
+                scannedValue = text;
+            }
+            return;
+        }
+
+        KeywordTable keywords = KEYWORDS[terminal];
+        int slot = keywords.longestPrefix(word, offset, word.length());
+        if (slot < 0 || keywords.keyword(slot).length() <= scannedLength) {
+            return;
+        }
+        String keyword = keywords.keyword(slot);
+        Token keywordToken = new Token(WORD, keyword, token.position() + offset);
+        scanned = terminal;
+        scannedLength = keyword.length();
+        scannedValue = keywords == STEMS
+                ? new Stem(keywordToken, keywords.value(slot))
+                : new MultiplyingAffix(keywordToken, keywords.value(slot));
+    }
+
+    private int locantValue(Token token) {
+        try {
+            return Integer.parseInt(token.lexeme());
+        } catch (NumberFormatException e) {
+            throw new ParserException("Locant is too large", token);
+        }
+    }
+
+    private void push(int symbol) {
+        if (top == symbols.length) {
+            symbols = Arrays.copyOf(symbols, top * 2);
+        }
+        symbols[top++] = symbol;
+    }
+
+    /**
+     * @return the rest of the current word, or the current token
+     */
+    private Token currentToken() {
+        Token token = tokens.get(current);
+        return offset == 0 ? token : new Token(WORD, token.lexeme().substring(offset), token.position() + offset);
+    }
+
+    private void pushValue(Object value) {
+        if (valueTop == values.length) {
+            values = Arrays.copyOf(values, valueTop * 2);
+        }
+        values[valueTop++] = value;
+    }
+
+    private ParserException error(int[] expected) {
+        StringJoiner names = new StringJoiner(", ");
+        for (int i = 0; i < expected.length - 1; i++) {
+            names.add(describe(expected[i]));
+        }
+        String message = expected.length > 1
+                ? names + " or " + describe(expected[expected.length - 1])
+                : describe(expected[0]);
+        message = Character.toUpperCase(message.charAt(0)) + message.substring(1);
+        return new ParserException(message + " expected", currentToken());
+    }
+
+    private static String describe(int terminal) {
+        String name = ParserTable.TERMINALS[terminal];
+        if (name.equals("$")) {
+            return "end of name";
+        }
+        return name.startsWith("\"") ? "'" + name.substring(1, name.length() - 1) + "'" : name.replace('_', ' ');
+    }
+
+    private static int indexOf(String terminal) {
+        return Arrays.asList(ParserTable.TERMINALS).indexOf(terminal);
+    }
+
+    private static int[] lookaheads(int[] row) {
+        return IntStream.range(0, row.length).filter(t -> row[t] >= 0).toArray();
+    }
+
+    private static Hydrocarbon hydrocarbon(Object[] values, int from, int to) {
+        boolean isCyclic = values[from] instanceof Token token && token.type() == CYCLO;
+        int stem = isCyclic ? from + 1 : from;
+        return new Hydrocarbon(isCyclic, (Stem) values[stem], (Type) values[stem + 1]);
+    }
+
+    /**
+     * Builds the type from an alkane, or from the group and the suffixes after it.
+     */
+    private static Type type(Object[] values, int from, int to) {
+        if (values[from] instanceof Type.Alkane alkane) {
+            return alkane;
+        }
+        Group group = (Group) values[from];
+        if (values[from + 1].equals("yn")) {
+            return new Type.Alkyne(group);
+        }
+        return to - from > 2
+                ? new Type.Enyne(new Type.Alkene(group), (Type.Alkyne) values[from + 2])
+                : new Type.Alkene(group);
+    }
+
+    private static Locants locants(Object[] values, int from, int to) {
+        List<Integer> locants = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (values[i] instanceof Integer locant) {
+                locants.add(locant);
+            }
+        }
+        return new Locants(locants);
+    }
+
+    /**
+     * Builds the value of a rule from the values of its symbols, {@code values[from]} up to {@code values[to - 1]}.
+     */
+    private interface Action {
+        Object apply(Object[] values, int from, int to);
+    }
+}
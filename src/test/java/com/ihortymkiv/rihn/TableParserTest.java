@@ -0,0 +1,107 @@
+package com.ihortymkiv.rihn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the {@link TableParser} with the {@link Parser} on generated names and their misspellings.
+ */
+class TableParserTest {
+
+    @Test
+    void shouldBuildSameAstAsParser() {
+        for (boolean cyclic : new boolean[]{false, true}) {
+            new IsomerEnumerator().enumerate(1, 30, cyclic, 1, 1, isomer -> assertEquals(
+                    new Parser(new Lexer(isomer.name()).scanTokens()).parse(),
+                    parse(isomer.name()),
+                    isomer.name()
+            ));
+        }
+        for (String name : List.of("kiliane", "cyclohexa-1,3,5-triene", "dotriacontahecta-1,31-dien-100-yne",
+                "hepta-1,3-dien-5-yne", "hex-1-en-3,5-diyne", "propa-5-diene", "hexa-1,3-pentaene")) {
+            assertEquals(new Parser(new Lexer(name).scanTokens()).parse(), parse(name), name);
+        }
+    }
+
+    @Test
+    void shouldAcceptExactlyWhatParserAccepts() {
+        List<String> names = new ArrayList<>();
+        new IsomerEnumerator().enumerate(1, 12, false, 0, 0, isomer -> add(names, isomer.name()));
+        new IsomerEnumerator().enumerate(3, 9, true, 2, 1, isomer -> add(names, isomer.name()));
+        new IsomerEnumerator().enumerate(4, 9, false, 1, 2, isomer -> add(names, isomer.name()));
+        names.addAll(List.of(
+                "cyclocyclopropane", "cyclo", "cycloe", "e", "-", "prop-1-e", "hex-1-en-3-e", "propa-1,2-cyclodiene",
+                "prop-1-en-", "prop-1-ene-", "propanee", "propa", "propane1", "dec-2147483648-ene", "hexa-1,3-di-ene"
+        ));
+
+        for (String name : names) {
+            assertSameOutcome(name);
+            for (int i = 0; i <= name.length(); i++) {
+                assertSameOutcome(name.substring(0, i) + name.substring(Math.min(i + 1, name.length())));
+                for (char c : "ae-,1n".toCharArray()) {
+                    assertSameOutcome(name.substring(0, i) + c + name.substring(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldReportExpectedTerminals() {
+        ParserException exception = assertThrows(ParserException.class, () -> parse("cycloyne"));
+        assertEquals("Stem expected 'yn' at position 5.", exception.getMessage());
+
+        exception = assertThrows(ParserException.class, () -> parse("propx-1-ene"));
+        assertEquals("'an', 'a' or '-' expected 'x' at position 4.", exception.getMessage());
+
+        exception = assertThrows(ParserException.class, () -> parse("prop-1,2-ene"));
+        assertEquals("'-' expected ',' at position 6.", exception.getMessage());
+
+        exception = assertThrows(ParserException.class, () -> parse("prop-1-en-3-ene"));
+        assertEquals("'yn' or multiplying affix expected 'en' at position 12.", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowForTooLargeLocant() {
+        ParserException exception = assertThrows(ParserException.class, () -> parse("dec-12345678901-ene"));
+        assertTrue(exception.getMessage().contains("Locant is too large"));
+    }
+
+    private static Hydrocarbon parse(String name) {
+        return new TableParser(new Lexer(name).scanTokens()).parse();
+    }
+
+    private static void add(List<String> names, String name) {
+        synchronized (names) {
+            names.add(name);
+        }
+    }
+
+    private static void assertSameOutcome(String name) {
+        List<Token> tokens;
+        try {
+            tokens = new Lexer(name).scanTokens();
+        } catch (LexerException e) {
+            return;
+        }
+        Object expected = outcome(() -> new Parser(new ArrayList<>(tokens)).parse());
+        Object actual = outcome(() -> new TableParser(tokens).parse());
+        assertEquals(expected, actual, name);
+    }
+
+    /**
+     * @return the AST, or the class of the thrown exception
+     */
+    private static Object outcome(Supplier<Hydrocarbon> parser) {
+        try {
+            return parser.get();
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+}
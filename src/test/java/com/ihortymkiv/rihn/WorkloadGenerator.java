@@ -0,0 +1,286 @@
+package com.ihortymkiv.rihn;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Generates corpora of hydrocarbon names for benchmarks and load tests, see {@link WorkloadReplay}.
+ * <p>
+ * Names are derived at random from the productions of docs/grammar.ebnf. Numbers and multiplying affixes are
+ * chosen to fit the derived stem and locants, so that most derivations are valid, or broken on purpose to produce
+ * one kind of semantic error. Lexically invalid names are valid names with a character the lexer rejects.
+ * Every name is run through the lexer, parser and analyzer, and only kept if it fails the way it was meant to.
+ * <p>
+ * Each line of a corpus is the {@link Kind} and the name, separated by a tab.
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp target/classes:target/test-classes com.ihortymkiv.rihn.WorkloadGenerator --count=100000
+ * --valid=0.8 --semantic=0.15 --lexical=0.05 --max-carbons=40 --seed=1 --out=target/corpus/mixed.tsv}.
+ */
+class WorkloadGenerator {
+    private static final int MAX_ATTEMPTS = 10_000;
+    private static final String LEXICALLY_INVALID = "0_!.;:/+()' ";
+
+    enum Kind {
+        VALID("valid"),
+        BAD_LOCANT("semantic-locant"),
+        WRONG_MULTIPLIER("semantic-multiplier"),
+        OVER_VALENCY("semantic-valency"),
+        LEXICAL("lexical"),
+        OTHER("other");
+
+        final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        static Kind of(String label) {
+            for (Kind kind : values()) {
+                if (kind.label.equals(label)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown kind " + label);
+        }
+    }
+
+    private final Grammar grammar;
+    private final Random random;
+    private final int maxCarbons;
+
+    WorkloadGenerator(Grammar grammar, long seed, int maxCarbons) {
+        this.grammar = grammar;
+        this.random = new Random(seed);
+        this.maxCarbons = maxCarbons;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = options(args);
+        int count = Integer.parseInt(options.getOrDefault("count", "10000"));
+        double valid = Double.parseDouble(options.getOrDefault("valid", "0.8"));
+        double semantic = Double.parseDouble(options.getOrDefault("semantic", "0.15"));
+        double lexical = Double.parseDouble(options.getOrDefault("lexical", "0.05"));
+        Path out = Path.of(options.getOrDefault("out", "target/corpus/mixed.tsv"));
+        WorkloadGenerator generator = new WorkloadGenerator(
+                Grammar.read(Path.of(options.getOrDefault("grammar", Grammar.DEFAULT_PATH.toString()))),
+                Long.parseLong(options.getOrDefault("seed", "1")),
+                Integer.parseInt(options.getOrDefault("max-carbons", "40"))
+        );
+
+        Map<Kind, Integer> written = new EnumMap<>(Kind.class);
+        if (Objects.nonNull(out.getParent())) {
+            Files.createDirectories(out.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(out)) {
+            for (int i = 0; i < count; i++) {
+                Kind kind = generator.pick(valid, semantic, lexical);
+                writer.write(kind.label + "\t" + generator.generate(kind));
+                writer.newLine();
+                written.merge(kind, 1, Integer::sum);
+            }
+        }
+        System.out.printf("Wrote %d names to %s%n", count, out);
+        written.forEach((kind, n) -> System.out.printf("%20s %8d%n", kind.label, n));
+    }
+
+    /**
+     * Picks a kind with the given weights, semantic errors are split evenly between their kinds.
+     */
+    Kind pick(double valid, double semantic, double lexical) {
+        double r = random.nextDouble() * (valid + semantic + lexical);
+        if (r < valid) {
+            return Kind.VALID;
+        }
+        if (r < valid + semantic) {
+            return List.of(Kind.BAD_LOCANT, Kind.WRONG_MULTIPLIER, Kind.OVER_VALENCY).get(random.nextInt(3));
+        }
+        return Kind.LEXICAL;
+    }
+
+    /**
+     * Derives names until one is classified as {@code kind}.
+     *
+     * @param kind kind of name to generate, not {@link Kind#OTHER}
+     * @return name
+     */
+    String generate(Kind kind) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String name = kind == Kind.LEXICAL ? breakLexically(derive(Kind.VALID)) : derive(kind);
+            if (classify(name) == kind) {
+                return name;
+            }
+        }
+        throw new IllegalStateException("Could not generate a name of kind " + kind.label);
+    }
+
+    /**
+     * Runs the compiler stages up to the analyzer on a name.
+     *
+     * @param name name to classify
+     * @return kind of the name, {@link Kind#OTHER} for syntax errors and semantic errors of no other kind
+     */
+    static Kind classify(String name) {
+        List<Token> tokens;
+        try {
+            tokens = new Lexer(name).scanTokens();
+        } catch (LexerException e) {
+            return Kind.LEXICAL;
+        }
+        try {
+            new SemanticAnalyzer().analyze(new Parser(tokens).parse());
+            return Kind.VALID;
+        } catch (ParserException e) {
+            return Kind.OTHER;
+        } catch (SemanticAnalyzerException e) {
+            String message = e.getMessage();
+            if (message.contains("exceeded available valency")) return Kind.OVER_VALENCY;
+            if (message.contains("Invalid multiplier")) return Kind.WRONG_MULTIPLIER;
+            if (message.contains("locant") || message.contains("Locant")) return Kind.BAD_LOCANT;
+            return Kind.OTHER;
+        }
+    }
+
+    private String breakLexically(String name) {
+        int position = random.nextInt(name.length() + 1);
+        char c = LEXICALLY_INVALID.charAt(random.nextInt(LEXICALLY_INVALID.length()));
+        return name.substring(0, position) + c + name.substring(position);
+    }
+
+    private String derive(Kind kind) {
+        Derivation derivation = new Derivation(kind);
+        derivation.expand(grammar.production(grammar.start()));
+        return derivation.text.toString();
+    }
+
+    /**
+     * One random walk over the grammar, appending terminals to {@link #text}.
+     * The rules whose text depends on the rest of the name are produced by hooks instead.
+     */
+    private final class Derivation {
+        private final Kind kind;
+        private final StringBuilder text = new StringBuilder();
+        private int carbons;
+        private int groupLocants;
+        private int lastLocant;
+        private int lastLocantOfPreviousGroup;
+        private boolean locantBroken;
+
+        Derivation(Kind kind) {
+            this.kind = kind;
+        }
+
+        void expand(Grammar.Expression expression) {
+            switch (expression) {
+                case Grammar.Terminal terminal -> text.append(terminal.text());
+                case Grammar.NonTerminal rule -> rule(rule.name());
+                case Grammar.Sequence sequence -> sequence.items().forEach(this::expand);
+                case Grammar.Choice choice ->
+                        expand(choice.alternatives().get(random.nextInt(choice.alternatives().size())));
+                case Grammar.Repeat repeat -> {
+                    int times = repeat.min();
+                    // Optional items appear half of the time, repeated items one more time with probability 1/2
+                    while ((repeat.max() < 0 || times < repeat.max()) && random.nextBoolean()) {
+                        times++;
+                    }
+                    for (int i = 0; i < times; i++) {
+                        expand(repeat.item());
+                    }
+                }
+                case Grammar.Without without -> {
+                    int start = text.length();
+                    expand(without.item());
+                    if (text.length() - start >= without.suffix().length()
+                            && text.toString().endsWith(without.suffix())) {
+                        text.setLength(text.length() - without.suffix().length());
+                    }
+                }
+            }
+        }
+
+        private void rule(String name) {
+            switch (name) {
+                case "stem" -> stem();
+                case "locant", "locants" -> {
+                    lastLocantOfPreviousGroup = lastLocant;
+                    groupLocants = 0;
+                    lastLocant = kind == Kind.OVER_VALENCY ? Math.max(0, lastLocantOfPreviousGroup - 1) : 0;
+                    expand(grammar.production(name));
+                }
+                case "number" -> number();
+                case "multiplying_affix" -> multiplyingAffix();
+                default -> expand(grammar.production(name));
+            }
+        }
+
+        /**
+         * Derives stems until one names a chain of at most {@code maxCarbons} carbons.
+         */
+        private void stem() {
+            int start = text.length();
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                text.setLength(start);
+                expand(grammar.production("stem"));
+                Integer value = Keywords.STEMS.get(text.substring(start));
+                if (Objects.nonNull(value) && value <= maxCarbons) {
+                    carbons = value;
+                    return;
+                }
+            }
+            throw new IllegalStateException("No stem with at most " + maxCarbons + " carbons derived");
+        }
+
+        /**
+         * Emits increasing locants, consecutive ones for valency errors and one out of range for locant errors.
+         */
+        private void number() {
+            int locant;
+            if (kind == Kind.BAD_LOCANT && !locantBroken && random.nextBoolean()) {
+                locant = carbons + random.nextInt(3);
+                locantBroken = true;
+            } else if (kind == Kind.OVER_VALENCY) {
+                locant = lastLocant + 1;
+            } else {
+                locant = lastLocant + 1;
+                while (random.nextInt(3) == 0) {
+                    locant++;
+                }
+            }
+            groupLocants++;
+            lastLocant = locant;
+            text.append(locant);
+        }
+
+        /**
+         * Emits the affix for the number of locants of the group, or a different one for multiplier errors.
+         */
+        private void multiplyingAffix() {
+            int multiplier = groupLocants;
+            if (kind == Kind.WRONG_MULTIPLIER) {
+                multiplier = groupLocants + (groupLocants > 2 && random.nextBoolean() ? -1 : 1);
+            }
+            if (multiplier >= 2) {
+                text.append(Keywords.multiplyingAffix(multiplier));
+            }
+        }
+    }
+
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Options must look like --name=value: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
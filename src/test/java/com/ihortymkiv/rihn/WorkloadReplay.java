@@ -0,0 +1,143 @@
+package com.ihortymkiv.rihn;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a corpus of {@link WorkloadGenerator} through {@link Rihn} or the HTTP API at a fixed rate
+ * and prints a latency histogram per kind of name.
+ * <p>
+ * Requests are sent open loop: each one is scheduled at its own start time and runs on a virtual thread,
+ * so a slow response doesn't delay the requests after it. Latency is measured from the scheduled start time,
+ * which accounts for time spent waiting behind earlier requests and keeps the percentiles free of
+ * coordinated omission. The corpus is replayed from the start when it runs out.
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp target/classes:target/test-classes:<dependencies> com.ihortymkiv.rihn.WorkloadReplay
+ * --corpus=target/corpus/mixed.tsv --target=rihn --rate=2000 --seconds=30 --warmup-seconds=5},
+ * with {@code --target=http://localhost:8080} to send the names to {@code /api/compound} of a running server.
+ */
+class WorkloadReplay {
+    private final List<String[]> corpus;
+    private final String target;
+    private final HttpClient client;
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    WorkloadReplay(List<String[]> corpus, String target) {
+        this.corpus = corpus;
+        this.target = target;
+        this.client = target.equals("rihn") ? null : HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = WorkloadGenerator.options(args);
+        List<String[]> corpus = readCorpus(Path.of(options.getOrDefault("corpus", "target/corpus/mixed.tsv")));
+        String target = options.getOrDefault("target", "rihn");
+        int rate = Integer.parseInt(options.getOrDefault("rate", "1000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "5"));
+
+        if (warmupSeconds > 0) {
+            new WorkloadReplay(corpus, target).run(rate, warmupSeconds);
+        }
+        WorkloadReplay replay = new WorkloadReplay(corpus, target);
+        long elapsed = replay.run(rate, seconds);
+        replay.print(elapsed);
+    }
+
+    static List<String[]> readCorpus(Path path) throws IOException {
+        List<String[]> corpus = Files.readAllLines(path).stream()
+                .filter(line -> !line.isBlank())
+                .map(line -> line.split("\t", 2))
+                .toList();
+        if (corpus.isEmpty()) {
+            throw new IllegalArgumentException("Corpus " + path + " is empty.");
+        }
+        return corpus;
+    }
+
+    /**
+     * Sends {@code rate} requests per second for {@code seconds} and waits for all of them to complete.
+     *
+     * @return nanoseconds from the first scheduled request to the last response
+     */
+    long run(int rate, int seconds) {
+        long interval = 1_000_000_000L / rate;
+        long requests = (long) rate * seconds;
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long scheduled = start + i * interval;
+                long delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                String[] entry = corpus.get((int) (i % corpus.size()));
+                executor.execute(() -> {
+                    String outcome = send(entry[1]);
+                    long latency = System.nanoTime() - scheduled;
+                    histograms.computeIfAbsent(entry[0], kind -> new LatencyHistogram()).record(latency);
+                    outcomes.computeIfAbsent(entry[0] + " " + outcome, key -> new LongAdder()).increment();
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * @return outcome of the request, the HTTP status or the simple name of the exception
+     */
+    private String send(String name) {
+        if (target.equals("rihn")) {
+            try {
+                Rihn.getCompound(name);
+                return "ok";
+            } catch (RuntimeException e) {
+                return e.getClass().getSimpleName();
+            }
+        }
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(target + "/api/compound?name=" + URLEncoder.encode(name, StandardCharsets.UTF_8))
+        ).timeout(Duration.ofSeconds(30)).build();
+        try {
+            return Integer.toString(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        } catch (IOException e) {
+            return e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+
+    private void print(long elapsed) {
+        LatencyHistogram total = new LatencyHistogram();
+        System.out.printf("%-22s %s%n", "kind", LatencyHistogram.header());
+        new TreeMap<>(histograms).forEach((kind, histogram) -> {
+            System.out.printf("%-22s %s%n", kind, histogram.summary());
+            total.add(histogram);
+        });
+        System.out.printf("%-22s %s%n", "all", total.summary());
+        System.out.printf("%nThroughput: %.0f requests/s%n%n", total.count() / (elapsed / 1e9));
+        new TreeMap<>(outcomes).forEach((outcome, count) -> System.out.printf("%-45s %9d%n", outcome, count.sum()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.CarbonSkeleton;
+import com.ihortymkiv.rihn.InputLimits;
+import com.ihortymkiv.rihn.PipelineAdmission;
+import com.ihortymkiv.rihn.Rihn;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    @Test
+    void shouldAdmitUpToMaxConcurrent() {
+        AdmissionControl admissionControl = new AdmissionControl(2, 0, Duration.ZERO, Duration.ofSeconds(1));
+
+        assertTrue(admissionControl.tryAdmit());
+        assertTrue(admissionControl.tryAdmit());
+        assertFalse(admissionControl.tryAdmit());
+
+        admissionControl.release();
+        assertTrue(admissionControl.tryAdmit());
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        AdmissionControl admissionControl = new AdmissionControl(1, 1, Duration.ofSeconds(10), Duration.ofSeconds(1));
+        assertTrue(admissionControl.tryAdmit());
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(admissionControl::tryAdmit);
+        while (admissionControl.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        long start = System.nanoTime();
+        assertFalse(admissionControl.tryAdmit());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Rejection should not wait");
+
+        admissionControl.release();
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRejectAfterQueueTimeout() {
+        AdmissionControl admissionControl = new AdmissionControl(1, 4, Duration.ofMillis(20), Duration.ofSeconds(1));
+        assertTrue(admissionControl.tryAdmit());
+
+        assertFalse(admissionControl.tryAdmit());
+        assertEquals(0, admissionControl.queued());
+    }
+
+    @Test
+    void shouldAdmitQueuedWaiterBeforeLaterArrival() throws Exception {
+        // The permit is handed over while the waiter is waking up, which a barging caller usually wins
+        for (int round = 0; round < 200; round++) {
+            AdmissionControl admissionControl =
+                    new AdmissionControl(1, 2, Duration.ofSeconds(10), Duration.ofSeconds(1));
+            assertTrue(admissionControl.tryAdmit());
+            List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+
+            CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+                assertTrue(admissionControl.tryAdmit());
+                admitted.add("queued");
+                admissionControl.release();
+            });
+            while (!admissionControl.hasWaiters()) {
+                Thread.onSpinWait();
+            }
+            admissionControl.release();
+            assertTrue(admissionControl.tryAdmit());
+            admitted.add("later");
+            admissionControl.release();
+
+            waiting.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("queued", "later"), admitted, "round " + round);
+        }
+    }
+
+    @Test
+    void shouldRunOnlyAdmittedCallers() {
+        AdmissionControl admissionControl = new AdmissionControl(1, 0, Duration.ZERO, Duration.ofSeconds(3));
+
+        assertEquals("ran", admissionControl.run(() -> "ran"));
+        ServerBusyException e = assertThrows(ServerBusyException.class, () -> admissionControl.run(
+                () -> admissionControl.run(() -> "nested")
+        ));
+        assertEquals("3", e.retryAfter());
+        assertEquals("ran", admissionControl.run(() -> "ran"));
+    }
+
+    @Test
+    void shouldTakeOnePermitForBurstOfOneName() throws InterruptedException {
+        int callers = 8;
+        AdmissionControl admissionControl = new AdmissionControl(2, 0, Duration.ZERO, Duration.ofSeconds(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        // Holds its permit until released, so the other callers arrive while the run is in flight
+        PipelineAdmission blocking = new PipelineAdmission() {
+            @Override
+            public <T> T run(Supplier<T> pipeline) {
+                return admissionControl.run(() -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return pipeline.get();
+                });
+            }
+        };
+        InputLimits limits = new InputLimits(1024, 36);
+        Map<Thread, Object> outcomes = new ConcurrentHashMap<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    outcomes.put(Thread.currentThread(),
+                            Rihn.getSkeleton("hexatriacontane", limits, blocking, null));
+                } catch (RuntimeException e) {
+                    outcomes.put(Thread.currentThread(), e);
+                }
+            }));
+            if (i == 0) {
+                started.await();
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!threads.stream().allMatch(t -> t.getState() == Thread.State.WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not block");
+            Thread.sleep(1);
+        }
+        // The waiters hold no permit, so another name is still admitted
+        assertNotNull(Rihn.getSkeleton("propane", limits, admissionControl, null));
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, runs.get());
+        assertEquals(callers, outcomes.size());
+        outcomes.values().forEach(outcome -> assertInstanceOf(CarbonSkeleton.class, outcome));
+        assertTrue(admissionControl.tryAdmit());
+        assertTrue(admissionControl.tryAdmit());
+    }
+}
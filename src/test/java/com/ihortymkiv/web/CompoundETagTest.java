@@ -0,0 +1,45 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.Rihn;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundETagTest {
+
+    @Test
+    void shouldRecordLibraryVersion() {
+        assertNotEquals("unknown", Rihn.version());
+        assertFalse(Rihn.version().startsWith("@"));
+    }
+
+    @Test
+    void shouldDeriveTagFromRepresentationAndName() {
+        String eTag = CompoundETag.of("json", "butane");
+
+        assertEquals(eTag, CompoundETag.of("json", "butane"));
+        assertNotEquals(eTag, CompoundETag.of("svg", "butane"));
+        assertNotEquals(eTag, CompoundETag.of("json", "pentane"));
+        assertTrue(eTag.matches("\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void shouldMatchIfNoneMatch() {
+        String eTag = CompoundETag.of("json", "butane");
+
+        assertTrue(CompoundETag.matches(eTag, eTag));
+        assertTrue(CompoundETag.matches("\"other\", " + eTag, eTag));
+        assertTrue(CompoundETag.matches("W/" + eTag, eTag));
+        assertFalse(CompoundETag.matches("*", eTag));
+        assertFalse(CompoundETag.matches("\"other\"", eTag));
+        assertFalse(CompoundETag.matches(null, eTag));
+    }
+
+    @Test
+    void shouldMatchWildcardOnlyOnRequest() {
+        assertTrue(CompoundETag.matchesAny("*"));
+        assertTrue(CompoundETag.matchesAny("\"other\", *"));
+        assertFalse(CompoundETag.matchesAny("\"other\""));
+        assertFalse(CompoundETag.matchesAny(null));
+    }
+}
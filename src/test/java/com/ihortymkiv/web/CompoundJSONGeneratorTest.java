@@ -0,0 +1,54 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.IsomerEnumerator;
+import com.ihortymkiv.rihn.Rihn;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundJSONGeneratorTest {
+
+    @Test
+    void shouldIdentifyAtomsByIndex() {
+        JSONObject json = CompoundJSONGenerator.generate(Rihn.getCompound("eth-1-ene"));
+
+        JSONArray nodes = json.getJSONArray("nodes");
+        for (int i = 0; i < nodes.length(); i++) {
+            assertEquals(i + 1, nodes.getJSONObject(i).getInt("id"));
+        }
+        JSONObject doubleBond = json.getJSONArray("links").getJSONObject(0);
+        assertEquals(1, doubleBond.getInt("source"));
+        assertEquals(2, doubleBond.getInt("target"));
+        assertEquals(2, doubleBond.getInt("value"));
+    }
+
+    @Test
+    void shouldWriteSameJsonFromSkeletonAsFromCompound() {
+        List<String> names = new ArrayList<>(List.of(
+                "methane", "ethane", "eth-1-yne", "cyclopropane", "cycloprop-1-ene", "kiliane", "propa-1,2-diene"
+        ));
+        IsomerEnumerator enumerator = new IsomerEnumerator();
+        for (boolean cyclic : new boolean[]{false, true}) {
+            for (int bonds = 0; bonds < 6; bonds++) {
+                enumerator.enumerate(3, 9, cyclic, bonds % 3, bonds / 3, isomer -> {
+                    synchronized (names) {
+                        names.add(isomer.name());
+                    }
+                });
+            }
+        }
+
+        for (String name : names) {
+            assertEquals(
+                    CompoundJSONGenerator.generate(Rihn.getCompound(name)).toString(),
+                    CompoundJSONGenerator.generate(Rihn.getSkeleton(name, null)),
+                    name
+            );
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.chemistry.Atom;
+import com.ihortymkiv.chemistry.ChemicalElement;
+import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.rihn.Rihn;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundLayoutTest {
+
+    private static double distance(CompoundLayout layout, int a, int b) {
+        return Math.hypot(layout.x(a) - layout.x(b), layout.y(a) - layout.y(b));
+    }
+
+    private static void assertNoOverlap(CompoundLayout layout) {
+        for (int a = 0; a < layout.atomCount(); a++) {
+            for (int b = a + 1; b < layout.atomCount(); b++) {
+                assertTrue(distance(layout, a, b) > 5, "Atoms " + a + " and " + b + " overlap");
+            }
+        }
+    }
+
+    private static void assertBondLengths(Compound compound, CompoundLayout layout) {
+        List<Atom> atoms = compound.getAtoms();
+        for (int a = 0; a < atoms.size(); a++) {
+            for (Atom bonded : atoms.get(a).getBondedAtoms()) {
+                int b = atoms.indexOf(bonded);
+                boolean hydrogen = atoms.get(a).getChemicalElement() == ChemicalElement.Hydrogen
+                        || bonded.getChemicalElement() == ChemicalElement.Hydrogen;
+                double expected = hydrogen ? CompoundLayout.HYDROGEN_BOND_LENGTH : CompoundLayout.BOND_LENGTH;
+                assertEquals(expected, distance(layout, a, b), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void shouldLayOutChainAsZigZag() {
+        Compound compound = Rihn.getCompound("hexane");
+        CompoundLayout layout = CompoundLayout.of(compound);
+
+        assertEquals(compound.getAtoms().size(), layout.atomCount());
+        assertBondLengths(compound, layout);
+        assertNoOverlap(layout);
+        for (int carbon = 1; carbon < 6; carbon++) {
+            assertTrue(layout.x(carbon) > layout.x(carbon - 1));
+            assertNotEquals(layout.y(carbon), layout.y(carbon - 1), 1e-9);
+        }
+        assertEquals(layout.y(0), layout.y(2), 1e-9);
+    }
+
+    @Test
+    void shouldLayOutRingAsRegularPolygon() {
+        Compound compound = Rihn.getCompound("cyclohexa-1,3,5-triene");
+        CompoundLayout layout = CompoundLayout.of(compound);
+
+        double centerX = 0;
+        double centerY = 0;
+        for (int carbon = 0; carbon < 6; carbon++) {
+            centerX += layout.x(carbon) / 6;
+            centerY += layout.y(carbon) / 6;
+        }
+        for (int carbon = 0; carbon < 6; carbon++) {
+            double radius = Math.hypot(layout.x(carbon) - centerX, layout.y(carbon) - centerY);
+            assertEquals(CompoundLayout.BOND_LENGTH, radius, 1e-9);
+        }
+        assertBondLengths(compound, layout);
+        assertNoOverlap(layout);
+    }
+
+    @Test
+    void shouldFanHydrogensAroundSingleCarbon() {
+        Compound compound = Rihn.getCompound("methane");
+        CompoundLayout layout = CompoundLayout.of(compound);
+
+        assertBondLengths(compound, layout);
+        assertNoOverlap(layout);
+    }
+
+    @Test
+    void shouldBeDeterministic() {
+        CompoundLayout first = CompoundLayout.of(Rihn.getCompound("hepta-3,5-dien-1-yne"));
+        CompoundLayout second = CompoundLayout.of(Rihn.getCompound("hepta-3,5-dien-1-yne"));
+
+        assertNotSame(first, second);
+        for (int atom = 0; atom < first.atomCount(); atom++) {
+            assertEquals(first.x(atom), second.x(atom));
+            assertEquals(first.y(atom), second.y(atom));
+        }
+        assertEquals(first.width(), second.width());
+        assertEquals(first.height(), second.height());
+    }
+
+    @Test
+    void shouldFitCoordinatesInsideMargins() {
+        CompoundLayout layout = CompoundLayout.of(Rihn.getCompound("dodec-2-en-10-yne"));
+
+        for (int atom = 0; atom < layout.atomCount(); atom++) {
+            assertTrue(layout.x(atom) >= CompoundLayout.MARGIN - 1e-9);
+            assertTrue(layout.y(atom) >= CompoundLayout.MARGIN - 1e-9);
+            assertTrue(layout.x(atom) <= layout.width() - CompoundLayout.MARGIN + 1e-9);
+            assertTrue(layout.y(atom) <= layout.height() - CompoundLayout.MARGIN + 1e-9);
+        }
+    }
+
+    @Test
+    void shouldCacheLayoutPerCompound() {
+        Compound compound = Rihn.getCompound("propane");
+
+        assertSame(CompoundLayout.of(compound), CompoundLayout.of(compound));
+    }
+
+    @Test
+    void shouldNotCacheLayoutOfMutableCompound() {
+        Compound compound = new Compound();
+        compound.addAtom(new Atom(ChemicalElement.Carbon));
+        CompoundLayout before = CompoundLayout.of(compound);
+        compound.addAtom(new Atom(ChemicalElement.Hydrogen));
+
+        assertNotSame(before, CompoundLayout.of(compound));
+        assertEquals(2, CompoundLayout.of(compound).atomCount());
+    }
+
+    @Test
+    void shouldLayOutSkeletonLikeCompound() {
+        for (String name : List.of("methane", "eth-1-yne", "hepta-3,5-dien-1-yne", "cyclopropane", "cyclohexa-1,3-diene",
+                "cyclooct-1-en-4-yne", "dodec-2-en-10-yne")) {
+            CompoundLayout fromCompound = CompoundLayout.of(Rihn.getCompound(name));
+            CompoundLayout fromSkeleton = CompoundLayout.of(Rihn.getSkeleton(name, null));
+
+            assertEquals(fromCompound.atomCount(), fromSkeleton.atomCount(), name);
+            for (int atom = 0; atom < fromCompound.atomCount(); atom++) {
+                assertEquals(fromCompound.x(atom), fromSkeleton.x(atom), name);
+                assertEquals(fromCompound.y(atom), fromSkeleton.y(atom), name);
+            }
+            assertEquals(fromCompound.width(), fromSkeleton.width(), name);
+            assertEquals(fromCompound.height(), fromSkeleton.height(), name);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.StageTimings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundSvgCacheTest {
+
+    @Test
+    void shouldReturnCachedImageForNormalizedName() {
+        CompoundSvgCache cache = new CompoundSvgCache(4);
+        StageTimings timings = new StageTimings();
+
+        CompoundSvgCache.Svg first = cache.get("Butane", timings);
+        CompoundSvgCache.Svg second = cache.get("butane", new StageTimings());
+
+        assertSame(first, second);
+        assertTrue(timings.isRecorded(StageTimings.Stage.RENDER));
+        assertTrue(first.eTag().matches("\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        CompoundSvgCache cache = new CompoundSvgCache(1);
+
+        CompoundSvgCache.Svg methane = cache.get("methane", null);
+        cache.get("ethane", null);
+
+        assertNotSame(methane, cache.get("methane", null));
+        assertEquals(methane.eTag(), cache.get("methane", null).eTag());
+    }
+
+    @Test
+    void shouldNotCacheInvalidNames() {
+        CompoundSvgCache cache = new CompoundSvgCache(4);
+
+        assertThrows(RuntimeException.class, () -> cache.get("foo", null));
+        assertThrows(RuntimeException.class, () -> cache.get("foo", null));
+    }
+}
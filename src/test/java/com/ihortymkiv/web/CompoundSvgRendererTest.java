@@ -0,0 +1,43 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.chemistry.Compound;
+import com.ihortymkiv.rihn.Rihn;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompoundSvgRendererTest {
+
+    private static long count(String svg, String element) {
+        return Pattern.compile("<" + element + " ").matcher(svg).results().count();
+    }
+
+    @Test
+    void shouldRenderCircleForEveryAtom() {
+        Compound compound = Rihn.getCompound("propane");
+        String svg = new String(CompoundSvgRenderer.render(compound), StandardCharsets.UTF_8);
+
+        assertTrue(svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\""));
+        assertTrue(svg.endsWith("</svg>"));
+        assertEquals(11, count(svg, "circle"));
+    }
+
+    @Test
+    void shouldRenderLinePerBondOrder() {
+        // 1 triple bond, 1 single carbon bond, 4 hydrogens
+        String svg = new String(CompoundSvgRenderer.render(Rihn.getCompound("prop-1-yne")), StandardCharsets.UTF_8);
+
+        assertEquals(3 + 1 + 4, count(svg, "line"));
+    }
+
+    @Test
+    void shouldRenderDeterministically() {
+        assertArrayEquals(
+                CompoundSvgRenderer.render(Rihn.getCompound("cyclohexa-1,3,5-triene")),
+                CompoundSvgRenderer.render(Rihn.getCompound("cyclohexa-1,3,5-triene"))
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.ihortymkiv.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderControllerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRejectInvalidDurations() throws Exception {
+        FlightRecorderController controller =
+                new FlightRecorderController(directory, Duration.ofMinutes(5), DataSize.ofMegabytes(10));
+
+        for (String duration : new String[]{"soon", "-5s", "0s"}) {
+            assertEquals(HttpStatus.BAD_REQUEST, controller.start(duration).getStatusCode(), duration);
+        }
+        assertTrue(controller.status().getBody().contains("\"NONE\""));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ihortymkiv.web;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares {@link LightweightServer} with {@link SpringWebApplication}: time from launching the JVM
+ * until the first successful {@code /api/compound} response, and the resident set size right after it.
+ * <p>
+ * Every run starts a fresh JVM with the benchmark's own classpath, so it has to include the runtime
+ * dependencies. Run with {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt} followed by
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.ihortymkiv.web.StartupBenchmark}.
+ * Resident set size is read from {@code /proc} and is only reported on Linux.
+ */
+class StartupBenchmark {
+    private static final int RUNS = 5;
+    private static final long TIMEOUT_NANOS = 60_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-20s %16s %12s%n", "server", "first response ms", "RSS MiB");
+        for (Class<?> main : List.of(LightweightServer.class, SpringWebApplication.class)) {
+            long[] millis = new long[RUNS];
+            long[] rss = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long[] result = run(main);
+                millis[i] = result[0];
+                rss[i] = result[1];
+            }
+            System.out.printf("%-20s %16d %12s%n", main.getSimpleName(), median(millis),
+                    median(rss) < 0 ? "n/a" : String.valueOf(median(rss) / 1024));
+        }
+    }
+
+    /**
+     * @return milliseconds until the first response and resident set size in KiB, -1 if unknown
+     */
+    private static long[] run(Class<?> main) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/compound?name=propane")
+        ).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(
+                java.toString(), "-cp", System.getProperty("java.class.path"), main.getName(), "--server.port=" + port
+        ).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (true) {
+                if (System.nanoTime() - start > TIMEOUT_NANOS || !process.isAlive()) {
+                    throw new IllegalStateException(main.getSimpleName() + " did not start.");
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (ConnectException e) {
+                    Thread.sleep(5);
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            return new long[]{millis, residentSetKiB(process.pid())};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static long residentSetKiB(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
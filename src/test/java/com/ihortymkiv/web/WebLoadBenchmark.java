@@ -0,0 +1,424 @@
+package com.ihortymkiv.web;
+
+import com.ihortymkiv.rihn.IsomerEnumerator;
+import com.ihortymkiv.rihn.LatencyHistogram;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of {@link SpringWebApplication}, booted in this JVM on a random port and driven by
+ * {@link HttpClient} workers.
+ * <p>
+ * Every worker sends one request at a time, paced at its share of {@code --rate}. A request goes to the page,
+ * the JSON API or the SVG API as weighted by {@code --mix}. A share of {@code --hit-ratio} of them are hits:
+ * they name a hydrocarbon fetched before the run and carry the {@code If-None-Match} of that response,
+ * so they are answered with 304. The rest are misses: they name a hydrocarbon no request has named yet,
+ * so the pipeline runs and nothing is served from the SVG cache. Once the fresh names run out, misses reuse
+ * them and the number of such requests is printed, as they may be cache hits.
+ * A worker that falls behind its schedule doesn't catch up, so the requests it missed are added to the histogram
+ * as {@link LatencyHistogram#recordCorrected(long, long)} does, which corrects for coordinated omission.
+ * Without a rate the workers send as fast as they can and latencies are not corrected.
+ * <p>
+ * Hits name valid hydrocarbons of 2 to 40 carbons with up to one double bond, misses valid hydrocarbons of up to
+ * 60 carbons with up to two double bonds and one triple bond, about half a million names. With a
+ * {@code WorkloadGenerator} corpus given with {@code --corpus}, hits and misses split its names instead. Other {@code --name=value} arguments are
+ * passed to Spring, e.g. {@code --rihn.admission.max-concurrent=64}.
+ * <p>
+ * {@code --out} saves the results as properties, and {@code --baseline} prints the change against saved results.
+ * Run with {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt} followed by
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.ihortymkiv.web.WebLoadBenchmark
+ * --concurrency=32 --rate=2000 --seconds=30 --mix=html:1,api:4,svg:1 --hit-ratio=0.5 --out=target/load.properties}.
+ */
+class WebLoadBenchmark {
+    private static final List<String> OPTIONS = List.of(
+            "concurrency", "rate", "seconds", "warmup-seconds", "mix", "hit-ratio", "corpus", "out", "baseline"
+    );
+
+    private enum Endpoint {
+        HTML("html", "/?hydrocarbon="),
+        API("api", "/api/compound?name="),
+        SVG("svg", "/api/compound.svg?name=");
+
+        final String label;
+        final String path;
+
+        Endpoint(String label, String path) {
+            this.label = label;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Names no request has named yet, shared by the warmup and the measured run.
+     */
+    private static final class Names {
+        private final List<String> names;
+        private final AtomicInteger next = new AtomicInteger();
+        private final LongAdder reused = new LongAdder();
+
+        Names(List<String> names) {
+            this.names = names;
+        }
+
+        String next() {
+            int index = next.getAndIncrement();
+            if (index >= names.size()) {
+                reused.increment();
+            }
+            return names.get(Math.floorMod(index, names.size()));
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUri;
+    private final List<String> names;
+    private final Names freshNames;
+    private final double[] mix;
+    private final double hitRatio;
+    private final Map<Endpoint, String[]> eTags = new HashMap<>();
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * @param names names fetched by {@link #prime()}, named by hits
+     * @param freshNames names named by misses
+     */
+    private WebLoadBenchmark(String baseUri, List<String> names, Names freshNames, double[] mix, double hitRatio) {
+        this.baseUri = baseUri;
+        this.names = names;
+        this.freshNames = freshNames;
+        this.mix = mix;
+        this.hitRatio = hitRatio;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>(List.of(
+                "--server.port=0", "--logging.level.root=warn", "--spring.main.log-startup-info=false"
+        ));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 0 ? arg.substring(2, separator) : "";
+            if (OPTIONS.contains(name)) {
+                options.put(name, arg.substring(separator + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "1000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "10"));
+        double[] mix = mix(options.getOrDefault("mix", "html:1,api:4,svg:1"));
+        double hitRatio = Double.parseDouble(options.getOrDefault("hit-ratio", "0.5"));
+        List<String> names;
+        List<String> fresh;
+        if (options.containsKey("corpus")) {
+            List<String> corpus = new ArrayList<>(corpus(Path.of(options.get("corpus"))));
+            Collections.shuffle(corpus, new Random(42));
+            names = corpus.subList(0, (corpus.size() + 1) / 2);
+            fresh = corpus.subList(names.size(), corpus.size());
+        } else {
+            names = names();
+            fresh = freshNames(names);
+        }
+        if (fresh.isEmpty()) {
+            throw new IllegalArgumentException("Not enough names for misses.");
+        }
+        Names freshNames = new Names(fresh);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringWebApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .run(springArgs.toArray(String[]::new))) {
+            String baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.printf("Driving %s with %d workers at %s, mix %s, hit ratio %.2f, %d names for hits,"
+                            + " %d for misses%n%n",
+                    baseUri, concurrency, rate > 0 ? rate + " requests/s" : "full speed",
+                    options.getOrDefault("mix", "html:1,api:4,svg:1"), hitRatio, names.size(), fresh.size());
+
+            WebLoadBenchmark warmup = new WebLoadBenchmark(baseUri, names, freshNames, mix, hitRatio);
+            warmup.prime();
+            warmup.run(concurrency, rate, warmupSeconds);
+
+            WebLoadBenchmark benchmark = new WebLoadBenchmark(baseUri, names, freshNames, mix, hitRatio);
+            benchmark.eTags.putAll(warmup.eTags);
+            long elapsed = benchmark.run(concurrency, rate, seconds);
+            Properties results = benchmark.results(elapsed);
+            benchmark.print(results, options.containsKey("baseline") ? load(Path.of(options.get("baseline"))) : null);
+            if (freshNames.reused.sum() > 0) {
+                System.out.printf("%n%d misses reused a name, raise the number of names or lower the rate%n",
+                        freshNames.reused.sum());
+            }
+            if (options.containsKey("out")) {
+                save(results, Path.of(options.get("out")));
+            }
+        }
+    }
+
+    /**
+     * Fetches every name from every endpoint once, to learn the entity tags sent by hits.
+     */
+    private void prime() throws IOException, InterruptedException {
+        for (Endpoint endpoint : Endpoint.values()) {
+            String[] tags = new String[names.size()];
+            for (int i = 0; i < names.size(); i++) {
+                HttpResponse<Void> response = client.send(
+                        request(endpoint, names.get(i), null), HttpResponse.BodyHandlers.discarding()
+                );
+                tags[i] = response.headers().firstValue("ETag").orElse(null);
+            }
+            eTags.put(endpoint, tags);
+        }
+    }
+
+    /**
+     * Runs the workers for {@code seconds} and waits for them to finish their last request.
+     *
+     * @return nanoseconds from start until the last worker finished
+     */
+    private long run(int concurrency, int rate, int seconds) throws InterruptedException {
+        long interval = rate > 0 ? 1_000_000_000L * concurrency / rate : 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            // Spread the first requests over one interval
+            long first = start + interval * i / concurrency;
+            workers.add(Thread.ofVirtual().start(() -> work(first, end, interval)));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void work(long first, long end, long interval) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long scheduled = first;
+        while (scheduled < end) {
+            long now = System.nanoTime();
+            if (scheduled > now) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+            Endpoint endpoint = pick(random.nextDouble());
+            String name;
+            String eTag = null;
+            if (random.nextDouble() < hitRatio) {
+                int index = random.nextInt(names.size());
+                name = names.get(index);
+                // Names that were rejected have no tag and are sent unconditionally
+                eTag = eTags.get(endpoint)[index];
+            } else {
+                name = freshNames.next();
+            }
+            String series = endpoint.label + (Objects.isNull(eTag) ? ".miss" : ".hit");
+
+            long sent = System.nanoTime();
+            String status;
+            try {
+                status = Integer.toString(client.send(
+                        request(endpoint, name, eTag), HttpResponse.BodyHandlers.discarding()
+                ).statusCode());
+            } catch (IOException e) {
+                status = e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long latency = System.nanoTime() - sent;
+            histograms.computeIfAbsent(series, key -> new LatencyHistogram()).recordCorrected(latency, interval);
+            statuses.computeIfAbsent(series + " " + status, key -> new LongAdder()).increment();
+            // A worker that is late starts its next request right away, without catching up on missed ones
+            scheduled = Math.max(scheduled + interval, interval > 0 ? System.nanoTime() : 0);
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint, String name, String eTag) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(
+                URI.create(baseUri + endpoint.path + URLEncoder.encode(name, StandardCharsets.UTF_8))
+        ).timeout(Duration.ofSeconds(30));
+        if (Objects.nonNull(eTag)) {
+            builder.header("If-None-Match", eTag);
+        }
+        return builder.build();
+    }
+
+    private Endpoint pick(double r) {
+        double total = 0;
+        for (double weight : mix) {
+            total += weight;
+        }
+        double point = r * total;
+        for (Endpoint endpoint : Endpoint.values()) {
+            point -= mix[endpoint.ordinal()];
+            if (point < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.API;
+    }
+
+    private Properties results(long elapsed) {
+        Properties results = new Properties();
+        LatencyHistogram total = new LatencyHistogram();
+        histograms.forEach((series, histogram) -> {
+            put(results, series, histogram);
+            total.add(histogram);
+        });
+        put(results, "all", total);
+        // Corrected histograms contain the missed requests as well, throughput only counts those actually sent
+        long sent = statuses.values().stream().mapToLong(LongAdder::sum).sum();
+        results.setProperty("throughput", String.format(Locale.ROOT, "%.1f", sent / (elapsed / 1e9)));
+        return results;
+    }
+
+    private static void put(Properties results, String series, LatencyHistogram histogram) {
+        results.setProperty(series + ".count", Long.toString(histogram.count()));
+        results.setProperty(series + ".p50", millis(histogram.percentile(50)));
+        results.setProperty(series + ".p99", millis(histogram.percentile(99)));
+        results.setProperty(series + ".p99.9", millis(histogram.percentile(99.9)));
+        results.setProperty(series + ".max", millis(histogram.max()));
+    }
+
+    private void print(Properties results, Properties baseline) {
+        // Changes against the baseline need wider columns
+        String row = Objects.isNull(baseline) ? "%-10s %9s %9s %9s %9s %9s%n" : "%-10s %9s %16s %16s %16s %16s%n";
+        System.out.printf(row, "series", "count", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        List<String> series = new ArrayList<>(new TreeMap<>(histograms).keySet());
+        series.add("all");
+        for (String name : series) {
+            System.out.printf(row, name,
+                    results.getProperty(name + ".count"),
+                    compare(results, baseline, name + ".p50"),
+                    compare(results, baseline, name + ".p99"),
+                    compare(results, baseline, name + ".p99.9"),
+                    compare(results, baseline, name + ".max"));
+        }
+        System.out.printf("%nThroughput: %s requests/s%n%n", compare(results, baseline, "throughput"));
+        new TreeMap<>(statuses).forEach((status, count) -> System.out.printf("%-30s %9d%n", status, count.sum()));
+    }
+
+    /**
+     * Formats a result followed by its change against the baseline in percent, if there is one.
+     */
+    private static String compare(Properties results, Properties baseline, String key) {
+        String value = results.getProperty(key);
+        if (Objects.isNull(baseline) || Objects.isNull(baseline.getProperty(key))) {
+            return value;
+        }
+        double before = Double.parseDouble(baseline.getProperty(key));
+        double change = before == 0 ? 0 : (Double.parseDouble(value) - before) / before * 100;
+        return String.format(Locale.ROOT, "%s (%+.0f%%)", value, change);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static double[] mix(String mix) {
+        double[] weights = new double[Endpoint.values().length];
+        for (String part : mix.split(",")) {
+            String[] entry = part.split(":");
+            Endpoint endpoint = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                if (candidate.label.equals(entry[0])) {
+                    endpoint = candidate;
+                }
+            }
+            if (Objects.isNull(endpoint) || entry.length != 2) {
+                throw new IllegalArgumentException("Mix must look like html:1,api:4,svg:1");
+            }
+            weights[endpoint.ordinal()] = Double.parseDouble(entry[1]);
+        }
+        return weights;
+    }
+
+    private static List<String> names() {
+        List<String> names = Collections.synchronizedList(new ArrayList<>());
+        IsomerEnumerator enumerator = new IsomerEnumerator();
+        enumerator.enumerate(2, 40, false, 0, 0, isomer -> names.add(isomer.name()));
+        enumerator.enumerate(2, 40, false, 1, 0, isomer -> names.add(isomer.name()));
+        // The enumerator's order depends on scheduling
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Returns valid names of up to 60 carbons that are not in {@code names}, in a fixed random order.
+     */
+    private static List<String> freshNames(List<String> names) {
+        List<String> fresh = Collections.synchronizedList(new ArrayList<>());
+        IsomerEnumerator enumerator = new IsomerEnumerator();
+        for (int bonds = 0; bonds < 6; bonds++) {
+            enumerator.enumerate(2, 60, false, bonds % 3, bonds / 3, isomer -> fresh.add(isomer.name()));
+        }
+        fresh.removeAll(new HashSet<>(names));
+        Collections.sort(fresh);
+        Collections.shuffle(fresh, new Random(42));
+        return fresh;
+    }
+
+    private static List<String> corpus(Path path) throws IOException {
+        List<String> names = Files.readAllLines(path).stream()
+                .filter(line -> !line.isBlank())
+                .map(line -> line.substring(line.indexOf('\t') + 1))
+                .distinct()
+                .toList();
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Corpus " + path + " is empty.");
+        }
+        return names;
+    }
+
+    private static Properties load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private static void save(Properties results, Path path) throws IOException {
+        if (Objects.nonNull(path.getParent())) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            results.store(writer, "WebLoadBenchmark results");
+        }
+    }
+}